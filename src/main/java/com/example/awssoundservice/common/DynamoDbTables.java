@@ -2,5 +2,8 @@ package com.example.awssoundservice.common;
 
 public class DynamoDbTables {
     public static final String PLAYLISTS = "aws_sound.playlists";
+    public static final String PLAYLIST_ENTRIES = "aws_sound.playlist_entries";
+    public static final String PLAYLIST_ENTRIES_BY_TRACK = "trackId-pk-index";
     public static final String TRACKS = "aws_sound.tracks";
+    public static final String TRACK_CONTENTS = "aws_sound.track_contents";
 }
@@ -0,0 +1,89 @@
+package com.example.awssoundservice.common.audio;
+
+import com.example.awssoundservice.model.AudioMetadata;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+@Slf4j
+public class AudioMetadataExtractor {
+
+    private static final int SNIFF_BYTES = 12;
+
+    private final int peakCount;
+    private final byte[] sniffed = new byte[SNIFF_BYTES];
+    private int sniffedLength;
+    private StreamingParser parser;
+    private boolean failed;
+    private long totalBytes;
+
+    public AudioMetadataExtractor(int peakCount) {
+        this.peakCount = peakCount;
+    }
+
+    public void feed(DataBuffer dataBuffer) {
+        try (DataBuffer.ByteBufferIterator iterator = dataBuffer.readableByteBuffers()) {
+            while (iterator.hasNext()) {
+                this.feed(iterator.next());
+            }
+        }
+    }
+
+    public void feed(ByteBuffer buffer) {
+        totalBytes += buffer.remaining();
+        if (failed || parser != null && parser.isStopped()) {
+            return;
+        }
+        try {
+            if (parser == null) {
+                int length = Math.min(SNIFF_BYTES - sniffedLength, buffer.remaining());
+                buffer.get(sniffed, sniffedLength, length);
+                sniffedLength += length;
+                if (sniffedLength < SNIFF_BYTES) {
+                    return;
+                }
+                parser = this.detect();
+                if (parser == null) {
+                    failed = true;
+                    return;
+                }
+                parser.feed(ByteBuffer.wrap(sniffed));
+            }
+            parser.feed(buffer);
+        } catch (RuntimeException e) {
+            log.debug("Failed to parse audio stream", e);
+            failed = true;
+        }
+    }
+
+    public Optional<AudioMetadata> finish() {
+        if (failed || parser == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(parser.finish(totalBytes));
+        } catch (RuntimeException e) {
+            log.debug("Failed to finish audio stream", e);
+            return Optional.empty();
+        }
+    }
+
+    private StreamingParser detect() {
+        if (StreamingParser.matches(sniffed, 0, "RIFF") && StreamingParser.matches(sniffed, 8, "WAVE")) {
+            return new WavParser(peakCount);
+        }
+        if (StreamingParser.matches(sniffed, 0, "fLaC")) {
+            return new FlacParser();
+        }
+        if (StreamingParser.matches(sniffed, 0, "OggS")) {
+            return new OggParser();
+        }
+        if (StreamingParser.matches(sniffed, 0, "ID3") || (sniffed[0] & 0xFF) == 0xFF && (sniffed[1] & 0xE0) == 0xE0) {
+            return new Mp3FrameParser();
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.example.awssoundservice.common.audio;
+
+import com.example.awssoundservice.model.AudioMetadata;
+
+class FlacParser extends StreamingParser {
+
+    private static final int STREAM_INFO = 0;
+    private static final int STREAM_INFO_BYTES = 34;
+
+    private State state = State.MARKER;
+    private int sampleRate;
+    private int channels;
+    private long totalSamples;
+
+    @Override
+    int required() {
+        return switch (state) {
+            case MARKER, BLOCK_HEADER -> 4;
+            case STREAM_INFO -> STREAM_INFO_BYTES;
+        };
+    }
+
+    @Override
+    long consume(byte[] bytes, int length) {
+        return switch (state) {
+            case MARKER -> {
+                if (!matches(bytes, 0, "fLaC")) {
+                    yield STOP;
+                }
+                state = State.BLOCK_HEADER;
+                yield 0;
+            }
+            case BLOCK_HEADER -> {
+                int blockLength = (bytes[1] & 0xFF) << 16 | (bytes[2] & 0xFF) << 8 | bytes[3] & 0xFF;
+                if ((bytes[0] & 0x7F) != STREAM_INFO || blockLength < STREAM_INFO_BYTES) {
+                    yield STOP;
+                }
+                state = State.STREAM_INFO;
+                yield 0;
+            }
+            case STREAM_INFO -> {
+                sampleRate = (bytes[10] & 0xFF) << 12 | (bytes[11] & 0xFF) << 4 | (bytes[12] & 0xFF) >> 4;
+                channels = ((bytes[12] & 0xFF) >> 1 & 7) + 1;
+                totalSamples = ((long) bytes[13] & 0x0F) << 32 | uint32be(bytes, 14);
+                yield STOP;
+            }
+        };
+    }
+
+    private static long uint32be(byte[] bytes, int offset) {
+        return ((long) (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16
+                | (bytes[offset + 2] & 0xFF) << 8 | bytes[offset + 3] & 0xFF) & 0xFFFFFFFFL;
+    }
+
+    @Override
+    AudioMetadata finish(long totalBytes) {
+        if (sampleRate <= 0) {
+            return null;
+        }
+        long durationMillis = totalSamples * 1000 / sampleRate;
+        return new AudioMetadata(
+                "flac", durationMillis, bitrate(totalBytes, durationMillis), sampleRate, channels, new byte[0]
+        );
+    }
+
+    private enum State {
+        MARKER,
+        BLOCK_HEADER,
+        STREAM_INFO
+    }
+
+}
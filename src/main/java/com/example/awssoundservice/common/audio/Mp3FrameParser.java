@@ -0,0 +1,125 @@
+package com.example.awssoundservice.common.audio;
+
+import com.example.awssoundservice.model.AudioMetadata;
+
+class Mp3FrameParser extends StreamingParser {
+
+    private static final int HEADER_BYTES = 4;
+    private static final int ID3_HEADER_BYTES = 10;
+    private static final int MAX_RESYNC_BYTES = 64 * 1024;
+    private static final int[] MPEG1_BITRATES = {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320};
+    private static final int[] MPEG2_BITRATES = {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160};
+    private static final int[][] SAMPLE_RATES = {
+            {11025, 12000, 8000},
+            {0, 0, 0},
+            {22050, 24000, 16000},
+            {44100, 48000, 32000}
+    };
+
+    private State state = State.ID3_HEADER;
+    private int version = -1;
+    private int sampleRate;
+    private int channels;
+    private int frameLength;
+    private int sideInfoOffset;
+    private int sideInfoLength;
+    private int resyncBytes;
+    private long frames;
+    private long samples;
+    private long audioBytes;
+
+    @Override
+    int required() {
+        return switch (state) {
+            case ID3_HEADER -> ID3_HEADER_BYTES;
+            case FRAME_HEADER -> HEADER_BYTES;
+            case FRAME -> Math.min(frameLength, sideInfoOffset + sideInfoLength + 4);
+        };
+    }
+
+    @Override
+    long consume(byte[] bytes, int length) {
+        return switch (state) {
+            case ID3_HEADER -> {
+                state = State.FRAME_HEADER;
+                if (!matches(bytes, 0, "ID3")) {
+                    this.retain(0);
+                    yield 0;
+                }
+                int size = (bytes[6] & 0x7F) << 21 | (bytes[7] & 0x7F) << 14 | (bytes[8] & 0x7F) << 7 | bytes[9] & 0x7F;
+                yield size + ((bytes[5] & 0x10) != 0 ? ID3_HEADER_BYTES : 0);
+            }
+            case FRAME_HEADER -> this.frameHeader(bytes);
+            case FRAME -> this.frame(bytes, length);
+        };
+    }
+
+    private long frameHeader(byte[] bytes) {
+        int b1 = bytes[1] & 0xFF;
+        int b2 = bytes[2] & 0xFF;
+        int frameVersion = b1 >> 3 & 3;
+        int layer = b1 >> 1 & 3;
+        int bitrateIndex = b2 >> 4;
+        int sampleRateIndex = b2 >> 2 & 3;
+        boolean valid = (bytes[0] & 0xFF) == 0xFF && (b1 & 0xE0) == 0xE0
+                && frameVersion != 1 && layer == 1
+                && bitrateIndex != 0 && bitrateIndex != 15 && sampleRateIndex != 3
+                && (version < 0
+                        || version == frameVersion && sampleRate == SAMPLE_RATES[frameVersion][sampleRateIndex]);
+        if (!valid) {
+            if (++resyncBytes > MAX_RESYNC_BYTES) {
+                return STOP;
+            }
+            this.retain(1);
+            return 0;
+        }
+        resyncBytes = 0;
+        boolean mpeg1 = frameVersion == 3;
+        boolean mono = (bytes[3] & 0xFF) >> 6 == 3;
+        int rate = SAMPLE_RATES[frameVersion][sampleRateIndex];
+        int bitrate = (mpeg1 ? MPEG1_BITRATES : MPEG2_BITRATES)[bitrateIndex] * 1000;
+        int padding = b2 >> 1 & 1;
+        version = frameVersion;
+        sampleRate = rate;
+        channels = mono ? 1 : 2;
+        frameLength = (mpeg1 ? 144 : 72) * bitrate / rate + padding;
+        sideInfoOffset = (b1 & 1) == 0 ? HEADER_BYTES + 2 : HEADER_BYTES;
+        sideInfoLength = mpeg1 ? (mono ? 17 : 32) : (mono ? 9 : 17);
+        state = State.FRAME;
+        this.retain(0);
+        return 0;
+    }
+
+    private long frame(byte[] bytes, int length) {
+        state = State.FRAME_HEADER;
+        boolean mpeg1 = version == 3;
+        int samplesPerFrame = mpeg1 ? 1152 : 576;
+        int tagOffset = sideInfoOffset + sideInfoLength;
+        boolean infoTag = frames == 0 && length >= tagOffset + 4
+                && (matches(bytes, tagOffset, "Xing") || matches(bytes, tagOffset, "Info"));
+        if (!infoTag) {
+            frames++;
+            samples += samplesPerFrame;
+            audioBytes += frameLength;
+        }
+        return frameLength - length;
+    }
+
+    @Override
+    AudioMetadata finish(long totalBytes) {
+        if (frames == 0) {
+            return null;
+        }
+        long durationMillis = samples * 1000 / sampleRate;
+        return new AudioMetadata(
+                "mp3", durationMillis, bitrate(audioBytes, durationMillis), sampleRate, channels, new byte[0]
+        );
+    }
+
+    private enum State {
+        ID3_HEADER,
+        FRAME_HEADER,
+        FRAME
+    }
+
+}
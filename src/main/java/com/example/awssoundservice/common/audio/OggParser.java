@@ -0,0 +1,104 @@
+package com.example.awssoundservice.common.audio;
+
+import com.example.awssoundservice.model.AudioMetadata;
+
+class OggParser extends StreamingParser {
+
+    private static final int PAGE_HEADER_BYTES = 27;
+    private static final int IDENTIFICATION_BYTES = 28;
+    private static final int OPUS_SAMPLE_RATE = 48_000;
+
+    private State state = State.PAGE_HEADER;
+    private int segmentCount;
+    private int bodyLength;
+    private long serial;
+    private long lastGranule = -1;
+    private String codec;
+    private int sampleRate;
+    private int channels;
+    private int preSkip;
+
+    @Override
+    int required() {
+        return switch (state) {
+            case PAGE_HEADER -> PAGE_HEADER_BYTES;
+            case SEGMENT_TABLE -> segmentCount;
+            case IDENTIFICATION -> Math.min(bodyLength, IDENTIFICATION_BYTES);
+        };
+    }
+
+    @Override
+    long consume(byte[] bytes, int length) {
+        return switch (state) {
+            case PAGE_HEADER -> this.pageHeader(bytes);
+            case SEGMENT_TABLE -> {
+                bodyLength = 0;
+                for (int i = 0; i < length; i++) {
+                    bodyLength += bytes[i] & 0xFF;
+                }
+                if (codec == null && bodyLength > 0) {
+                    state = State.IDENTIFICATION;
+                    yield 0;
+                }
+                state = State.PAGE_HEADER;
+                yield bodyLength;
+            }
+            case IDENTIFICATION -> {
+                this.identification(bytes, length);
+                state = State.PAGE_HEADER;
+                yield bodyLength - length;
+            }
+        };
+    }
+
+    private long pageHeader(byte[] bytes) {
+        if (!matches(bytes, 0, "OggS")) {
+            return STOP;
+        }
+        long pageSerial = uint32le(bytes, 14);
+        long granule = int64le(bytes, 6);
+        if (codec == null) {
+            serial = pageSerial;
+        } else if (pageSerial == serial && granule != -1) {
+            lastGranule = granule;
+        }
+        segmentCount = bytes[26] & 0xFF;
+        state = segmentCount > 0 ? State.SEGMENT_TABLE : State.PAGE_HEADER;
+        return 0;
+    }
+
+    private void identification(byte[] bytes, int length) {
+        if (length >= 16 && matches(bytes, 0, "OpusHead")) {
+            codec = "opus";
+            channels = bytes[9] & 0xFF;
+            preSkip = uint16le(bytes, 10);
+            sampleRate = (int) uint32le(bytes, 12);
+        } else if (length >= 16 && bytes[0] == 1 && matches(bytes, 1, "vorbis")) {
+            codec = "vorbis";
+            channels = bytes[11] & 0xFF;
+            sampleRate = (int) uint32le(bytes, 12);
+        } else {
+            codec = "ogg";
+        }
+    }
+
+    @Override
+    AudioMetadata finish(long totalBytes) {
+        if (codec == null || lastGranule < 0) {
+            return null;
+        }
+        long durationMillis = "opus".equals(codec)
+                ? Math.max(0, lastGranule - preSkip) * 1000 / OPUS_SAMPLE_RATE
+                : sampleRate > 0 ? lastGranule * 1000 / sampleRate : 0;
+        return new AudioMetadata(
+                codec, durationMillis, bitrate(totalBytes, durationMillis), sampleRate, channels, new byte[0]
+        );
+    }
+
+    private enum State {
+        PAGE_HEADER,
+        SEGMENT_TABLE,
+        IDENTIFICATION
+    }
+
+}
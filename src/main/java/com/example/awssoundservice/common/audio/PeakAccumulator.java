@@ -0,0 +1,68 @@
+package com.example.awssoundservice.common.audio;
+
+class PeakAccumulator {
+
+    private static final long INITIAL_SAMPLES_PER_BUCKET = 256;
+
+    private final int targetCount;
+    private final float[] buckets;
+    private int count;
+    private long samplesPerBucket = INITIAL_SAMPLES_PER_BUCKET;
+    private long samplesInBucket;
+    private float current;
+
+    PeakAccumulator(int targetCount) {
+        this.targetCount = targetCount;
+        this.buckets = new float[targetCount * 2];
+    }
+
+    void add(float amplitude, int samples) {
+        if (targetCount == 0) {
+            return;
+        }
+        current = Math.max(current, amplitude);
+        samplesInBucket += samples;
+        if (samplesInBucket < samplesPerBucket) {
+            return;
+        }
+        buckets[count++] = current;
+        current = 0;
+        samplesInBucket = 0;
+        if (count == buckets.length) {
+            this.halve();
+            samplesPerBucket *= 2;
+        }
+    }
+
+    byte[] finish() {
+        if (samplesInBucket > 0) {
+            buckets[count++] = current;
+            samplesInBucket = 0;
+            current = 0;
+        }
+        while (count > targetCount) {
+            this.halve();
+        }
+        float max = 0;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, buckets[i]);
+        }
+        byte[] peaks = new byte[count];
+        if (max <= 0) {
+            return peaks;
+        }
+        for (int i = 0; i < count; i++) {
+            peaks[i] = (byte) Math.round(buckets[i] / max * 255);
+        }
+        return peaks;
+    }
+
+    private void halve() {
+        int merged = 0;
+        for (int i = 0; i < count; i += 2) {
+            buckets[merged++] = i + 1 < count ? Math.max(buckets[i], buckets[i + 1]) : buckets[i];
+        }
+        count = merged;
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.example.awssoundservice.common.audio;
+
+import com.example.awssoundservice.model.AudioMetadata;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+abstract class StreamingParser {
+
+    static final long STOP = -1;
+
+    private byte[] pending = new byte[64];
+    private int pendingLength;
+    private int retainedFrom = -1;
+    private long skip;
+    private boolean stopped;
+
+    final void feed(ByteBuffer input) {
+        while (!stopped) {
+            if (skip > 0) {
+                if (pendingLength > 0) {
+                    int dropped = (int) Math.min(skip, pendingLength);
+                    this.dropPending(dropped);
+                    skip -= dropped;
+                    continue;
+                }
+                if (!input.hasRemaining()) {
+                    return;
+                }
+                int skipped = (int) Math.min(skip, input.remaining());
+                input.position(input.position() + skipped);
+                skip -= skipped;
+                continue;
+            }
+            int required = this.required();
+            if (pendingLength < required) {
+                if (!input.hasRemaining()) {
+                    return;
+                }
+                if (pending.length < required) {
+                    pending = Arrays.copyOf(pending, Math.max(required, pending.length * 2));
+                }
+                int length = Math.min(required - pendingLength, input.remaining());
+                input.get(pending, pendingLength, length);
+                pendingLength += length;
+                continue;
+            }
+            long next = this.consume(pending, required);
+            this.dropPending(retainedFrom >= 0 ? retainedFrom : required);
+            retainedFrom = -1;
+            if (next == STOP) {
+                stopped = true;
+            } else {
+                skip = next;
+            }
+        }
+    }
+
+    private void dropPending(int count) {
+        pendingLength -= count;
+        System.arraycopy(pending, count, pending, 0, pendingLength);
+    }
+
+    final void retain(int from) {
+        retainedFrom = from;
+    }
+
+    final boolean isStopped() {
+        return stopped;
+    }
+
+    abstract int required();
+
+    abstract long consume(byte[] bytes, int length);
+
+    abstract AudioMetadata finish(long totalBytes);
+
+    static int uint16le(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8;
+    }
+
+    static long uint32le(byte[] bytes, int offset) {
+        return (uint16le(bytes, offset) | (long) uint16le(bytes, offset + 2) << 16) & 0xFFFFFFFFL;
+    }
+
+    static long int64le(byte[] bytes, int offset) {
+        return uint32le(bytes, offset) | uint32le(bytes, offset + 4) << 32;
+    }
+
+    static boolean matches(byte[] bytes, int offset, String ascii) {
+        for (int i = 0; i < ascii.length(); i++) {
+            if (bytes[offset + i] != (byte) ascii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int bitrate(long totalBytes, long durationMillis) {
+        return durationMillis <= 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, totalBytes * 8_000 / durationMillis);
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.example.awssoundservice.common.audio;
+
+import com.example.awssoundservice.model.AudioMetadata;
+
+class WavParser extends StreamingParser {
+
+    private static final int FORMAT_PCM = 1;
+    private static final int FORMAT_IEEE_FLOAT = 3;
+    private static final int FORMAT_EXTENSIBLE = 0xFFFE;
+    private static final int FRAMES_PER_STEP = 4096;
+    private static final long UNKNOWN_SIZE = 0xFFFFFFFFL;
+
+    private final PeakAccumulator peaks;
+    private State state = State.RIFF_HEADER;
+    private int chunkSize;
+    private int format;
+    private int channels;
+    private int sampleRate;
+    private long byteRate;
+    private int blockAlign;
+    private int bitsPerSample;
+    private long dataSize = -1;
+    private long dataRemaining;
+    private long dataRead;
+
+    WavParser(int peakCount) {
+        this.peaks = new PeakAccumulator(peakCount);
+    }
+
+    @Override
+    int required() {
+        return switch (state) {
+            case RIFF_HEADER -> 12;
+            case CHUNK_HEADER -> 8;
+            case FORMAT -> chunkSize;
+            case DATA -> (int) Math.min((long) blockAlign * FRAMES_PER_STEP, dataRemaining / blockAlign * blockAlign);
+        };
+    }
+
+    @Override
+    long consume(byte[] bytes, int length) {
+        return switch (state) {
+            case RIFF_HEADER -> {
+                if (!matches(bytes, 0, "RIFF") || !matches(bytes, 8, "WAVE")) {
+                    yield STOP;
+                }
+                state = State.CHUNK_HEADER;
+                yield 0;
+            }
+            case CHUNK_HEADER -> this.chunkHeader(bytes);
+            case FORMAT -> this.format(bytes, length);
+            case DATA -> this.data(bytes, length);
+        };
+    }
+
+    private long chunkHeader(byte[] bytes) {
+        long size = uint32le(bytes, 4);
+        if (matches(bytes, 0, "fmt ")) {
+            if (size < 16 || size > 64) {
+                return STOP;
+            }
+            chunkSize = (int) size;
+            state = State.FORMAT;
+            return 0;
+        }
+        if (matches(bytes, 0, "data")) {
+            if (blockAlign <= 0) {
+                return STOP;
+            }
+            dataSize = size == UNKNOWN_SIZE || size == 0 ? -1 : size;
+            dataRemaining = dataSize < 0 ? Long.MAX_VALUE : dataSize;
+            if (!this.isPcm() || dataRemaining < blockAlign) {
+                return STOP;
+            }
+            state = State.DATA;
+            return 0;
+        }
+        return size + (size & 1);
+    }
+
+    private long format(byte[] bytes, int length) {
+        format = uint16le(bytes, 0);
+        channels = uint16le(bytes, 2);
+        sampleRate = (int) uint32le(bytes, 4);
+        byteRate = uint32le(bytes, 8);
+        blockAlign = uint16le(bytes, 12);
+        bitsPerSample = uint16le(bytes, 14);
+        if (format == FORMAT_EXTENSIBLE && length >= 26) {
+            format = uint16le(bytes, 24);
+        }
+        state = State.CHUNK_HEADER;
+        return length & 1;
+    }
+
+    private long data(byte[] bytes, int length) {
+        int bytesPerSample = bitsPerSample / 8;
+        for (int frame = 0; frame < length; frame += blockAlign) {
+            float amplitude = 0;
+            for (int channel = 0; channel < channels; channel++) {
+                amplitude = Math.max(amplitude, this.sample(bytes, frame + channel * bytesPerSample));
+            }
+            peaks.add(amplitude, 1);
+        }
+        dataRead += length;
+        dataRemaining -= length;
+        return dataRemaining < blockAlign ? STOP : 0;
+    }
+
+    private float sample(byte[] bytes, int offset) {
+        if (format == FORMAT_IEEE_FLOAT) {
+            return Math.min(1, Math.abs(Float.intBitsToFloat((int) uint32le(bytes, offset))));
+        }
+        return switch (bitsPerSample) {
+            case 8 -> Math.abs((bytes[offset] & 0xFF) - 128) / 128f;
+            case 16 -> Math.abs((short) uint16le(bytes, offset)) / 32768f;
+            case 24 -> Math.abs((bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8 | bytes[offset + 2] << 16)
+                    / 8388608f;
+            default -> Math.abs((float) (int) uint32le(bytes, offset)) / 2147483648f;
+        };
+    }
+
+    private boolean isPcm() {
+        if (channels <= 0 || blockAlign < channels * (bitsPerSample / 8)) {
+            return false;
+        }
+        return format == FORMAT_PCM && (bitsPerSample == 8 || bitsPerSample == 16 || bitsPerSample == 24
+                || bitsPerSample == 32) || format == FORMAT_IEEE_FLOAT && bitsPerSample == 32;
+    }
+
+    @Override
+    AudioMetadata finish(long totalBytes) {
+        if (sampleRate <= 0 || blockAlign <= 0) {
+            return null;
+        }
+        long audioBytes = dataSize >= 0 ? dataSize : dataRead;
+        long durationMillis = audioBytes / blockAlign * 1000 / sampleRate;
+        return new AudioMetadata(
+                this.codec(),
+                durationMillis,
+                (int) Math.min(Integer.MAX_VALUE, byteRate * 8),
+                sampleRate,
+                channels,
+                peaks.finish()
+        );
+    }
+
+    private String codec() {
+        if (format == FORMAT_IEEE_FLOAT) {
+            return "pcm_f32le";
+        }
+        if (format != FORMAT_PCM) {
+            return "wav";
+        }
+        return bitsPerSample == 8 ? "pcm_u8" : "pcm_s" + bitsPerSample + "le";
+    }
+
+    private enum State {
+        RIFF_HEADER,
+        CHUNK_HEADER,
+        FORMAT,
+        DATA
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.example.awssoundservice.common.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+public class EntityCache<V> implements MeterBinder {
+
+    private final String name;
+    private final boolean cacheMissing;
+    private final AsyncCache<String, Optional<V>> cache;
+
+    public EntityCache(String name, long maximumSize, Duration ttl, boolean cacheMissing) {
+        this.name = name;
+        this.cacheMissing = cacheMissing;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
+    public Mono<V> get(String key, Function<String, Mono<V>> loader) {
+        return Mono.deferContextual(context -> {
+            CompletableFuture<Optional<V>> future = cache.get(key, (k, executor) -> loader.apply(k)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .contextWrite(context)
+                    .toFuture()
+            );
+            return Mono.fromFuture(future, true)
+                    .doOnNext(value -> {
+                        if (value.isEmpty() && !cacheMissing) {
+                            cache.asMap().remove(key, future);
+                        }
+                    })
+                    .flatMap(Mono::justOrEmpty);
+        });
+    }
+
+    public void put(String key, V value) {
+        cache.put(key, CompletableFuture.completedFuture(Optional.of(value)));
+    }
+
+    public void invalidate(String key) {
+        cache.synchronous().invalidate(key);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(cache.synchronous(), name, List.of()).bindTo(registry);
+    }
+
+}
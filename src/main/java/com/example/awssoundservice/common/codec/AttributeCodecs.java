@@ -0,0 +1,80 @@
+package com.example.awssoundservice.common.codec;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class AttributeCodecs {
+
+    public static final AttributeValue EMPTY_STRING = AttributeValue.fromS("");
+
+    public static AttributeValue number(int value) {
+        return AttributeValue.fromN(Integer.toString(value));
+    }
+
+    public static AttributeValue number(long value) {
+        return AttributeValue.fromN(Long.toString(value));
+    }
+
+    public static AttributeValue number(BigDecimal value) {
+        return AttributeValue.fromN(value.stripTrailingZeros().toPlainString());
+    }
+
+    public static AttributeValue string(String value) {
+        return value == null || value.isEmpty() ? EMPTY_STRING : AttributeValue.fromS(value);
+    }
+
+    public static AttributeValue binary(byte[] value) {
+        return AttributeValue.fromB(SdkBytes.fromByteArray(value));
+    }
+
+    public static AttributeValue stringSet(Collection<String> values) {
+        return AttributeValue.builder().ss(values).build();
+    }
+
+    public static String requireString(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        if (value == null || value.s() == null) {
+            throw new IllegalArgumentException("Item has no string attribute " + name);
+        }
+        return value.s();
+    }
+
+    public static String getString(Map<String, AttributeValue> item, String name, String defaultValue) {
+        AttributeValue value = item.get(name);
+        return value == null || value.s() == null ? defaultValue : value.s();
+    }
+
+    public static BigDecimal requireNumber(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        if (value == null || value.n() == null) {
+            throw new IllegalArgumentException("Item has no number attribute " + name);
+        }
+        return new BigDecimal(value.n());
+    }
+
+    public static int getInt(Map<String, AttributeValue> item, String name, int defaultValue) {
+        AttributeValue value = item.get(name);
+        return value == null || value.n() == null ? defaultValue : Integer.parseInt(value.n());
+    }
+
+    public static long getLong(Map<String, AttributeValue> item, String name, long defaultValue) {
+        AttributeValue value = item.get(name);
+        return value == null || value.n() == null ? defaultValue : Long.parseLong(value.n());
+    }
+
+    public static byte[] getBinary(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        return value == null || value.b() == null ? new byte[0] : value.b().asByteArray();
+    }
+
+    public static List<String> getStringSet(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        return value == null || !value.hasSs() ? List.of() : value.ss();
+    }
+
+}
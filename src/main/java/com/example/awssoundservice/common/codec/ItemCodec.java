@@ -0,0 +1,24 @@
+package com.example.awssoundservice.common.codec;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ItemCodec<T> {
+
+    String SCHEMA_VERSION = "_v";
+    int LEGACY_SCHEMA_VERSION = 1;
+
+    T decode(Map<String, AttributeValue> item);
+
+    Map<String, AttributeValue> encode(T value);
+
+    List<String> attributes();
+
+    static int schemaVersion(Map<String, AttributeValue> item) {
+        AttributeValue version = item.get(SCHEMA_VERSION);
+        return version == null || version.n() == null ? LEGACY_SCHEMA_VERSION : Integer.parseInt(version.n());
+    }
+
+}
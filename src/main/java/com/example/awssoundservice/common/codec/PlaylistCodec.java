@@ -0,0 +1,59 @@
+package com.example.awssoundservice.common.codec;
+
+import com.example.awssoundservice.model.Playlist;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class PlaylistCodec implements ItemCodec<Playlist> {
+
+    public static final PlaylistCodec INSTANCE = new PlaylistCodec();
+
+    public static final int CURRENT_SCHEMA_VERSION = 4;
+    public static final int ENTRIES_SCHEMA_VERSION = 3;
+    public static final AttributeValue CURRENT_SCHEMA_VERSION_VALUE = AttributeCodecs.number(CURRENT_SCHEMA_VERSION);
+    public static final String LEGACY_TRACK_IDS = "trackIds";
+
+    private static final List<String> ATTRIBUTES = List.of("uid", "name", "trackCount", LEGACY_TRACK_IDS, SCHEMA_VERSION);
+
+    private PlaylistCodec() {
+    }
+
+    @Override
+    public Playlist decode(Map<String, AttributeValue> item) {
+        int trackCount = ItemCodec.schemaVersion(item) < ENTRIES_SCHEMA_VERSION
+                ? legacyTrackIds(item).size()
+                : AttributeCodecs.getInt(item, "trackCount", 0);
+        return new Playlist(
+                AttributeCodecs.requireString(item, "uid"),
+                AttributeCodecs.getString(item, "name", ""),
+                trackCount
+        );
+    }
+
+    @Override
+    public Map<String, AttributeValue> encode(Playlist playlist) {
+        Map<String, AttributeValue> item = HashMap.newHashMap(ATTRIBUTES.size());
+        item.put("uid", AttributeValue.fromS(playlist.uid()));
+        item.put("name", AttributeCodecs.string(playlist.name()));
+        item.put("trackCount", AttributeCodecs.number(playlist.trackCount()));
+        item.put(SCHEMA_VERSION, CURRENT_SCHEMA_VERSION_VALUE);
+        return item;
+    }
+
+    @Override
+    public List<String> attributes() {
+        return ATTRIBUTES;
+    }
+
+    public static boolean isCurrent(Map<String, AttributeValue> item) {
+        return ItemCodec.schemaVersion(item) >= CURRENT_SCHEMA_VERSION;
+    }
+
+    public static List<String> legacyTrackIds(Map<String, AttributeValue> item) {
+        return AttributeCodecs.getStringSet(item, LEGACY_TRACK_IDS);
+    }
+
+}
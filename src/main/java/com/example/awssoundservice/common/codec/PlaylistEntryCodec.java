@@ -0,0 +1,90 @@
+package com.example.awssoundservice.common.codec;
+
+import com.example.awssoundservice.model.PlaylistEntry;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class PlaylistEntryCodec implements ItemCodec<PlaylistEntry> {
+
+    public static final PlaylistEntryCodec INSTANCE = new PlaylistEntryCodec();
+
+    public static final String PARTITION_KEY = "pk";
+    public static final String SORT_KEY = "position";
+    public static final String PLAYLIST_PREFIX = "playlist#";
+    public static final String MEMBER_PREFIX = "member#";
+    public static final String ENTRY_POSITION = "entryPosition";
+
+    private static final int CURRENT_SCHEMA_VERSION = 1;
+    private static final AttributeValue CURRENT_SCHEMA_VERSION_VALUE = AttributeCodecs.number(CURRENT_SCHEMA_VERSION);
+    private static final AttributeValue MEMBER_SORT_KEY = AttributeCodecs.number(0);
+    private static final List<String> ATTRIBUTES = List.of(
+            PARTITION_KEY, SORT_KEY, "trackId", "name", "fileKey", "fileUrl", SCHEMA_VERSION
+    );
+
+    private PlaylistEntryCodec() {
+    }
+
+    @Override
+    public PlaylistEntry decode(Map<String, AttributeValue> item) {
+        return new PlaylistEntry(
+                AttributeCodecs.requireString(item, PARTITION_KEY).substring(PLAYLIST_PREFIX.length()),
+                AttributeCodecs.requireNumber(item, SORT_KEY),
+                AttributeCodecs.requireString(item, "trackId"),
+                AttributeCodecs.getString(item, "name", ""),
+                AttributeCodecs.getString(item, "fileKey", ""),
+                AttributeCodecs.getString(item, "fileUrl", "")
+        );
+    }
+
+    @Override
+    public Map<String, AttributeValue> encode(PlaylistEntry entry) {
+        Map<String, AttributeValue> item = HashMap.newHashMap(ATTRIBUTES.size());
+        item.put(PARTITION_KEY, partitionKey(entry.playlistId()));
+        item.put(SORT_KEY, AttributeCodecs.number(entry.position()));
+        item.put("trackId", AttributeValue.fromS(entry.trackId()));
+        item.put("name", AttributeCodecs.string(entry.name()));
+        if (entry.fileKey() != null && !entry.fileKey().isEmpty()) {
+            item.put("fileKey", AttributeValue.fromS(entry.fileKey()));
+        }
+        if (entry.fileUrl() != null && !entry.fileUrl().isEmpty()) {
+            item.put("fileUrl", AttributeValue.fromS(entry.fileUrl()));
+        }
+        item.put(SCHEMA_VERSION, CURRENT_SCHEMA_VERSION_VALUE);
+        return item;
+    }
+
+    @Override
+    public List<String> attributes() {
+        return ATTRIBUTES;
+    }
+
+    public static AttributeValue partitionKey(String playlistId) {
+        return AttributeValue.fromS(PLAYLIST_PREFIX + playlistId);
+    }
+
+    public static Map<String, AttributeValue> key(String playlistId, BigDecimal position) {
+        return Map.of(PARTITION_KEY, partitionKey(playlistId), SORT_KEY, AttributeCodecs.number(position));
+    }
+
+    public static Map<String, AttributeValue> memberKey(String playlistId, String trackId) {
+        return Map.of(
+                PARTITION_KEY, AttributeValue.fromS(MEMBER_PREFIX + playlistId + "#" + trackId),
+                SORT_KEY, MEMBER_SORT_KEY
+        );
+    }
+
+    public static Map<String, AttributeValue> encodeMember(PlaylistEntry entry) {
+        Map<String, AttributeValue> item = new HashMap<>(memberKey(entry.playlistId(), entry.trackId()));
+        item.put(ENTRY_POSITION, AttributeCodecs.number(entry.position()));
+        return item;
+    }
+
+    public static PlaylistEntry decodeMember(String playlistId, String trackId, Map<String, AttributeValue> item) {
+        return new PlaylistEntry(playlistId, AttributeCodecs.requireNumber(item, ENTRY_POSITION), trackId, "", "", "");
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.example.awssoundservice.common.codec;
+
+import com.example.awssoundservice.model.AudioMetadata;
+import com.example.awssoundservice.model.Track;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public final class TrackCodec implements ItemCodec<Track> {
+
+    public static final TrackCodec INSTANCE = new TrackCodec();
+
+    private static final int CURRENT_SCHEMA_VERSION = 2;
+    private static final AttributeValue CURRENT_SCHEMA_VERSION_VALUE = AttributeCodecs.number(CURRENT_SCHEMA_VERSION);
+    public static final String CONTENT_SHA256 = "contentSha256";
+    public static final String CODEC = "codec";
+    public static final List<String> AUDIO_ATTRIBUTES = List.of(
+            CODEC, "durationMs", "bitrate", "sampleRate", "channels", "peaks"
+    );
+    private static final List<String> ATTRIBUTES = Stream.concat(
+            Stream.of("uid", "name", "fileKey", "fileUrl", SCHEMA_VERSION),
+            AUDIO_ATTRIBUTES.stream()
+    ).toList();
+
+    private TrackCodec() {
+    }
+
+    @Override
+    public Track decode(Map<String, AttributeValue> item) {
+        return new Track(
+                AttributeCodecs.requireString(item, "uid"),
+                AttributeCodecs.getString(item, "name", ""),
+                AttributeCodecs.getString(item, "fileKey", ""),
+                AttributeCodecs.getString(item, "fileUrl", ""),
+                this.decodeAudio(item)
+        );
+    }
+
+    public AudioMetadata decodeAudio(Map<String, AttributeValue> item) {
+        if (!item.containsKey(CODEC)) {
+            return null;
+        }
+        return new AudioMetadata(
+                AttributeCodecs.getString(item, CODEC, ""),
+                AttributeCodecs.getLong(item, "durationMs", 0),
+                AttributeCodecs.getInt(item, "bitrate", 0),
+                AttributeCodecs.getInt(item, "sampleRate", 0),
+                AttributeCodecs.getInt(item, "channels", 0),
+                AttributeCodecs.getBinary(item, "peaks")
+        );
+    }
+
+    public Map<String, AttributeValue> encodeAudio(AudioMetadata audio) {
+        Map<String, AttributeValue> item = HashMap.newHashMap(AUDIO_ATTRIBUTES.size());
+        item.put(CODEC, AttributeCodecs.string(audio.codec()));
+        item.put("durationMs", AttributeCodecs.number(audio.durationMillis()));
+        item.put("bitrate", AttributeCodecs.number(audio.bitrate()));
+        item.put("sampleRate", AttributeCodecs.number(audio.sampleRate()));
+        item.put("channels", AttributeCodecs.number(audio.channels()));
+        if (audio.peaks() != null && audio.peaks().length > 0) {
+            item.put("peaks", AttributeCodecs.binary(audio.peaks()));
+        }
+        return item;
+    }
+
+    @Override
+    public Map<String, AttributeValue> encode(Track track) {
+        Map<String, AttributeValue> item = HashMap.newHashMap(ATTRIBUTES.size());
+        item.put("uid", AttributeValue.fromS(track.uid()));
+        item.put("name", AttributeCodecs.string(track.name()));
+        if (track.fileKey() != null && !track.fileKey().isEmpty()) {
+            item.put("fileKey", AttributeValue.fromS(track.fileKey()));
+        }
+        if (track.fileUrl() != null && !track.fileUrl().isEmpty()) {
+            item.put("fileUrl", AttributeValue.fromS(track.fileUrl()));
+        }
+        if (track.audio() != null) {
+            item.putAll(this.encodeAudio(track.audio()));
+        }
+        item.put(SCHEMA_VERSION, CURRENT_SCHEMA_VERSION_VALUE);
+        return item;
+    }
+
+    @Override
+    public List<String> attributes() {
+        return ATTRIBUTES;
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.example.awssoundservice.common.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class AdaptiveConcurrencyLimiter {
+
+    private final Settings settings;
+    private final Deque<MonoSink<Permit>> waiters = new ArrayDeque<>();
+    private final Counter queueFullRejections;
+    private final Counter queueTimeoutRejections;
+
+    private double limit;
+    private int inFlight;
+    private long minRttNanos = Long.MAX_VALUE;
+    private long minRttWindowStartedAt = System.nanoTime();
+    private long lastDecreaseAt;
+
+    private AdaptiveConcurrencyLimiter(Tags tags, Settings settings, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.limit = Math.max(settings.minLimit(), Math.min(settings.maxLimit(), settings.initialLimit()));
+        this.queueFullRejections = Counter.builder("aws.limiter.rejected")
+                .tags(tags.and("reason", "queue_full"))
+                .register(meterRegistry);
+        this.queueTimeoutRejections = Counter.builder("aws.limiter.rejected")
+                .tags(tags.and("reason", "queue_timeout"))
+                .register(meterRegistry);
+    }
+
+    public static AdaptiveConcurrencyLimiter create(Tags tags, Settings settings, MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(tags, settings, meterRegistry);
+        Gauge.builder("aws.limiter.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("aws.limiter.in.flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("aws.limiter.queued", limiter, AdaptiveConcurrencyLimiter::queued)
+                .tags(tags)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    public Mono<Permit> acquire() {
+        return Mono.<Permit>create(sink -> {
+                    boolean granted;
+                    synchronized (this) {
+                        granted = inFlight < (int) limit && waiters.isEmpty();
+                        if (granted) {
+                            inFlight++;
+                        } else if (waiters.size() < settings.maxQueueSize()) {
+                            waiters.addLast(sink);
+                            sink.onCancel(() -> this.removeWaiter(sink));
+                            return;
+                        }
+                    }
+                    if (granted) {
+                        sink.success(new Permit());
+                    } else {
+                        queueFullRejections.increment();
+                        sink.error(new ResponseStatusException(
+                                HttpStatus.SERVICE_UNAVAILABLE, "Outbound request queue is full"
+                        ));
+                    }
+                })
+                .timeout(settings.queueTimeout(), Mono.defer(() -> {
+                    queueTimeoutRejections.increment();
+                    return Mono.error(new ResponseStatusException(
+                            HttpStatus.SERVICE_UNAVAILABLE, "Timed out waiting for an outbound request slot"
+                    ));
+                }))
+                .doOnDiscard(Permit.class, permit -> permit.release(Outcome.IGNORED));
+    }
+
+    public synchronized double limit() {
+        return limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public synchronized int queued() {
+        return waiters.size();
+    }
+
+    private synchronized void removeWaiter(MonoSink<Permit> sink) {
+        waiters.remove(sink);
+    }
+
+    private void onRelease(Outcome outcome, long rttNanos) {
+        List<MonoSink<Permit>> granted = new ArrayList<>();
+        synchronized (this) {
+            int utilization = inFlight;
+            inFlight--;
+            long now = System.nanoTime();
+            if (outcome == Outcome.DROPPED) {
+                long cooldown = minRttNanos == Long.MAX_VALUE ? 0 : minRttNanos;
+                if (now - lastDecreaseAt >= cooldown) {
+                    limit = Math.max(settings.minLimit(), limit * settings.backoffRatio());
+                    lastDecreaseAt = now;
+                }
+            } else if (outcome == Outcome.SUCCESS) {
+                if (now - minRttWindowStartedAt >= settings.minRttWindow().toNanos()) {
+                    minRttNanos = rttNanos;
+                    minRttWindowStartedAt = now;
+                } else {
+                    minRttNanos = Math.min(minRttNanos, rttNanos);
+                }
+                if (rttNanos <= minRttNanos * settings.rttTolerance()) {
+                    if (utilization * 2 >= limit) {
+                        limit = Math.min(settings.maxLimit(), limit + 1 / limit);
+                    }
+                } else {
+                    limit = Math.max(settings.minLimit(), limit - 1 / limit);
+                }
+            }
+            while (inFlight < (int) limit && !waiters.isEmpty()) {
+                inFlight++;
+                granted.add(waiters.pollFirst());
+            }
+        }
+        granted.forEach(sink -> sink.success(new Permit()));
+    }
+
+    public enum Outcome {
+        SUCCESS,
+        DROPPED,
+        IGNORED
+    }
+
+    public record Settings(
+            int initialLimit,
+            int minLimit,
+            int maxLimit,
+            int maxQueueSize,
+            Duration queueTimeout,
+            double rttTolerance,
+            double backoffRatio,
+            Duration minRttWindow
+    ) {
+    }
+
+    public final class Permit {
+
+        private final long acquiredAt = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        public void release(Outcome outcome) {
+            if (released.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimiter.this.onRelease(outcome, System.nanoTime() - acquiredAt);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.example.awssoundservice.common.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public class HedgedReads {
+
+    private final MeterRegistry meterRegistry;
+    private final Settings settings;
+    private final RetryBudget budget;
+    private final Counter budgetExhausted;
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    public HedgedReads(MeterRegistry meterRegistry, Settings settings) {
+        this.meterRegistry = meterRegistry;
+        this.settings = settings;
+        this.budget = new RetryBudget(settings.budgetPercent() / 100.0, settings.budgetMaxTokens());
+        this.budgetExhausted = Counter.builder("hedged.read.budget.exhausted").register(meterRegistry);
+    }
+
+    public <T> Mono<T> execute(String operationName, Supplier<Mono<T>> primaryCall, Supplier<Mono<T>> hedgeCall) {
+        if (!settings.enabled()) {
+            return Mono.defer(primaryCall);
+        }
+        Operation operation = operations.computeIfAbsent(operationName, this::createOperation);
+        return Mono.defer(() -> {
+            operation.requests().increment();
+            budget.deposit();
+            long startedAt = System.nanoTime();
+            Mono<Attempt<T>> primary = this.attempt(primaryCall, false)
+                    .doFinally(signal -> operation.latencies().record(System.nanoTime() - startedAt));
+            long delayNanos = operation.latencies().thresholdNanos();
+            if (delayNanos < 0) {
+                return primary.flatMap(attempt -> Mono.justOrEmpty(attempt.value()));
+            }
+            Mono<Attempt<T>> hedge = Mono.delay(Duration.ofNanos(delayNanos)).flatMap(tick -> {
+                if (!budget.tryWithdraw()) {
+                    budgetExhausted.increment();
+                    return Mono.never();
+                }
+                operation.hedges().increment();
+                return this.attempt(hedgeCall, true);
+            });
+            return Mono.firstWithSignal(primary, hedge)
+                    .doOnNext(attempt -> {
+                        if (attempt.hedged()) {
+                            operation.wins().increment();
+                        }
+                    })
+                    .flatMap(attempt -> Mono.justOrEmpty(attempt.value()));
+        });
+    }
+
+    private <T> Mono<Attempt<T>> attempt(Supplier<Mono<T>> call, boolean hedged) {
+        return Mono.defer(call)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .map(value -> new Attempt<>(value, hedged));
+    }
+
+    private Operation createOperation(String name) {
+        Tags tags = Tags.of("operation", name);
+        LatencyWindow latencies = new LatencyWindow(settings);
+        TimeGauge.builder("hedged.read.delay", latencies, TimeUnit.NANOSECONDS, LatencyWindow::thresholdNanos)
+                .tags(tags)
+                .register(meterRegistry);
+        return new Operation(
+                latencies,
+                Counter.builder("hedged.read.requests").tags(tags).register(meterRegistry),
+                Counter.builder("hedged.read.hedges").tags(tags).register(meterRegistry),
+                Counter.builder("hedged.read.wins").tags(tags).register(meterRegistry)
+        );
+    }
+
+    public record Settings(
+            boolean enabled,
+            double percentile,
+            Duration minDelay,
+            Duration maxDelay,
+            int windowSize,
+            int minSamples,
+            double budgetPercent,
+            double budgetMaxTokens
+    ) {
+    }
+
+    private record Operation(LatencyWindow latencies, Counter requests, Counter hedges, Counter wins) {
+    }
+
+    private record Attempt<T>(Optional<T> value, boolean hedged) {
+    }
+
+    private static final class LatencyWindow {
+
+        private final long[] samples;
+        private final int minSamples;
+        private final int recomputeInterval;
+        private final double percentile;
+        private final long minDelayNanos;
+        private final long maxDelayNanos;
+        private int next;
+        private int count;
+        private int sinceRecompute;
+        private volatile long thresholdNanos = -1;
+
+        private LatencyWindow(Settings settings) {
+            this.samples = new long[settings.windowSize()];
+            this.minSamples = Math.min(settings.minSamples(), settings.windowSize());
+            this.recomputeInterval = Math.max(1, settings.windowSize() / 16);
+            this.percentile = settings.percentile();
+            this.minDelayNanos = settings.minDelay().toNanos();
+            this.maxDelayNanos = settings.maxDelay().toNanos();
+        }
+
+        private long thresholdNanos() {
+            return thresholdNanos;
+        }
+
+        private synchronized void record(long latencyNanos) {
+            samples[next] = latencyNanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            if (++sinceRecompute < recomputeInterval || count < minSamples) {
+                return;
+            }
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.min(count - 1, Math.max(0, Math.ceil(percentile / 100.0 * count) - 1));
+            thresholdNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, sorted[index]));
+        }
+
+    }
+
+}
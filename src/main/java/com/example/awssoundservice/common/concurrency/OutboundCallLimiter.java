@@ -0,0 +1,212 @@
+package com.example.awssoundservice.common.concurrency;
+
+import com.example.awssoundservice.common.metrics.AwsCaller;
+import com.example.awssoundservice.common.utils.RetryUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public class OutboundCallLimiter {
+
+    private final MeterRegistry meterRegistry;
+    private final Settings settings;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    public OutboundCallLimiter(MeterRegistry meterRegistry, Settings settings) {
+        this.meterRegistry = meterRegistry;
+        this.settings = settings;
+    }
+
+    public <T> Mono<T> dynamoDb(String tableName, Operation operation, Supplier<CompletableFuture<T>> call) {
+        return this.call("dynamodb", tableName, operation, call);
+    }
+
+    public <T> Mono<T> s3(String bucket, Operation operation, Supplier<CompletableFuture<T>> call) {
+        return this.call("s3", bucket, operation, call);
+    }
+
+    public <T> Mono<StreamLease<T>> s3Stream(String bucket, Supplier<CompletableFuture<T>> call) {
+        if (!settings.enabled()) {
+            return AwsCaller.fromFuture(call).map(response -> new StreamLease<>(response, null));
+        }
+        Function<AdaptiveConcurrencyLimiter.Permit, Mono<StreamLease<T>>> leased = permit -> AwsCaller.fromFuture(call)
+                .doOnError(error -> permit.release(this.outcome(error)))
+                .doOnCancel(() -> permit.release(AdaptiveConcurrencyLimiter.Outcome.IGNORED))
+                .map(response -> new StreamLease<>(response, permit));
+        return this.attempt(this.lane("s3", bucket, Operation.STREAM), leased, 1, settings.baseDelay());
+    }
+
+    private <T> Mono<T> call(
+            String service, String resource, Operation operation, Supplier<CompletableFuture<T>> call
+    ) {
+        if (!settings.enabled()) {
+            return AwsCaller.fromFuture(call);
+        }
+        Function<AdaptiveConcurrencyLimiter.Permit, Mono<T>> timed = permit -> AwsCaller.fromFuture(call)
+                .doOnSuccess(response -> permit.release(AdaptiveConcurrencyLimiter.Outcome.SUCCESS))
+                .doOnError(error -> permit.release(this.outcome(error)))
+                .doOnCancel(() -> permit.release(AdaptiveConcurrencyLimiter.Outcome.IGNORED));
+        return this.attempt(this.lane(service, resource, operation), timed, 1, settings.baseDelay());
+    }
+
+    private Lane lane(String service, String resource, Operation operation) {
+        return lanes.computeIfAbsent(
+                service + ":" + resource + ":" + operation, key -> this.createLane(service, resource, operation)
+        );
+    }
+
+    private <T> Mono<T> attempt(
+            Lane lane, Function<AdaptiveConcurrencyLimiter.Permit, Mono<T>> call, int attempt, Duration previousDelay
+    ) {
+        return lane.limiter().acquire()
+                .flatMap(call)
+                .doOnSuccess(response -> {
+                    if (attempt == 1) {
+                        lane.budget().deposit();
+                    }
+                })
+                .onErrorResume(error -> this.isRetryable(error, lane.operation()), error -> {
+                    if (attempt >= settings.maxAttempts()) {
+                        return Mono.error(this.translate(error));
+                    }
+                    if (!lane.budget().tryWithdraw()) {
+                        lane.budgetExhausted().increment();
+                        return Mono.error(this.translate(error));
+                    }
+                    lane.retries().increment();
+                    Duration delay = RetryUtils.decorrelatedJitterBackoff(
+                            previousDelay, settings.baseDelay(), settings.maxDelay()
+                    );
+                    return this.attempt(lane, call, attempt + 1, delay).delaySubscription(delay);
+                });
+    }
+
+    private AdaptiveConcurrencyLimiter.Outcome outcome(Throwable error) {
+        return this.isOverload(error)
+                ? AdaptiveConcurrencyLimiter.Outcome.DROPPED
+                : AdaptiveConcurrencyLimiter.Outcome.IGNORED;
+    }
+
+    private boolean isOverload(Throwable error) {
+        if (error instanceof AwsServiceException serviceException) {
+            return serviceException.isThrottlingException() || serviceException.statusCode() >= 500;
+        }
+        return error instanceof SdkClientException;
+    }
+
+    private boolean isRetryable(Throwable error, Operation operation) {
+        if (error instanceof AwsServiceException serviceException && serviceException.isThrottlingException()) {
+            return true;
+        }
+        return operation.idempotent() && this.isOverload(error);
+    }
+
+    private Throwable translate(Throwable error) {
+        if (error instanceof AwsServiceException serviceException && serviceException.isThrottlingException()) {
+            return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Upstream request was throttled", error);
+        }
+        return error;
+    }
+
+    private Lane createLane(String service, String resource, Operation operation) {
+        Tags tags = Tags.of("service", service, "resource", resource, "operation", operation.tag());
+        RetryBudget budget = new RetryBudget(settings.retryBudgetRatio(), settings.retryBudgetMaxTokens());
+        Gauge.builder("aws.limiter.retry.budget.tokens", budget, RetryBudget::tokens)
+                .tags(tags)
+                .register(meterRegistry);
+        return new Lane(
+                operation,
+                AdaptiveConcurrencyLimiter.create(tags, settings.limiter(), meterRegistry),
+                budget,
+                Counter.builder("aws.limiter.retries").tags(tags).register(meterRegistry),
+                Counter.builder("aws.limiter.retry.budget.exhausted").tags(tags).register(meterRegistry)
+        );
+    }
+
+    public enum Operation {
+        READ(true),
+        QUERY(true),
+        SCAN(true),
+        WRITE(false),
+        BATCH(true),
+        TRANSACTION(true),
+        TRANSFER(true),
+        STREAM(true);
+
+        private final boolean idempotent;
+
+        Operation(boolean idempotent) {
+            this.idempotent = idempotent;
+        }
+
+        private boolean idempotent() {
+            return idempotent;
+        }
+
+        private String tag() {
+            return this.name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public static final class StreamLease<T> {
+
+        private final T response;
+        private final AdaptiveConcurrencyLimiter.Permit permit;
+
+        private StreamLease(T response, AdaptiveConcurrencyLimiter.Permit permit) {
+            this.response = response;
+            this.permit = permit;
+        }
+
+        public T response() {
+            return response;
+        }
+
+        public <E> Flux<E> hold(Flux<E> body) {
+            return body.doFinally(signal -> this.release());
+        }
+
+        public void release() {
+            if (permit != null) {
+                permit.release(AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+            }
+        }
+
+    }
+
+    public record Settings(
+            boolean enabled,
+            AdaptiveConcurrencyLimiter.Settings limiter,
+            int maxAttempts,
+            Duration baseDelay,
+            Duration maxDelay,
+            double retryBudgetRatio,
+            double retryBudgetMaxTokens
+    ) {
+    }
+
+    private record Lane(
+            Operation operation,
+            AdaptiveConcurrencyLimiter limiter,
+            RetryBudget budget,
+            Counter retries,
+            Counter budgetExhausted
+    ) {
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.example.awssoundservice.common.concurrency;
+
+public class RetryBudget {
+
+    private final double depositRatio;
+    private final double maxTokens;
+    private double tokens;
+
+    public RetryBudget(double depositRatio, double maxTokens) {
+        this.depositRatio = depositRatio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    public synchronized void deposit() {
+        tokens = Math.min(maxTokens, tokens + depositRatio);
+    }
+
+    public synchronized boolean tryWithdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    public synchronized double tokens() {
+        return tokens;
+    }
+
+}
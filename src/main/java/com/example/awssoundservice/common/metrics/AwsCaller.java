@@ -0,0 +1,48 @@
+package com.example.awssoundservice.common.metrics;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public class AwsCaller {
+
+    public static final String UNKNOWN = "unknown";
+
+    private static final String CONTEXT_KEY = AwsCaller.class.getName();
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    public static Context of(String caller) {
+        return Context.of(CONTEXT_KEY, caller);
+    }
+
+    public static String from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, UNKNOWN);
+    }
+
+    public static <T> Mono<T> fromFuture(Supplier<CompletableFuture<T>> call) {
+        return Mono.deferContextual(context -> Mono.fromFuture(() -> AwsCaller.callAs(AwsCaller.from(context), call)));
+    }
+
+    public static <T> T callAs(String caller, Supplier<T> call) {
+        String previous = CURRENT.get();
+        CURRENT.set(caller);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    static String current() {
+        String caller = CURRENT.get();
+        return caller != null ? caller : UNKNOWN;
+    }
+
+}
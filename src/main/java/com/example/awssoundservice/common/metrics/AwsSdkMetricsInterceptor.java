@@ -0,0 +1,203 @@
+package com.example.awssoundservice.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.SdkResponse;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+public class AwsSdkMetricsInterceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<Long> START_NANOS = new ExecutionAttribute<>("MetricsStartNanos");
+    private static final ExecutionAttribute<AtomicInteger> ATTEMPTS = new ExecutionAttribute<>("MetricsAttempts");
+    private static final ExecutionAttribute<String> RESOURCE = new ExecutionAttribute<>("MetricsResource");
+    private static final ExecutionAttribute<String> CALLER = new ExecutionAttribute<>("MetricsCaller");
+
+    private static final Set<String> READ_OPERATIONS = Set.of(
+            "GetItem", "BatchGetItem", "Query", "Scan", "TransactGetItems"
+    );
+    private static final Set<String> THROTTLING_ERROR_CODES = Set.of(
+            "ProvisionedThroughputExceededException", "ThrottlingException", "RequestLimitExceeded",
+            "SlowDown", "Throttling"
+    );
+
+    private final MeterRegistry registry;
+
+    public AwsSdkMetricsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(START_NANOS, System.nanoTime());
+        executionAttributes.putAttribute(ATTEMPTS, new AtomicInteger());
+        executionAttributes.putAttribute(RESOURCE, this.resolveResource(context.request()));
+        executionAttributes.putAttribute(CALLER, AwsCaller.current());
+    }
+
+    @Override
+    public SdkRequest modifyRequest(Context.ModifyRequest context, ExecutionAttributes executionAttributes) {
+        SdkRequest request = context.request();
+        if (request instanceof GetItemRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof PutItemRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof UpdateItemRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof DeleteItemRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof QueryRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof ScanRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof BatchGetItemRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof BatchWriteItemRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        return request;
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        AtomicInteger attempts = executionAttributes.getAttribute(ATTEMPTS);
+        if (attempts != null) {
+            attempts.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        this.recordCall(executionAttributes, "success");
+        this.recordConsumedCapacity(context.response(), executionAttributes);
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        boolean throttled = this.isThrottling(context.exception());
+        this.recordCall(executionAttributes, throttled ? "throttled" : "error");
+        if (throttled) {
+            Counter.builder("aws.sdk.throttled")
+                    .tags(this.baseTags(executionAttributes))
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    private void recordCall(ExecutionAttributes executionAttributes, String outcome) {
+        Tags tags = this.baseTags(executionAttributes);
+        Long startNanos = executionAttributes.getAttribute(START_NANOS);
+        if (startNanos != null) {
+            Timer.builder("aws.sdk.call")
+                    .tags(tags.and("outcome", outcome))
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(Duration.ofNanos(System.nanoTime() - startNanos));
+        }
+        AtomicInteger attempts = executionAttributes.getAttribute(ATTEMPTS);
+        if (attempts != null && attempts.get() > 1) {
+            Counter.builder("aws.sdk.retries")
+                    .tags(tags)
+                    .register(registry)
+                    .increment(attempts.get() - 1);
+        }
+    }
+
+    private void recordConsumedCapacity(SdkResponse response, ExecutionAttributes executionAttributes) {
+        List<ConsumedCapacity> consumedCapacities = switch (response) {
+            case GetItemResponse r -> this.single(r.consumedCapacity());
+            case PutItemResponse r -> this.single(r.consumedCapacity());
+            case UpdateItemResponse r -> this.single(r.consumedCapacity());
+            case DeleteItemResponse r -> this.single(r.consumedCapacity());
+            case QueryResponse r -> this.single(r.consumedCapacity());
+            case ScanResponse r -> this.single(r.consumedCapacity());
+            case BatchGetItemResponse r -> r.hasConsumedCapacity() ? r.consumedCapacity() : List.of();
+            case BatchWriteItemResponse r -> r.hasConsumedCapacity() ? r.consumedCapacity() : List.of();
+            default -> List.of();
+        };
+        if (consumedCapacities.isEmpty()) {
+            return;
+        }
+        String operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+        String unit = READ_OPERATIONS.contains(operation) ? "read" : "write";
+        String caller = executionAttributes.getAttribute(CALLER);
+        for (ConsumedCapacity consumedCapacity : consumedCapacities) {
+            if (consumedCapacity.capacityUnits() == null) {
+                continue;
+            }
+            Counter.builder("dynamodb.consumed.capacity")
+                    .tag("table", String.valueOf(consumedCapacity.tableName()))
+                    .tag("operation", String.valueOf(operation))
+                    .tag("unit", unit)
+                    .tag("caller", String.valueOf(caller))
+                    .register(registry)
+                    .increment(consumedCapacity.capacityUnits());
+        }
+    }
+
+    private List<ConsumedCapacity> single(ConsumedCapacity consumedCapacity) {
+        return consumedCapacity == null ? List.of() : List.of(consumedCapacity);
+    }
+
+    private Tags baseTags(ExecutionAttributes executionAttributes) {
+        return Tags.of(
+                "service", String.valueOf(executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME)),
+                "operation", String.valueOf(executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME)),
+                "resource", String.valueOf(executionAttributes.getAttribute(RESOURCE))
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private String resolveResource(SdkRequest request) {
+        Optional<String> tableName = request.getValueForField("TableName", String.class);
+        if (tableName.isPresent()) {
+            return tableName.get();
+        }
+        Optional<String> bucket = request.getValueForField("Bucket", String.class);
+        if (bucket.isPresent()) {
+            return bucket.get();
+        }
+        return request.getValueForField("RequestItems", Map.class)
+                .map(requestItems -> ((Map<String, ?>) requestItems).keySet().stream()
+                        .sorted()
+                        .collect(Collectors.joining(",")))
+                .orElse("none");
+    }
+
+    private boolean isThrottling(Throwable exception) {
+        Throwable current = exception;
+        while (current != null) {
+            if (current instanceof AwsServiceException serviceException) {
+                return serviceException.isThrottlingException()
+                        || (serviceException.awsErrorDetails() != null
+                        && THROTTLING_ERROR_CODES.contains(serviceException.awsErrorDetails().errorCode()));
+            }
+            current = current.getCause();
+        }
+        return false;
+    }
+
+}
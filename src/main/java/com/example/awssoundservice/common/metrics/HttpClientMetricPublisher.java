@@ -0,0 +1,57 @@
+package com.example.awssoundservice.common.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HttpClientMetricPublisher implements MetricPublisher {
+
+    private final AtomicInteger leasedConcurrency = new AtomicInteger();
+    private final AtomicInteger pendingAcquires = new AtomicInteger();
+    private final AtomicInteger maxConcurrency = new AtomicInteger();
+    private final Timer acquireDuration;
+
+    public HttpClientMetricPublisher(MeterRegistry registry, String client) {
+        Gauge.builder("aws.http.client.pool.leased", leasedConcurrency, AtomicInteger::get)
+                .tag("client", client)
+                .register(registry);
+        Gauge.builder("aws.http.client.pool.pending", pendingAcquires, AtomicInteger::get)
+                .tag("client", client)
+                .register(registry);
+        Gauge.builder("aws.http.client.pool.max", maxConcurrency, AtomicInteger::get)
+                .tag("client", client)
+                .register(registry);
+        this.acquireDuration = Timer.builder("aws.http.client.pool.acquire")
+                .tag("client", client)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @Override
+    public void publish(MetricCollection metricCollection) {
+        for (Integer value : metricCollection.metricValues(HttpMetric.LEASED_CONCURRENCY)) {
+            leasedConcurrency.set(value);
+        }
+        for (Integer value : metricCollection.metricValues(HttpMetric.PENDING_CONCURRENCY_ACQUIRES)) {
+            pendingAcquires.set(value);
+        }
+        for (Integer value : metricCollection.metricValues(HttpMetric.MAX_CONCURRENCY)) {
+            maxConcurrency.set(value);
+        }
+        for (Duration value : metricCollection.metricValues(HttpMetric.CONCURRENCY_ACQUIRE_DURATION)) {
+            acquireDuration.record(value);
+        }
+        metricCollection.children().forEach(this::publish);
+    }
+
+    @Override
+    public void close() {
+    }
+
+}
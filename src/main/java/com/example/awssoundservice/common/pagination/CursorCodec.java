@@ -0,0 +1,142 @@
+package com.example.awssoundservice.common.pagination;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+@Component
+public class CursorCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String OFFSET = "offset";
+    private static final String NUMBER = "N:";
+    private static final String STRING = "S:";
+
+    private final Mac prototype;
+    private final int maxLimit;
+
+    public CursorCodec(
+            @Value("${pagination.cursor-secret}") String secret,
+            @Value("${pagination.max-limit:100}") int maxLimit
+    ) throws GeneralSecurityException {
+        this.prototype = Mac.getInstance(ALGORITHM);
+        this.prototype.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+        this.maxLimit = maxLimit;
+    }
+
+    public int pageSize(int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be positive");
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    public String encodeKey(String scope, Map<String, AttributeValue> key) {
+        Map<String, String> position = new LinkedHashMap<>();
+        key.forEach((name, value) -> position.put(name, value.n() != null ? NUMBER + value.n() : STRING + value.s()));
+        return this.encode(scope, position);
+    }
+
+    public Map<String, AttributeValue> decodeKey(String scope, String cursor) {
+        Map<String, AttributeValue> key = new LinkedHashMap<>();
+        this.decode(scope, cursor).forEach((name, value) -> {
+            if (value.startsWith(NUMBER)) {
+                key.put(name, AttributeValue.fromN(value.substring(NUMBER.length())));
+            } else if (value.startsWith(STRING)) {
+                key.put(name, AttributeValue.fromS(value.substring(STRING.length())));
+            } else {
+                throw this.invalidCursor();
+            }
+        });
+        return key;
+    }
+
+    public String encodeOffset(String scope, int offset) {
+        return this.encode(scope, Map.of(OFFSET, Integer.toString(offset)));
+    }
+
+    public int decodeOffset(String scope, String cursor) {
+        try {
+            return Math.max(0, Integer.parseInt(this.decode(scope, cursor).get(OFFSET)));
+        } catch (NumberFormatException e) {
+            throw this.invalidCursor();
+        }
+    }
+
+    private String encode(String scope, Map<String, String> position) {
+        StringJoiner payload = new StringJoiner("&", this.escape(scope) + "?", "");
+        position.forEach((name, value) -> payload.add(this.escape(name) + "=" + this.escape(value)));
+        byte[] payloadBytes = payload.toString().getBytes(StandardCharsets.UTF_8);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payloadBytes) + "." + encoder.encodeToString(this.sign(payloadBytes));
+    }
+
+    private Map<String, String> decode(String scope, String cursor) {
+        int separator = cursor.indexOf('.');
+        if (separator < 0) {
+            throw this.invalidCursor();
+        }
+        byte[] payloadBytes;
+        byte[] signature;
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            payloadBytes = decoder.decode(cursor.substring(0, separator));
+            signature = decoder.decode(cursor.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw this.invalidCursor();
+        }
+        if (!MessageDigest.isEqual(signature, this.sign(payloadBytes))) {
+            throw this.invalidCursor();
+        }
+        String payload = new String(payloadBytes, StandardCharsets.UTF_8);
+        String prefix = this.escape(scope) + "?";
+        if (!payload.startsWith(prefix)) {
+            throw this.invalidCursor();
+        }
+        Map<String, String> position = new LinkedHashMap<>();
+        for (String pair : payload.substring(prefix.length()).split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals < 0) {
+                throw this.invalidCursor();
+            }
+            position.put(this.unescape(pair.substring(0, equals)), this.unescape(pair.substring(equals + 1)));
+        }
+        return position;
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = (Mac) prototype.clone();
+            return mac.doFinal(payload);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String escape(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private String unescape(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    private ResponseStatusException invalidCursor() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.example.awssoundservice.common.search;
+
+import java.util.Arrays;
+
+public class GramPostings {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int INITIAL_POSTINGS_SIZE = 4;
+    private static final long EMPTY = 0L;
+    private static final int[] NO_DOCS = new int[0];
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[][] postings = new int[INITIAL_CAPACITY][];
+    private int[] sizes = new int[INITIAL_CAPACITY];
+    private int keyCount;
+
+    public void add(long gram, int docId) {
+        int slot = this.slotFor(gram);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = gram;
+            postings[slot] = new int[INITIAL_POSTINGS_SIZE];
+            keyCount++;
+        }
+        int[] docs = postings[slot];
+        int size = sizes[slot];
+        int position = Arrays.binarySearch(docs, 0, size, docId);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size + (size >> 1) + 1);
+            postings[slot] = docs;
+        }
+        System.arraycopy(docs, insertAt, docs, insertAt + 1, size - insertAt);
+        docs[insertAt] = docId;
+        sizes[slot] = size + 1;
+        if (keyCount * 2 > keys.length) {
+            this.resize();
+        }
+    }
+
+    public void remove(long gram, int docId) {
+        int slot = this.find(gram);
+        if (slot < 0) {
+            return;
+        }
+        int[] docs = postings[slot];
+        int size = sizes[slot];
+        int position = Arrays.binarySearch(docs, 0, size, docId);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(docs, position + 1, docs, position, size - position - 1);
+        sizes[slot] = size - 1;
+    }
+
+    public int find(long gram) {
+        int slot = this.slotFor(gram);
+        return keys[slot] == EMPTY ? -1 : slot;
+    }
+
+    public int[] docs(int slot) {
+        return slot < 0 ? NO_DOCS : postings[slot];
+    }
+
+    public int size(int slot) {
+        return slot < 0 ? 0 : sizes[slot];
+    }
+
+    public int keyCount() {
+        return keyCount;
+    }
+
+    public long estimatedBytes() {
+        long bytes = (long) keys.length * Long.BYTES + (long) sizes.length * Integer.BYTES
+                + (long) postings.length * Integer.BYTES;
+        for (int[] docs : postings) {
+            if (docs != null) {
+                bytes += 16L + (long) docs.length * Integer.BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    private int slotFor(long gram) {
+        int mask = keys.length - 1;
+        int slot = Long.hashCode(gram * 0x9E3779B97F4A7C15L) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != gram) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[][] oldPostings = postings;
+        int[] oldSizes = sizes;
+        keys = new long[oldKeys.length * 2];
+        postings = new int[oldKeys.length * 2][];
+        sizes = new int[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = this.slotFor(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                postings[slot] = oldPostings[i];
+                sizes[slot] = oldSizes[i];
+            }
+        }
+    }
+
+}
@@ -2,15 +2,40 @@ package com.example.awssoundservice.common.utils;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
 
 @Slf4j
 public class FileUtils {
 
+    private static final Pattern UNSAFE_FILE_NAME_CHARACTERS = Pattern.compile("[^A-Za-z0-9._-]");
+    private static final int MAX_FILE_NAME_LENGTH = 200;
+
+    public static String safeFileName(String filename) {
+        if (filename == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Filename must not be empty");
+        }
+        String name = filename.substring(Math.max(filename.lastIndexOf('/'), filename.lastIndexOf('\\')) + 1);
+        name = UNSAFE_FILE_NAME_CHARACTERS.matcher(name.strip()).replaceAll("_");
+        if (name.length() > MAX_FILE_NAME_LENGTH) {
+            name = name.substring(name.length() - MAX_FILE_NAME_LENGTH);
+        }
+        if (name.chars().allMatch(character -> character == '.')) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid filename");
+        }
+        return name;
+    }
+
     public static Mono<ByteBuffer> dataBuffersToByteBuffer(Flux<DataBuffer> buffers) {
         return DataBufferUtils.join(buffers).map(dataBuffer -> {
             ByteBuffer buffer = ByteBuffer.allocate(dataBuffer.readableByteCount());
@@ -19,4 +44,61 @@ public class FileUtils {
         });
     }
 
+    public static Flux<DataBuffer> dataBuffersToChunks(
+            Flux<DataBuffer> buffers, int chunkSize, DataBufferFactory bufferFactory
+    ) {
+        return Flux.defer(() -> {
+            DataBuffer[] current = new DataBuffer[1];
+            return buffers
+                    .concatMapIterable(dataBuffer -> {
+                        try {
+                            return copyIntoChunks(dataBuffer, current, chunkSize, bufferFactory);
+                        } finally {
+                            DataBufferUtils.release(dataBuffer);
+                        }
+                    })
+                    .concatWith(Mono.fromSupplier(() -> {
+                        DataBuffer last = current[0];
+                        current[0] = null;
+                        return last;
+                    }))
+                    .switchIfEmpty(Mono.fromSupplier(() -> bufferFactory.allocateBuffer(0)))
+                    .doFinally(signal -> {
+                        if (current[0] != null) {
+                            DataBufferUtils.release(current[0]);
+                            current[0] = null;
+                        }
+                    })
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+        });
+    }
+
+    private static List<DataBuffer> copyIntoChunks(
+            DataBuffer dataBuffer, DataBuffer[] current, int chunkSize, DataBufferFactory bufferFactory
+    ) {
+        List<DataBuffer> completed = Collections.emptyList();
+        try (DataBuffer.ByteBufferIterator iterator = dataBuffer.readableByteBuffers()) {
+            while (iterator.hasNext()) {
+                ByteBuffer source = iterator.next();
+                while (source.hasRemaining()) {
+                    if (current[0] == null) {
+                        current[0] = bufferFactory.allocateBuffer(chunkSize);
+                    }
+                    DataBuffer target = current[0];
+                    int length = Math.min(source.remaining(), chunkSize - target.readableByteCount());
+                    target.write(source.slice(source.position(), length));
+                    source.position(source.position() + length);
+                    if (target.readableByteCount() == chunkSize) {
+                        if (completed.isEmpty()) {
+                            completed = new ArrayList<>(1);
+                        }
+                        completed.add(target);
+                        current[0] = null;
+                    }
+                }
+            }
+        }
+        return completed;
+    }
+
 }
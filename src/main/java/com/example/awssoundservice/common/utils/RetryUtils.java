@@ -0,0 +1,19 @@
+package com.example.awssoundservice.common.utils;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class RetryUtils {
+
+    public static Duration fullJitterBackoff(int attempt, Duration baseDelay, Duration maxDelay) {
+        long ceiling = Math.min(maxDelay.toMillis(), baseDelay.toMillis() << Math.min(attempt, 20));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    public static Duration decorrelatedJitterBackoff(Duration previousDelay, Duration baseDelay, Duration maxDelay) {
+        long base = baseDelay.toMillis();
+        long ceiling = Math.max(base, Math.min(maxDelay.toMillis(), previousDelay.toMillis() * 3));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(base, ceiling + 1));
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.example.awssoundservice.config;
+
+import com.example.awssoundservice.common.metrics.HttpClientMetricPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ReflectiveChannelFactory;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpResources;
+import reactor.netty.resources.LoopResources;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
+
+@Configuration
+@EnableConfigurationProperties(AwsHttpClientProperties.class)
+public class AwsHttpClientConfig implements DisposableBean {
+
+    private final AwsHttpClientProperties properties;
+    private EventLoopGroup ownedEventLoopGroup;
+
+    public AwsHttpClientConfig(AwsHttpClientProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean(destroyMethod = "")
+    public SdkEventLoopGroup awsEventLoopGroup() {
+        if (properties.shareServerEventLoop()) {
+            LoopResources loopResources = HttpResources.get();
+            EventLoopGroup eventLoopGroup = loopResources.onClient(true);
+            Class<? extends SocketChannel> channelClass = loopResources.onChannelClass(SocketChannel.class, eventLoopGroup);
+            return SdkEventLoopGroup.create(eventLoopGroup, new ReflectiveChannelFactory<>(channelClass));
+        }
+        ownedEventLoopGroup = new NioEventLoopGroup(properties.eventLoopThreads());
+        return SdkEventLoopGroup.create(ownedEventLoopGroup, NioSocketChannel::new);
+    }
+
+    @Bean
+    public SdkAsyncHttpClient dynamoDbHttpClient(SdkEventLoopGroup awsEventLoopGroup) {
+        return this.buildHttpClient(properties.dynamodb(), awsEventLoopGroup);
+    }
+
+    @Bean
+    public SdkAsyncHttpClient s3HttpClient(SdkEventLoopGroup awsEventLoopGroup) {
+        return this.buildHttpClient(properties.s3(), awsEventLoopGroup);
+    }
+
+    @Bean
+    public HttpClientMetricPublisher dynamoDbHttpClientMetricPublisher(MeterRegistry meterRegistry) {
+        return new HttpClientMetricPublisher(meterRegistry, "dynamodb");
+    }
+
+    @Bean
+    public HttpClientMetricPublisher s3HttpClientMetricPublisher(MeterRegistry meterRegistry) {
+        return new HttpClientMetricPublisher(meterRegistry, "s3");
+    }
+
+    @Override
+    public void destroy() {
+        if (ownedEventLoopGroup != null) {
+            ownedEventLoopGroup.shutdownGracefully();
+        }
+    }
+
+    private SdkAsyncHttpClient buildHttpClient(AwsHttpClientProperties.Pool pool, SdkEventLoopGroup eventLoopGroup) {
+        return NettyNioAsyncHttpClient.builder()
+                .eventLoopGroup(eventLoopGroup)
+                .maxConcurrency(pool.maxConcurrency())
+                .maxPendingConnectionAcquires(pool.maxPendingAcquires())
+                .connectionAcquisitionTimeout(pool.acquisitionTimeout())
+                .connectionTimeout(pool.connectionTimeout())
+                .connectionMaxIdleTime(pool.connectionMaxIdleTime())
+                .readTimeout(pool.readTimeout())
+                .writeTimeout(pool.writeTimeout())
+                .tcpKeepAlive(pool.tcpKeepAlive())
+                .putChannelOption(ChannelOption.TCP_NODELAY, pool.tcpNoDelay())
+                .protocol(pool.protocol())
+                .build();
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.example.awssoundservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import software.amazon.awssdk.http.Protocol;
+
+import java.time.Duration;
+
+@ConfigurationProperties("aws.http-client")
+public record AwsHttpClientProperties(
+        @DefaultValue("false") boolean shareServerEventLoop,
+        @DefaultValue("0") int eventLoopThreads,
+        @DefaultValue Pool dynamodb,
+        @DefaultValue Pool s3
+) {
+
+    public record Pool(
+            @DefaultValue("50") int maxConcurrency,
+            @DefaultValue("10000") int maxPendingAcquires,
+            @DefaultValue("10s") Duration acquisitionTimeout,
+            @DefaultValue("2s") Duration connectionTimeout,
+            @DefaultValue("60s") Duration connectionMaxIdleTime,
+            @DefaultValue("30s") Duration readTimeout,
+            @DefaultValue("30s") Duration writeTimeout,
+            @DefaultValue("true") boolean tcpKeepAlive,
+            @DefaultValue("true") boolean tcpNoDelay,
+            @DefaultValue("HTTP1_1") Protocol protocol
+    ) {
+    }
+
+}
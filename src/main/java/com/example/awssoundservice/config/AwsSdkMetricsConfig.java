@@ -0,0 +1,16 @@
+package com.example.awssoundservice.config;
+
+import com.example.awssoundservice.common.metrics.AwsSdkMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AwsSdkMetricsConfig {
+
+    @Bean
+    public AwsSdkMetricsInterceptor awsSdkMetricsInterceptor(MeterRegistry meterRegistry) {
+        return new AwsSdkMetricsInterceptor(meterRegistry);
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.example.awssoundservice.config;
+
+import com.example.awssoundservice.common.DynamoDbTables;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter;
+import com.example.awssoundservice.model.Playlist;
+import com.example.awssoundservice.model.Track;
+import com.example.awssoundservice.service.BatchGetService;
+import com.example.awssoundservice.service.BatchLoader;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+
+import java.time.Duration;
+
+@Configuration
+public class BatchLoaderConfig {
+
+    @Value("${aws.dynamodb.batch-loader.enabled:true}")
+    private boolean enabled;
+
+    @Value("${aws.dynamodb.batch-loader.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${aws.dynamodb.batch-loader.max-wait:2ms}")
+    private Duration maxWait;
+
+    @Value("${aws.dynamodb.batch-loader.max-concurrency:16}")
+    private int maxConcurrency;
+
+    @Value("${aws.dynamodb.batch-loader.load-timeout:5s}")
+    private Duration loadTimeout;
+
+    @Bean
+    public BatchLoader<Track> trackBatchLoader(
+            DynamoDbAsyncClient dynamoDb,
+            OutboundCallLimiter outboundCallLimiter,
+            BatchGetService batchGetService,
+            MeterRegistry meterRegistry
+    ) {
+        return new BatchLoader<>(
+                DynamoDbTables.TRACKS, Track::from, dynamoDb, outboundCallLimiter, batchGetService, meterRegistry,
+                this.settings()
+        );
+    }
+
+    @Bean
+    public BatchLoader<Playlist> playlistBatchLoader(
+            DynamoDbAsyncClient dynamoDb,
+            OutboundCallLimiter outboundCallLimiter,
+            BatchGetService batchGetService,
+            MeterRegistry meterRegistry
+    ) {
+        return new BatchLoader<>(
+                DynamoDbTables.PLAYLISTS, Playlist::from, dynamoDb, outboundCallLimiter, batchGetService, meterRegistry,
+                this.settings()
+        );
+    }
+
+    private BatchLoader.Settings settings() {
+        return new BatchLoader.Settings(enabled, maxBatchSize, maxWait, maxConcurrency, loadTimeout);
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.example.awssoundservice.config;
+
+import com.example.awssoundservice.common.cache.EntityCache;
+import com.example.awssoundservice.model.Playlist;
+import com.example.awssoundservice.model.Track;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    @Value("${cache.tracks.maximum-size:10000}")
+    private long tracksMaximumSize;
+
+    @Value("${cache.tracks.ttl:5m}")
+    private Duration tracksTtl;
+
+    @Value("${cache.playlists.maximum-size:10000}")
+    private long playlistsMaximumSize;
+
+    @Value("${cache.playlists.ttl:5m}")
+    private Duration playlistsTtl;
+
+    @Value("${cache.cache-missing:true}")
+    private boolean cacheMissing;
+
+    @Bean
+    public EntityCache<Track> trackCache() {
+        return new EntityCache<>("tracks", tracksMaximumSize, tracksTtl, cacheMissing);
+    }
+
+    @Bean
+    public EntityCache<Playlist> playlistCache() {
+        return new EntityCache<>("playlists", playlistsMaximumSize, playlistsTtl, cacheMissing);
+    }
+
+}
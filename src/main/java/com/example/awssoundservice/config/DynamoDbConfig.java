@@ -1,10 +1,15 @@
 package com.example.awssoundservice.config;
 
+import com.example.awssoundservice.common.metrics.AwsSdkMetricsInterceptor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.awscore.retry.AwsRetryStrategy;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.metrics.MetricPublisher;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 
@@ -20,9 +25,23 @@ public class DynamoDbConfig {
     @Value("${aws.secret-key}")
     private String secretKey;
 
+    @Value("${aws.sdk.max-attempts:3}")
+    private int maxAttempts;
+
     @Bean
-    public DynamoDbAsyncClient dynamoDbAsyncClient() {
+    public DynamoDbAsyncClient dynamoDbAsyncClient(
+            @Qualifier("dynamoDbHttpClient") SdkAsyncHttpClient httpClient,
+            @Qualifier("dynamoDbHttpClientMetricPublisher") MetricPublisher metricPublisher,
+            AwsSdkMetricsInterceptor metricsInterceptor
+    ) {
         return DynamoDbAsyncClient.builder()
+                .httpClient(httpClient)
+                .overrideConfiguration(configuration -> configuration
+                        .addMetricPublisher(metricPublisher)
+                        .addExecutionInterceptor(metricsInterceptor)
+                        .retryStrategy(AwsRetryStrategy.standardRetryStrategy().toBuilder()
+                                .maxAttempts(maxAttempts)
+                                .build()))
                 .region(Region.of(region))
                 .credentialsProvider(StaticCredentialsProvider.create(new AwsCredentials() {
                     @Override
@@ -0,0 +1,45 @@
+package com.example.awssoundservice.config;
+
+import com.example.awssoundservice.common.concurrency.HedgedReads;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class HedgedReadsConfig {
+
+    @Value("${hedged-reads.enabled:false}")
+    private boolean enabled;
+
+    @Value("${hedged-reads.percentile:95}")
+    private double percentile;
+
+    @Value("${hedged-reads.min-delay:2ms}")
+    private Duration minDelay;
+
+    @Value("${hedged-reads.max-delay:500ms}")
+    private Duration maxDelay;
+
+    @Value("${hedged-reads.window-size:1024}")
+    private int windowSize;
+
+    @Value("${hedged-reads.min-samples:100}")
+    private int minSamples;
+
+    @Value("${hedged-reads.budget-percent:5}")
+    private double budgetPercent;
+
+    @Value("${hedged-reads.budget-max-tokens:50}")
+    private double budgetMaxTokens;
+
+    @Bean
+    public HedgedReads hedgedReads(MeterRegistry meterRegistry) {
+        return new HedgedReads(meterRegistry, new HedgedReads.Settings(
+                enabled, percentile, minDelay, maxDelay, windowSize, minSamples, budgetPercent, budgetMaxTokens
+        ));
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.example.awssoundservice.config;
+
+import com.example.awssoundservice.common.concurrency.AdaptiveConcurrencyLimiter;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class OutboundCallLimiterConfig {
+
+    @Value("${aws.limiter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${aws.limiter.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${aws.limiter.min-limit:2}")
+    private int minLimit;
+
+    @Value("${aws.limiter.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${aws.limiter.max-queue-size:500}")
+    private int maxQueueSize;
+
+    @Value("${aws.limiter.queue-timeout:1s}")
+    private Duration queueTimeout;
+
+    @Value("${aws.limiter.rtt-tolerance:2.0}")
+    private double rttTolerance;
+
+    @Value("${aws.limiter.backoff-ratio:0.7}")
+    private double backoffRatio;
+
+    @Value("${aws.limiter.min-rtt-window:30s}")
+    private Duration minRttWindow;
+
+    @Value("${aws.limiter.retry.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${aws.limiter.retry.base-delay:25ms}")
+    private Duration baseDelay;
+
+    @Value("${aws.limiter.retry.max-delay:1s}")
+    private Duration maxDelay;
+
+    @Value("${aws.limiter.retry.budget-ratio:0.1}")
+    private double retryBudgetRatio;
+
+    @Value("${aws.limiter.retry.budget-max-tokens:100}")
+    private double retryBudgetMaxTokens;
+
+    @Bean
+    public OutboundCallLimiter outboundCallLimiter(MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter.Settings limiterSettings = new AdaptiveConcurrencyLimiter.Settings(
+                initialLimit, minLimit, maxLimit, maxQueueSize, queueTimeout, rttTolerance, backoffRatio, minRttWindow
+        );
+        return new OutboundCallLimiter(meterRegistry, new OutboundCallLimiter.Settings(
+                enabled, limiterSettings, maxAttempts, baseDelay, maxDelay, retryBudgetRatio, retryBudgetMaxTokens
+        ));
+    }
+
+}
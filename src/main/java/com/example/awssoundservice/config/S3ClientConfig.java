@@ -1,17 +1,19 @@
 package com.example.awssoundservice.config;
 
+import com.example.awssoundservice.common.metrics.AwsSdkMetricsInterceptor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.awscore.retry.AwsRetryStrategy;
 import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
-import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.metrics.MetricPublisher;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Configuration;
-
-import java.time.Duration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 @Configuration
 public class S3ClientConfig {
@@ -25,22 +27,39 @@ public class S3ClientConfig {
     @Value("${aws.secret-key}")
     private String secretKey;
 
+    @Value("${aws.sdk.max-attempts:3}")
+    private int maxAttempts;
+
     @Bean
-    public S3AsyncClient s3AsyncClient() {
-        SdkAsyncHttpClient httpClient = NettyNioAsyncHttpClient.builder()
-                .writeTimeout(Duration.ZERO)
-                .maxConcurrency(64)
-                .build();
+    public S3AsyncClient s3AsyncClient(
+            @Qualifier("s3HttpClient") SdkAsyncHttpClient httpClient,
+            @Qualifier("s3HttpClientMetricPublisher") MetricPublisher metricPublisher,
+            AwsSdkMetricsInterceptor metricsInterceptor
+    ) {
         S3Configuration serviceConfiguration = S3Configuration.builder()
                 .checksumValidationEnabled(false)
                 .chunkedEncodingEnabled(true)
                 .build();
         return S3AsyncClient.builder()
                 .httpClient(httpClient)
+                .overrideConfiguration(configuration -> configuration
+                        .addMetricPublisher(metricPublisher)
+                        .addExecutionInterceptor(metricsInterceptor)
+                        .retryStrategy(AwsRetryStrategy.standardRetryStrategy().toBuilder()
+                                .maxAttempts(maxAttempts)
+                                .build()))
                 .region(Region.of(region))
                 .credentialsProvider(() -> AwsBasicCredentials.create(accessKey, secretKey))
                 .serviceConfiguration(serviceConfiguration)
                 .build();
     }
 
+    @Bean
+    public S3Presigner s3Presigner() {
+        return S3Presigner.builder()
+                .region(Region.of(region))
+                .credentialsProvider(() -> AwsBasicCredentials.create(accessKey, secretKey))
+                .build();
+    }
+
 }
@@ -0,0 +1,47 @@
+package com.example.awssoundservice.controller;
+
+import com.example.awssoundservice.common.DynamoDbTables;
+import com.example.awssoundservice.common.codec.PlaylistCodec;
+import com.example.awssoundservice.common.codec.TrackCodec;
+import com.example.awssoundservice.model.Playlist;
+import com.example.awssoundservice.model.Track;
+import com.example.awssoundservice.service.ParallelScanService;
+import com.example.awssoundservice.service.ParallelScanService.ParallelScanRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/admin/export")
+@RequiredArgsConstructor
+public class AdminExportController {
+
+    private final ParallelScanService parallelScanService;
+
+    @GetMapping(value = "/tracks", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Track> exportTracks(
+            @RequestParam(required = false) Integer segments,
+            @RequestParam(required = false) Double maxReadCapacityPerSegment
+    ) {
+        ParallelScanRequest request = new ParallelScanRequest(
+                DynamoDbTables.TRACKS, segments, TrackCodec.INSTANCE.attributes(), null, maxReadCapacityPerSegment
+        );
+        return parallelScanService.scan(request).map(Track::from);
+    }
+
+    @GetMapping(value = "/playlists", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Playlist> exportPlaylists(
+            @RequestParam(required = false) Integer segments,
+            @RequestParam(required = false) Double maxReadCapacityPerSegment
+    ) {
+        ParallelScanRequest request = new ParallelScanRequest(
+                DynamoDbTables.PLAYLISTS, segments, PlaylistCodec.INSTANCE.attributes(), null, maxReadCapacityPerSegment
+        );
+        return parallelScanService.scan(request).map(Playlist::from);
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.example.awssoundservice.controller;
+
+import com.example.awssoundservice.response.GeneralResponse;
+import com.example.awssoundservice.service.PlaylistMigrationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/admin/migrations")
+@RequiredArgsConstructor
+public class AdminMigrationController {
+
+    private final PlaylistMigrationService playlistMigrationService;
+
+    @PostMapping(value = "/playlist-entries", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<GeneralResponse<String>> migratePlaylists() {
+        return playlistMigrationService.migrateAll().map(GeneralResponse::successResponse);
+    }
+
+    @PostMapping("/playlist-entries/{uid}")
+    public Mono<GeneralResponse<Boolean>> migratePlaylist(@PathVariable String uid) {
+        return playlistMigrationService.migrate(uid).map(GeneralResponse::successResponse);
+    }
+
+}
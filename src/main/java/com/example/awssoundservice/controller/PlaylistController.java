@@ -3,11 +3,17 @@ package com.example.awssoundservice.controller;
 import com.example.awssoundservice.model.Track;
 import com.example.awssoundservice.request.PlaylistAddTrackRequest;
 import com.example.awssoundservice.request.PlaylistCreateOrUpdateRequest;
+import com.example.awssoundservice.request.PlaylistMoveTrackRequest;
+import com.example.awssoundservice.request.PlaylistRemoveTrackRequest;
+import com.example.awssoundservice.request.PlaylistTracksRequest;
 import com.example.awssoundservice.response.GeneralResponse;
-import com.example.awssoundservice.model.Playlist;
+import com.example.awssoundservice.response.PageResponse;
+import com.example.awssoundservice.response.PlaylistResponse;
 import com.example.awssoundservice.service.PlaylistService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
@@ -20,13 +26,31 @@ public class PlaylistController {
     private final PlaylistService playlistService;
 
     @GetMapping
-    public Mono<GeneralResponse<List<Playlist>>> getAll() {
-        return playlistService.findAll().map(GeneralResponse::successResponse);
+    public Mono<GeneralResponse<List<PlaylistResponse>>> getAll() {
+        return playlistService.findAll().flatMapSequential(playlistService::describe).collectList()
+                .map(GeneralResponse::successResponse);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE, params = "limit")
+    public Mono<GeneralResponse<PageResponse<PlaylistResponse>>> getPage(
+            @RequestParam int limit, @RequestParam(required = false) String cursor
+    ) {
+        return playlistService.findPage(limit, cursor)
+                .flatMap(page -> Flux.fromIterable(page.items()).flatMapSequential(playlistService::describe)
+                        .collectList()
+                        .map(items -> new PageResponse<>(items, page.nextCursor())))
+                .map(GeneralResponse::successResponse);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PlaylistResponse> streamAll() {
+        return playlistService.findAll().flatMapSequential(playlistService::describe);
     }
 
     @GetMapping("/{uid}")
-    public Mono<GeneralResponse<Playlist>> getById(@PathVariable String uid) {
-        return playlistService.findById(uid).map(GeneralResponse::successResponse);
+    public Mono<GeneralResponse<PlaylistResponse>> getById(@PathVariable String uid) {
+        return playlistService.findById(uid).flatMap(playlistService::describe)
+                .map(GeneralResponse::successResponse);
     }
 
     @GetMapping("/{uid}/exists")
@@ -35,24 +59,57 @@ public class PlaylistController {
     }
 
     @PostMapping
-    public Mono<GeneralResponse<Playlist>> create(@RequestBody PlaylistCreateOrUpdateRequest request) {
-        return playlistService.create(request).map(GeneralResponse::successResponse);
+    public Mono<GeneralResponse<PlaylistResponse>> create(@RequestBody PlaylistCreateOrUpdateRequest request) {
+        return playlistService.create(request).flatMap(playlistService::describe)
+                .map(GeneralResponse::successResponse);
     }
 
     @PutMapping("/{uid}")
-    public Mono<GeneralResponse<Playlist>> update(
+    public Mono<GeneralResponse<PlaylistResponse>> update(
             @PathVariable String uid, @RequestBody PlaylistCreateOrUpdateRequest request
     ) {
-        return playlistService.update(uid, request).map(GeneralResponse::successResponse);
+        return playlistService.update(uid, request).flatMap(playlistService::describe)
+                .map(GeneralResponse::successResponse);
     }
 
     @PutMapping("/addTrack")
-    public Mono<GeneralResponse<Playlist>> addTrack(@RequestBody PlaylistAddTrackRequest request) {
-        return playlistService.addTrackToPlaylist(request).map(GeneralResponse::successResponse);
+    public Mono<GeneralResponse<PlaylistResponse>> addTrack(@RequestBody PlaylistAddTrackRequest request) {
+        return playlistService.addTrackToPlaylist(request).flatMap(playlistService::describe)
+                .map(GeneralResponse::successResponse);
+    }
+
+    @PutMapping("/removeTrack")
+    public Mono<GeneralResponse<PlaylistResponse>> removeTrack(@RequestBody PlaylistRemoveTrackRequest request) {
+        return playlistService.removeTrackFromPlaylist(request).flatMap(playlistService::describe)
+                .map(GeneralResponse::successResponse);
+    }
+
+    @PutMapping("/{uid}/addTracks")
+    public Mono<GeneralResponse<PlaylistResponse>> addTracks(
+            @PathVariable String uid, @RequestBody PlaylistTracksRequest request
+    ) {
+        return playlistService.addTracksToPlaylist(uid, request.trackIds()).flatMap(playlistService::describe)
+                .map(GeneralResponse::successResponse);
+    }
+
+    @PutMapping("/{uid}/removeTracks")
+    public Mono<GeneralResponse<PlaylistResponse>> removeTracks(
+            @PathVariable String uid, @RequestBody PlaylistTracksRequest request
+    ) {
+        return playlistService.removeTracksFromPlaylist(uid, request.trackIds()).flatMap(playlistService::describe)
+                .map(GeneralResponse::successResponse);
+    }
+
+    @PutMapping("/{uid}/moveTrack")
+    public Mono<GeneralResponse<PlaylistResponse>> moveTrack(
+            @PathVariable String uid, @RequestBody PlaylistMoveTrackRequest request
+    ) {
+        return playlistService.moveTrack(uid, request).flatMap(playlistService::describe)
+                .map(GeneralResponse::successResponse);
     }
 
     @DeleteMapping("/{uid}")
-    public Mono<GeneralResponse<Playlist>> delete(@PathVariable String uid) {
+    public Mono<GeneralResponse<PlaylistResponse>> delete(@PathVariable String uid) {
         return playlistService.delete(uid).map(GeneralResponse::successResponse);
     }
 
@@ -61,4 +118,11 @@ public class PlaylistController {
         return playlistService.getTracksByPlaylistId(uid).map(GeneralResponse::successResponse);
     }
 
+    @GetMapping(value = "/{uid}/tracks", params = "limit")
+    public Mono<GeneralResponse<PageResponse<Track>>> getTracksPageByPlaylistId(
+            @PathVariable String uid, @RequestParam int limit, @RequestParam(required = false) String cursor
+    ) {
+        return playlistService.getTracksPageByPlaylistId(uid, limit, cursor).map(GeneralResponse::successResponse);
+    }
+
 }
@@ -2,25 +2,74 @@ package com.example.awssoundservice.controller;
 
 import com.example.awssoundservice.model.Track;
 import com.example.awssoundservice.request.TrackCreateOrUpdateRequest;
+import com.example.awssoundservice.request.TrackUploadCompleteRequest;
+import com.example.awssoundservice.request.TrackUploadUrlRequest;
+import com.example.awssoundservice.response.FileStreamResponse;
 import com.example.awssoundservice.response.GeneralResponse;
+import com.example.awssoundservice.response.PageResponse;
+import com.example.awssoundservice.response.PresignedUploadResponse;
+import com.example.awssoundservice.response.PresignedUrlResponse;
+import com.example.awssoundservice.service.PresignedUrlService;
+import com.example.awssoundservice.service.TrackFileDiskCache;
 import com.example.awssoundservice.service.TrackService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/tracks")
 @RequiredArgsConstructor
 public class TrackController {
 
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final String CONTENT_SHA256_HEADER = "X-Content-Sha256";
+
     private final TrackService trackService;
+    private final PresignedUrlService presignedUrlService;
+    private final TrackFileDiskCache trackFileDiskCache;
 
     @GetMapping
     public Mono<GeneralResponse<List<Track>>> getAll() {
-        return trackService.getAll().map(GeneralResponse::successResponse);
+        return trackService.getAll().collectList().map(GeneralResponse::successResponse);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE, params = "limit")
+    public Mono<GeneralResponse<PageResponse<Track>>> getPage(
+            @RequestParam int limit, @RequestParam(required = false) String cursor
+    ) {
+        return trackService.getPage(limit, cursor).map(GeneralResponse::successResponse);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Track> streamAll() {
+        return trackService.getAll();
+    }
+
+    @GetMapping("/search")
+    public Mono<GeneralResponse<List<Track>>> search(
+            @RequestParam String q, @RequestParam(defaultValue = "20") int limit
+    ) {
+        return trackService.search(q, limit).map(GeneralResponse::successResponse);
     }
 
     @GetMapping("/{uid}")
@@ -33,6 +82,15 @@ public class TrackController {
         return trackService.create(request).map(GeneralResponse::successResponse);
     }
 
+    @PostMapping(
+            value = "/bulk",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public Flux<GeneralResponse<Track>> createAll(@RequestBody Flux<TrackCreateOrUpdateRequest> requests) {
+        return trackService.createAll(requests);
+    }
+
     @PutMapping("/{uid}")
     public Mono<GeneralResponse<Track>> update(@PathVariable String uid, @RequestBody TrackCreateOrUpdateRequest request) {
         return trackService.update(uid, request).map(GeneralResponse::successResponse);
@@ -43,12 +101,148 @@ public class TrackController {
         return trackService.delete(uid).map(GeneralResponse::successResponse);
     }
 
+    @GetMapping("/{uid}/stream")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamTrackFile(
+            @PathVariable String uid,
+            @RequestHeader(name = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(name = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            ServerHttpResponse response
+    ) {
+        DataBufferFactory bufferFactory = response.bufferFactory();
+        return trackService.getById(uid).flatMap(track -> {
+            Optional<TrackFileDiskCache.OpenFile> cachedFile = trackFileDiskCache.open(track.fileKey());
+            if (cachedFile.isPresent()) {
+                return Mono.just(this.cachedFileResponse(cachedFile.get(), range, ifRange, bufferFactory));
+            }
+            return trackService.streamTrackFile(uid, range, ifRange).map(fileStream -> this.s3FileResponse(
+                    fileStream,
+                    trackFileDiskCache.fillWhileStreaming(track.fileKey(), fileStream.metadata(), fileStream.content()),
+                    bufferFactory
+            ));
+        });
+    }
+
+    private ResponseEntity<Flux<DataBuffer>> s3FileResponse(
+            FileStreamResponse fileStream, Flux<ByteBuffer> content, DataBufferFactory bufferFactory
+    ) {
+        GetObjectResponse metadata = fileStream.metadata();
+        ResponseEntity.BodyBuilder builder = ResponseEntity
+                .status(fileStream.partial() ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (fileStream.partial()) {
+            builder.header(HttpHeaders.CONTENT_RANGE, metadata.contentRange());
+        }
+        if (metadata.contentLength() != null) {
+            builder.contentLength(metadata.contentLength());
+        }
+        if (metadata.contentType() != null) {
+            builder.contentType(MediaType.parseMediaType(metadata.contentType()));
+        }
+        if (metadata.eTag() != null) {
+            builder.eTag(metadata.eTag());
+        }
+        if (metadata.lastModified() != null) {
+            builder.lastModified(metadata.lastModified());
+        }
+        return builder.body(content.map(bufferFactory::wrap));
+    }
+
+    private ResponseEntity<Flux<DataBuffer>> cachedFileResponse(
+            TrackFileDiskCache.OpenFile openFile, String range, String ifRange, DataBufferFactory bufferFactory
+    ) {
+        TrackFileDiskCache.CachedFile cachedFile = openFile.file();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (cachedFile.contentType() != null) {
+            headers.setContentType(MediaType.parseMediaType(cachedFile.contentType()));
+        }
+        if (cachedFile.eTag() != null) {
+            headers.setETag(cachedFile.eTag());
+        }
+        if (cachedFile.lastModified() != null) {
+            headers.setLastModified(cachedFile.lastModified());
+        }
+        HttpRange httpRange = range != null && (ifRange == null || this.ifRangeMatches(ifRange, cachedFile))
+                ? this.singleRange(range)
+                : null;
+        long size = cachedFile.size();
+        if (httpRange == null) {
+            headers.setContentLength(size);
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(this.readCachedFile(openFile, 0, size, bufferFactory));
+        }
+        long start = httpRange.getRangeStart(size);
+        long end = httpRange.getRangeEnd(size);
+        if (start >= size || start > end) {
+            openFile.close();
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+        }
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        headers.setContentLength(end - start + 1);
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .headers(headers)
+                .body(this.readCachedFile(openFile, start, end - start + 1, bufferFactory));
+    }
+
+    private Flux<DataBuffer> readCachedFile(
+            TrackFileDiskCache.OpenFile openFile, long position, long length, DataBufferFactory bufferFactory
+    ) {
+        return DataBufferUtils.takeUntilByteCount(DataBufferUtils.readAsynchronousFileChannel(
+                openFile::channel, position, bufferFactory, STREAM_BUFFER_SIZE
+        ), length);
+    }
+
+    private HttpRange singleRange(String range) {
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private boolean ifRangeMatches(String ifRange, TrackFileDiskCache.CachedFile cachedFile) {
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(cachedFile.eTag());
+        }
+        try {
+            Instant date = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return cachedFile.lastModified() != null
+                    && date.getEpochSecond() == cachedFile.lastModified().getEpochSecond();
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    @PostMapping("/{uid}/upload-url")
+    public Mono<GeneralResponse<PresignedUploadResponse>> createUploadUrl(
+            @PathVariable String uid, @RequestBody TrackUploadUrlRequest request
+    ) {
+        return presignedUrlService.createUploadUrl(uid, request).map(GeneralResponse::successResponse);
+    }
+
+    @PostMapping("/{uid}/upload-complete")
+    public Mono<GeneralResponse<Track>> completeUpload(
+            @PathVariable String uid, @RequestBody TrackUploadCompleteRequest request
+    ) {
+        return presignedUrlService.completeUpload(uid, request).map(GeneralResponse::successResponse);
+    }
+
+    @GetMapping("/{uid}/download-url")
+    public Mono<GeneralResponse<PresignedUrlResponse>> createDownloadUrl(@PathVariable String uid) {
+        return presignedUrlService.createDownloadUrl(uid).map(GeneralResponse::successResponse);
+    }
+
     @PostMapping("/{uid}/upload")
     public Mono<GeneralResponse<Track>> uploadTrackFile(
-            @PathVariable String uid, @RequestPart(name = "file") Mono<FilePart> file
+            @PathVariable String uid,
+            @RequestPart(name = "file") Mono<FilePart> file,
+            @RequestHeader(name = CONTENT_SHA256_HEADER, required = false) String contentSha256
     ) {
         return file
-                .flatMap(filePart -> trackService.uploadTrackFile(uid, filePart))
+                .flatMap(filePart -> trackService.uploadTrackFile(uid, filePart, contentSha256))
                 .map(GeneralResponse::successResponse);
     }
 
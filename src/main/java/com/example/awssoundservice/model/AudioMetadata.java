@@ -0,0 +1,11 @@
+package com.example.awssoundservice.model;
+
+public record AudioMetadata(
+        String codec,
+        long durationMillis,
+        int bitrate,
+        int sampleRate,
+        int channels,
+        byte[] peaks
+) {
+}
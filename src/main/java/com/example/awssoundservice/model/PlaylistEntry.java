@@ -0,0 +1,46 @@
+package com.example.awssoundservice.model;
+
+import com.example.awssoundservice.common.codec.PlaylistEntryCodec;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public record PlaylistEntry(
+        String playlistId,
+        BigDecimal position,
+        String trackId,
+        String name,
+        String fileKey,
+        String fileUrl
+) {
+
+    public static PlaylistEntry of(String playlistId, BigDecimal position, Track track) {
+        return new PlaylistEntry(playlistId, position, track.uid(), track.name(), track.fileKey(), track.fileUrl());
+    }
+
+    public static PlaylistEntry from(Map<String, AttributeValue> valueMap) {
+        return PlaylistEntryCodec.INSTANCE.decode(valueMap);
+    }
+
+    public Map<String, AttributeValue> toMap() {
+        return PlaylistEntryCodec.INSTANCE.encode(this);
+    }
+
+    public Map<String, AttributeValue> key() {
+        return PlaylistEntryCodec.key(playlistId, position);
+    }
+
+    public Map<String, AttributeValue> toMemberMap() {
+        return PlaylistEntryCodec.encodeMember(this);
+    }
+
+    public Map<String, AttributeValue> memberKey() {
+        return PlaylistEntryCodec.memberKey(playlistId, trackId);
+    }
+
+    public Track toTrack() {
+        return new Track(trackId, name, fileKey, fileUrl);
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.example.awssoundservice.model;
 
+import com.example.awssoundservice.common.codec.TrackCodec;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
 import java.util.List;
@@ -9,15 +10,15 @@ public record Track(
         String uid,
         String name,
         String fileKey,
-        String fileUrl
+        String fileUrl,
+        AudioMetadata audio
 ) {
+    public Track(String uid, String name, String fileKey, String fileUrl) {
+        this(uid, name, fileKey, fileUrl, null);
+    }
+
     public static Track from(Map<String, AttributeValue> valueMap) {
-        return new Track(
-                valueMap.get("uid").s(),
-                valueMap.get("name").s(),
-                valueMap.get("fileKey").s(),
-                valueMap.get("fileUrl").s()
-        );
+        return TrackCodec.INSTANCE.decode(valueMap);
     }
 
     public static List<Track> fromList(List<Map<String, AttributeValue>> valueMaps) {
@@ -25,11 +26,6 @@ public record Track(
     }
 
     public Map<String, AttributeValue> toMap() {
-        return Map.of(
-                "uid", AttributeValue.builder().s(this.uid).build(),
-                "name", AttributeValue.builder().s(this.name).build(),
-                "fileKey", AttributeValue.builder().s(this.fileKey).build(),
-                "fileUrl", AttributeValue.builder().s(this.fileUrl).build()
-        );
+        return TrackCodec.INSTANCE.encode(this);
     }
 }
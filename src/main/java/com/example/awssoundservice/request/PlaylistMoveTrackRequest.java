@@ -0,0 +1,4 @@
+package com.example.awssoundservice.request;
+
+public record PlaylistMoveTrackRequest(String trackId, String afterTrackId) {
+}
@@ -0,0 +1,4 @@
+package com.example.awssoundservice.request;
+
+public record PlaylistRemoveTrackRequest(String playlistId, String trackId) {
+}
@@ -0,0 +1,6 @@
+package com.example.awssoundservice.request;
+
+import java.util.List;
+
+public record PlaylistTracksRequest(List<String> trackIds) {
+}
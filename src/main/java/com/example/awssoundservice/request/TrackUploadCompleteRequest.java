@@ -0,0 +1,10 @@
+package com.example.awssoundservice.request;
+
+import java.util.List;
+
+public record TrackUploadCompleteRequest(String fileKey, String uploadId, List<Part> parts) {
+
+    public record Part(Integer partNumber, String eTag) {
+    }
+
+}
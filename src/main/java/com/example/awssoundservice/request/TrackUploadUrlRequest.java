@@ -0,0 +1,4 @@
+package com.example.awssoundservice.request;
+
+public record TrackUploadUrlRequest(String filename, String contentType, Long contentLength) {
+}
@@ -0,0 +1,13 @@
+package com.example.awssoundservice.response;
+
+import reactor.core.publisher.Flux;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.nio.ByteBuffer;
+
+public record FileStreamResponse(
+        GetObjectResponse metadata,
+        boolean partial,
+        Flux<ByteBuffer> content
+) {
+}
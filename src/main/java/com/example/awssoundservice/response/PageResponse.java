@@ -0,0 +1,9 @@
+package com.example.awssoundservice.response;
+
+import java.util.List;
+
+public record PageResponse<T>(
+        List<T> items,
+        String nextCursor
+) {
+}
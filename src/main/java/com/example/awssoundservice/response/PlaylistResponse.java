@@ -0,0 +1,18 @@
+package com.example.awssoundservice.response;
+
+import com.example.awssoundservice.model.Playlist;
+
+import java.util.List;
+
+public record PlaylistResponse(
+        String uid,
+        String name,
+        List<String> trackIds,
+        int trackCount
+) {
+
+    public static PlaylistResponse of(Playlist playlist, List<String> trackIds) {
+        return new PlaylistResponse(playlist.uid(), playlist.name(), trackIds, playlist.trackCount());
+    }
+
+}
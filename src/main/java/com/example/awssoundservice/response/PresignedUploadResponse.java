@@ -0,0 +1,14 @@
+package com.example.awssoundservice.response;
+
+import java.time.Instant;
+import java.util.List;
+
+public record PresignedUploadResponse(
+        String fileKey,
+        String uploadId,
+        String url,
+        Long partSize,
+        List<String> partUrls,
+        Instant expiresAt
+) {
+}
@@ -0,0 +1,9 @@
+package com.example.awssoundservice.response;
+
+import java.time.Instant;
+
+public record PresignedUrlResponse(
+        String url,
+        Instant expiresAt
+) {
+}
@@ -0,0 +1,96 @@
+package com.example.awssoundservice.service;
+
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter.Operation;
+import com.example.awssoundservice.common.utils.AwsSdkUtils;
+import com.example.awssoundservice.common.utils.RetryUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.time.Duration;
+import java.util.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchGetService {
+
+    public static final int MAX_KEYS_PER_BATCH = 100;
+
+    private final DynamoDbAsyncClient dynamoDb;
+    private final OutboundCallLimiter outboundCallLimiter;
+
+    @Value("${aws.dynamodb.batch-get.concurrency:4}")
+    private int concurrency;
+
+    @Value("${aws.dynamodb.batch-get.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${aws.dynamodb.batch-get.base-delay:25ms}")
+    private Duration baseDelay;
+
+    @Value("${aws.dynamodb.batch-get.max-delay:1s}")
+    private Duration maxDelay;
+
+    public Flux<Map<String, AttributeValue>> batchGet(String tableName, Collection<Map<String, AttributeValue>> keys) {
+        return this.batchGet(tableName, keys, List.of());
+    }
+
+    public Flux<Map<String, AttributeValue>> batchGet(
+            String tableName, Collection<Map<String, AttributeValue>> keys, List<String> attributes
+    ) {
+        List<Map<String, AttributeValue>> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+        if (distinctKeys.isEmpty()) {
+            return Flux.empty();
+        }
+        KeysAndAttributes.Builder projectionBuilder = KeysAndAttributes.builder();
+        if (!attributes.isEmpty()) {
+            Map<String, String> names = new HashMap<>();
+            StringJoiner projection = new StringJoiner(",");
+            for (int i = 0; i < attributes.size(); i++) {
+                String name = "#p" + i;
+                names.put(name, attributes.get(i));
+                projection.add(name);
+            }
+            projectionBuilder.projectionExpression(projection.toString()).expressionAttributeNames(names);
+        }
+        KeysAndAttributes template = projectionBuilder.build();
+        return Flux.fromIterable(distinctKeys)
+                .buffer(MAX_KEYS_PER_BATCH)
+                .flatMap(chunk -> this.batchGetChunk(tableName, template.toBuilder().keys(chunk).build(), 1), concurrency);
+    }
+
+    private Flux<Map<String, AttributeValue>> batchGetChunk(
+            String tableName, KeysAndAttributes keysAndAttributes, int attempt
+    ) {
+        BatchGetItemRequest request = BatchGetItemRequest.builder()
+                .requestItems(Map.of(tableName, keysAndAttributes))
+                .build();
+        return outboundCallLimiter.dynamoDb(tableName, Operation.BATCH, () -> dynamoDb.batchGetItem(request))
+                .flatMapMany(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    List<Map<String, AttributeValue>> items = response.responses().getOrDefault(tableName, List.of());
+                    KeysAndAttributes unprocessed = response.unprocessedKeys().get(tableName);
+                    if (unprocessed == null || !unprocessed.hasKeys() || unprocessed.keys().isEmpty()) {
+                        return Flux.fromIterable(items);
+                    }
+                    if (attempt >= maxAttempts) {
+                        return Flux.error(new IllegalStateException(
+                                "BatchGetItem on %s left %d keys unprocessed after %d attempts"
+                                        .formatted(tableName, unprocessed.keys().size(), attempt)
+                        ));
+                    }
+                    log.debug("Retrying {} unprocessed keys on {}, attempt {}", unprocessed.keys().size(), tableName, attempt);
+                    return Flux.fromIterable(items).concatWith(
+                            this.batchGetChunk(tableName, unprocessed, attempt + 1)
+                                    .delaySubscription(RetryUtils.fullJitterBackoff(attempt, baseDelay, maxDelay))
+                    );
+                });
+    }
+
+}
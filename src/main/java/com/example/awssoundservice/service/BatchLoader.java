@@ -0,0 +1,199 @@
+package com.example.awssoundservice.service;
+
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter.Operation;
+import com.example.awssoundservice.common.metrics.AwsCaller;
+import com.example.awssoundservice.common.utils.AwsSdkUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+@Slf4j
+public class BatchLoader<V> implements AutoCloseable {
+
+    private static final String KEY_ATTRIBUTE = "uid";
+
+    private static final Sinks.EmitFailureHandler EMIT_FAILURE_HANDLER =
+            Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100));
+
+    private final String tableName;
+    private final Function<Map<String, AttributeValue>, V> mapper;
+    private final DynamoDbAsyncClient dynamoDb;
+    private final OutboundCallLimiter outboundCallLimiter;
+    private final BatchGetService batchGetService;
+    private final Settings settings;
+    private final DistributionSummary batchSize;
+    private final Timer waitTime;
+    private final Counter timeouts;
+    private final Counter restarts;
+    private volatile Sinks.Many<PendingLoad<V>> pending;
+    private volatile Disposable subscription;
+    private volatile boolean closed;
+
+    public BatchLoader(
+            String tableName,
+            Function<Map<String, AttributeValue>, V> mapper,
+            DynamoDbAsyncClient dynamoDb,
+            OutboundCallLimiter outboundCallLimiter,
+            BatchGetService batchGetService,
+            MeterRegistry meterRegistry,
+            Settings settings
+    ) {
+        this.tableName = tableName;
+        this.mapper = mapper;
+        this.dynamoDb = dynamoDb;
+        this.outboundCallLimiter = outboundCallLimiter;
+        this.batchGetService = batchGetService;
+        this.settings = settings;
+        this.batchSize = DistributionSummary.builder("dynamodb.batch.loader.size")
+                .tag("table", tableName)
+                .register(meterRegistry);
+        this.waitTime = Timer.builder("dynamodb.batch.loader.wait")
+                .tag("table", tableName)
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("dynamodb.batch.loader.timeouts")
+                .tag("table", tableName)
+                .register(meterRegistry);
+        this.restarts = Counter.builder("dynamodb.batch.loader.restarts")
+                .tag("table", tableName)
+                .register(meterRegistry);
+        if (settings.enabled()) {
+            this.start();
+        }
+    }
+
+    public Mono<V> load(String key) {
+        if (!settings.enabled()) {
+            return this.getItem(key);
+        }
+        return Mono.deferContextual(context -> {
+            PendingLoad<V> load = new PendingLoad<>(
+                    key, AwsCaller.from(context), new CompletableFuture<>(), System.nanoTime()
+            );
+            try {
+                pending.emitNext(load, EMIT_FAILURE_HANDLER);
+            } catch (Sinks.EmissionException e) {
+                return this.getItem(key);
+            }
+            load.result().orTimeout(settings.loadTimeout().toNanos(), TimeUnit.NANOSECONDS);
+            return Mono.fromFuture(load.result(), true)
+                    .flatMap(Mono::justOrEmpty)
+                    .onErrorMap(TimeoutException.class, e -> {
+                        timeouts.increment();
+                        return new ResponseStatusException(
+                                HttpStatus.SERVICE_UNAVAILABLE, "Timed out waiting for a batched read", e
+                        );
+                    });
+        });
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private synchronized void start() {
+        if (closed) {
+            return;
+        }
+        Sinks.Many<PendingLoad<V>> sink = Sinks.many().unicast().onBackpressureBuffer();
+        int batchLimit = Math.min(settings.maxBatchSize(), BatchGetService.MAX_KEYS_PER_BATCH);
+        this.pending = sink;
+        this.subscription = sink.asFlux()
+                .bufferTimeout(batchLimit, settings.maxWait(), true)
+                .flatMap(this::dispatch, settings.maxConcurrency())
+                .subscribe(null, error -> {
+                    log.error("Batch loader for {} stopped, restarting", tableName, error);
+                    restarts.increment();
+                    this.start();
+                });
+    }
+
+    private Mono<Void> dispatch(List<PendingLoad<V>> loads) {
+        return Mono.defer(() -> {
+            long dispatchedAt = System.nanoTime();
+            List<PendingLoad<V>> active = new ArrayList<>(loads.size());
+            Set<Map<String, AttributeValue>> keys = new LinkedHashSet<>();
+            Set<String> callers = new HashSet<>();
+            for (PendingLoad<V> load : loads) {
+                if (load.result().isDone()) {
+                    continue;
+                }
+                active.add(load);
+                callers.add(load.caller());
+                waitTime.record(Duration.ofNanos(dispatchedAt - load.enqueuedAt()));
+                keys.add(Map.of(KEY_ATTRIBUTE, AttributeValue.builder().s(load.key()).build()));
+            }
+            if (active.isEmpty()) {
+                return Mono.empty();
+            }
+            batchSize.record(keys.size());
+            return batchGetService.batchGet(tableName, keys)
+                    .collectMap(item -> item.get(KEY_ATTRIBUTE).s())
+                    .doOnNext(itemsByKey -> {
+                        for (PendingLoad<V> load : active) {
+                            Map<String, AttributeValue> item = itemsByKey.get(load.key());
+                            try {
+                                load.result().complete(Optional.ofNullable(item).map(mapper));
+                            } catch (RuntimeException e) {
+                                load.result().completeExceptionally(e);
+                            }
+                        }
+                    })
+                    .doOnError(error -> active.forEach(load -> load.result().completeExceptionally(error)))
+                    .contextWrite(AwsCaller.of(
+                            callers.size() == 1 ? callers.iterator().next() : "BatchLoader[" + tableName + "]"
+                    ));
+        }).onErrorResume(error -> Mono.empty()).then();
+    }
+
+    public Mono<V> loadSingle(String key) {
+        return this.getItem(key);
+    }
+
+    private Mono<V> getItem(String key) {
+        GetItemRequest request = GetItemRequest.builder()
+                .tableName(tableName)
+                .key(Map.of(KEY_ATTRIBUTE, AttributeValue.builder().s(key).build()))
+                .build();
+        return outboundCallLimiter.dynamoDb(tableName, Operation.READ, () -> dynamoDb.getItem(request))
+                .filter(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    return response.hasItem() && !response.item().isEmpty();
+                })
+                .map(response -> mapper.apply(response.item()));
+    }
+
+    public record Settings(
+            boolean enabled,
+            int maxBatchSize,
+            Duration maxWait,
+            int maxConcurrency,
+            Duration loadTimeout
+    ) {
+    }
+
+    private record PendingLoad<T>(String key, String caller, CompletableFuture<Optional<T>> result, long enqueuedAt) {
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.example.awssoundservice.service;
+
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter.Operation;
+import com.example.awssoundservice.common.utils.AwsSdkUtils;
+import com.example.awssoundservice.common.utils.RetryUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.time.Duration;
+import java.util.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchWriteService {
+
+    public static final int MAX_ITEMS_PER_BATCH = 25;
+
+    private final DynamoDbAsyncClient dynamoDb;
+    private final OutboundCallLimiter outboundCallLimiter;
+
+    @Value("${aws.dynamodb.batch-write.concurrency:8}")
+    private int concurrency;
+
+    @Value("${aws.dynamodb.batch-write.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${aws.dynamodb.batch-write.base-delay:25ms}")
+    private Duration baseDelay;
+
+    @Value("${aws.dynamodb.batch-write.max-delay:2s}")
+    private Duration maxDelay;
+
+    public Flux<WriteResult> putAll(String tableName, Flux<Map<String, AttributeValue>> items) {
+        return this.writeAll(tableName, items, false);
+    }
+
+    public Flux<WriteResult> deleteAll(String tableName, Flux<Map<String, AttributeValue>> keys) {
+        return this.writeAll(tableName, keys, true);
+    }
+
+    private Flux<WriteResult> writeAll(String tableName, Flux<Map<String, AttributeValue>> items, boolean delete) {
+        return items
+                .buffer(MAX_ITEMS_PER_BATCH)
+                .flatMap(batch -> this.writeBatch(tableName, batch, delete, 1), concurrency);
+    }
+
+    private Flux<WriteResult> writeBatch(
+            String tableName, List<Map<String, AttributeValue>> items, boolean delete, int attempt
+    ) {
+        List<WriteRequest> writeRequests = items.stream()
+                .map(item -> delete
+                        ? WriteRequest.builder().deleteRequest(DeleteRequest.builder().key(item).build()).build()
+                        : WriteRequest.builder().putRequest(PutRequest.builder().item(item).build()).build())
+                .toList();
+        BatchWriteItemRequest request = BatchWriteItemRequest.builder()
+                .requestItems(Map.of(tableName, writeRequests))
+                .build();
+        return outboundCallLimiter.dynamoDb(tableName, Operation.BATCH, () -> dynamoDb.batchWriteItem(request))
+                .flatMapMany(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    List<Map<String, AttributeValue>> unprocessed = response.unprocessedItems()
+                            .getOrDefault(tableName, List.of())
+                            .stream()
+                            .map(writeRequest -> delete
+                                    ? writeRequest.deleteRequest().key()
+                                    : writeRequest.putRequest().item())
+                            .toList();
+                    if (unprocessed.isEmpty()) {
+                        return Flux.fromIterable(items).map(WriteResult::success);
+                    }
+                    Set<Map<String, AttributeValue>> unprocessedSet = new HashSet<>(unprocessed);
+                    Flux<WriteResult> written = Flux.fromIterable(items)
+                            .filter(item -> !unprocessedSet.contains(item))
+                            .map(WriteResult::success);
+                    if (attempt >= maxAttempts) {
+                        IllegalStateException error = new IllegalStateException(
+                                "BatchWriteItem on %s left item unprocessed after %d attempts".formatted(tableName, attempt)
+                        );
+                        return written.concatWith(
+                                Flux.fromIterable(unprocessed).map(item -> WriteResult.failure(item, error))
+                        );
+                    }
+                    log.debug("Retrying {} unprocessed items on {}, attempt {}", unprocessed.size(), tableName, attempt);
+                    return written.concatWith(
+                            this.writeBatch(tableName, unprocessed, delete, attempt + 1)
+                                    .delaySubscription(RetryUtils.fullJitterBackoff(attempt, baseDelay, maxDelay))
+                    );
+                })
+                .onErrorResume(error -> Flux.fromIterable(items).map(item -> WriteResult.failure(item, error)));
+    }
+
+    public record WriteResult(Map<String, AttributeValue> item, Throwable error) {
+
+        public static WriteResult success(Map<String, AttributeValue> item) {
+            return new WriteResult(item, null);
+        }
+
+        public static WriteResult failure(Map<String, AttributeValue> item, Throwable error) {
+            return new WriteResult(item, error);
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+    }
+
+}
@@ -0,0 +1,285 @@
+package com.example.awssoundservice.service;
+
+import com.example.awssoundservice.common.DynamoDbTables;
+import com.example.awssoundservice.common.codec.AttributeCodecs;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter.Operation;
+import com.example.awssoundservice.common.utils.AwsSdkUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContentStoreService {
+
+    private static final String HASH_KEY = "sha256";
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+    private static final String REFERENCED_BY = "referencedBy";
+    private static final int MAX_REGISTER_ATTEMPTS = 3;
+
+    private final S3AsyncClient s3AsyncClient;
+    private final DynamoDbAsyncClient dynamoDb;
+    private final OutboundCallLimiter outboundCallLimiter;
+    private final S3MultipartUploadService s3MultipartUploadService;
+
+    @Value("${aws.s3.track-bucket}")
+    private String bucket;
+
+    @Value("${aws.s3.content-addressed.enabled:false}")
+    private boolean enabled;
+
+    @Value("${aws.s3.content-addressed.prefix:content/}")
+    private String prefix;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Mono<StoredContent> store(
+            String trackId, String contentType, Flux<DataBuffer> content, String expectedSha256
+    ) {
+        if (expectedSha256 != null && !SHA256_HEX.matcher(expectedSha256).matches()) {
+            return Mono.error(new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "Content hash must be a lowercase hex SHA-256"
+            ));
+        }
+        return Mono.defer(() -> {
+            ContentUpload upload = new ContentUpload();
+            Flux<DataBuffer> hashed = content.doOnNext(upload::update);
+            Mono<Boolean> known = expectedSha256 != null ? this.exists(expectedSha256) : Mono.just(false);
+            return known.flatMap(exists -> exists
+                    ? this.linkWithoutUpload(trackId, hashed, upload, expectedSha256)
+                    : this.upload(trackId, contentType, hashed, upload, expectedSha256));
+        });
+    }
+
+    public Mono<Void> release(String sha256, String trackId) {
+        UpdateItemRequest request = UpdateItemRequest.builder()
+                .tableName(DynamoDbTables.TRACK_CONTENTS)
+                .key(this.key(sha256))
+                .updateExpression("DELETE " + REFERENCED_BY + " :track")
+                .conditionExpression("attribute_exists(" + HASH_KEY + ")")
+                .expressionAttributeValues(Map.of(":track", this.reference(trackId)))
+                .returnValues(ReturnValue.ALL_NEW)
+                .build();
+        return outboundCallLimiter
+                .dynamoDb(DynamoDbTables.TRACK_CONTENTS, Operation.WRITE, () -> dynamoDb.updateItem(request))
+                .flatMap(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    if (response.attributes().containsKey(REFERENCED_BY)) {
+                        return Mono.empty();
+                    }
+                    String fileKey = AttributeCodecs.requireString(response.attributes(), "fileKey");
+                    return this.deleteUnreferenced(sha256, fileKey);
+                })
+                .onErrorResume(ConditionalCheckFailedException.class, e -> Mono.empty())
+                .then();
+    }
+
+    private Mono<StoredContent> linkWithoutUpload(
+            String trackId, Flux<DataBuffer> hashed, ContentUpload upload, String expectedSha256
+    ) {
+        return hashed.doOnNext(DataBufferUtils::release).then(Mono.defer(() -> {
+            String sha256 = upload.sha256();
+            if (!sha256.equals(expectedSha256)) {
+                return Mono.error(this.hashMismatch());
+            }
+            return this.acquire(sha256, trackId)
+                    .map(fileKey -> new StoredContent(sha256, fileKey, upload.size(), true))
+                    .switchIfEmpty(Mono.error(() -> new ResponseStatusException(
+                            HttpStatus.CONFLICT, "Content was removed during upload, retry without a content hash"
+                    )));
+        }));
+    }
+
+    private Mono<StoredContent> upload(
+            String trackId, String contentType, Flux<DataBuffer> hashed, ContentUpload upload, String expectedSha256
+    ) {
+        String fileKey = prefix + UUID.randomUUID();
+        Mono<Boolean> completeIfNew = Mono.defer(() -> {
+            String sha256 = upload.sha256();
+            if (expectedSha256 != null && !sha256.equals(expectedSha256)) {
+                return Mono.error(this.hashMismatch());
+            }
+            return this.acquire(sha256, trackId)
+                    .map(existingKey -> {
+                        upload.existing = new StoredContent(sha256, existingKey, upload.size(), true);
+                        return false;
+                    })
+                    .defaultIfEmpty(true);
+        });
+        return s3MultipartUploadService.upload(bucket, fileKey, contentType, hashed, completeIfNew)
+                .flatMap(response -> this.register(trackId, upload.sha256(), fileKey, upload.size()))
+                .switchIfEmpty(Mono.fromSupplier(() -> upload.existing));
+    }
+
+    private Mono<StoredContent> register(String trackId, String sha256, String fileKey, long size) {
+        return this.register(trackId, sha256, fileKey, size, 1);
+    }
+
+    private Mono<StoredContent> register(String trackId, String sha256, String fileKey, long size, int attempt) {
+        Map<String, AttributeValue> item = Map.of(
+                HASH_KEY, AttributeValue.fromS(sha256),
+                "fileKey", AttributeValue.fromS(fileKey),
+                "size", AttributeCodecs.number(size),
+                REFERENCED_BY, this.reference(trackId)
+        );
+        PutItemRequest request = PutItemRequest.builder()
+                .tableName(DynamoDbTables.TRACK_CONTENTS)
+                .item(item)
+                .conditionExpression(
+                        "attribute_not_exists(" + HASH_KEY + ") OR attribute_not_exists(" + REFERENCED_BY + ")"
+                )
+                .returnValues(ReturnValue.ALL_OLD)
+                .build();
+        return outboundCallLimiter
+                .dynamoDb(DynamoDbTables.TRACK_CONTENTS, Operation.WRITE, () -> dynamoDb.putItem(request))
+                .flatMap(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    String reclaimedKey = AttributeCodecs.getString(response.attributes(), "fileKey", null);
+                    Mono<Void> cleanup = reclaimedKey != null && !reclaimedKey.equals(fileKey)
+                            ? this.deleteObject(reclaimedKey)
+                            : Mono.empty();
+                    return cleanup.thenReturn(new StoredContent(sha256, fileKey, size, false));
+                })
+                .onErrorResume(ConditionalCheckFailedException.class, e -> this.acquire(sha256, trackId)
+                        .flatMap(existingKey -> existingKey.equals(fileKey)
+                                ? Mono.just(new StoredContent(sha256, fileKey, size, false))
+                                : this.deleteObject(fileKey)
+                                        .thenReturn(new StoredContent(sha256, existingKey, size, true)))
+                        .switchIfEmpty(Mono.defer(() -> attempt < MAX_REGISTER_ATTEMPTS
+                                ? this.register(trackId, sha256, fileKey, size, attempt + 1)
+                                : this.deleteObject(fileKey).then(Mono.error(new ResponseStatusException(
+                                        HttpStatus.SERVICE_UNAVAILABLE, "Content index is contended, retry the upload"
+                                )))))
+                );
+    }
+
+    private Mono<Boolean> exists(String sha256) {
+        GetItemRequest request = GetItemRequest.builder()
+                .tableName(DynamoDbTables.TRACK_CONTENTS)
+                .key(this.key(sha256))
+                .projectionExpression(HASH_KEY + ", " + REFERENCED_BY)
+                .build();
+        return outboundCallLimiter
+                .dynamoDb(DynamoDbTables.TRACK_CONTENTS, Operation.READ, () -> dynamoDb.getItem(request))
+                .map(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    return response.hasItem() && response.item().containsKey(REFERENCED_BY);
+                });
+    }
+
+    private Mono<String> acquire(String sha256, String trackId) {
+        UpdateItemRequest request = UpdateItemRequest.builder()
+                .tableName(DynamoDbTables.TRACK_CONTENTS)
+                .key(this.key(sha256))
+                .updateExpression("ADD " + REFERENCED_BY + " :track")
+                .conditionExpression("attribute_exists(" + REFERENCED_BY + ")")
+                .expressionAttributeValues(Map.of(":track", this.reference(trackId)))
+                .returnValues(ReturnValue.ALL_NEW)
+                .build();
+        return outboundCallLimiter
+                .dynamoDb(DynamoDbTables.TRACK_CONTENTS, Operation.WRITE, () -> dynamoDb.updateItem(request))
+                .map(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    return AttributeCodecs.requireString(response.attributes(), "fileKey");
+                })
+                .onErrorResume(ConditionalCheckFailedException.class, e -> Mono.empty());
+    }
+
+    private Mono<Void> deleteUnreferenced(String sha256, String fileKey) {
+        DeleteItemRequest request = DeleteItemRequest.builder()
+                .tableName(DynamoDbTables.TRACK_CONTENTS)
+                .key(this.key(sha256))
+                .conditionExpression("attribute_not_exists(" + REFERENCED_BY + ")")
+                .build();
+        return outboundCallLimiter
+                .dynamoDb(DynamoDbTables.TRACK_CONTENTS, Operation.WRITE, () -> dynamoDb.deleteItem(request))
+                .doOnNext(AwsSdkUtils::checkSdkResponse)
+                .then(this.deleteObject(fileKey))
+                .doOnSuccess(ignored -> log.info("Deleted unreferenced content {}", sha256));
+    }
+
+    private Mono<Void> deleteObject(String fileKey) {
+        DeleteObjectRequest request = DeleteObjectRequest.builder().bucket(bucket).key(fileKey).build();
+        return outboundCallLimiter.s3(bucket, Operation.WRITE, () -> s3AsyncClient.deleteObject(request))
+                .doOnNext(AwsSdkUtils::checkSdkResponse)
+                .then();
+    }
+
+    private Map<String, AttributeValue> key(String sha256) {
+        return Map.of(HASH_KEY, AttributeValue.fromS(sha256));
+    }
+
+    private AttributeValue reference(String trackId) {
+        return AttributeValue.fromSs(List.of(trackId));
+    }
+
+    private ResponseStatusException hashMismatch() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Uploaded content does not match its SHA-256");
+    }
+
+    public record StoredContent(String sha256, String fileKey, long size, boolean deduplicated) {
+    }
+
+    private static final class ContentUpload {
+
+        private final MessageDigest digest;
+        private long size;
+        private String sha256;
+        private StoredContent existing;
+
+        private ContentUpload() {
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private void update(DataBuffer dataBuffer) {
+            try (DataBuffer.ByteBufferIterator iterator = dataBuffer.readableByteBuffers()) {
+                while (iterator.hasNext()) {
+                    ByteBuffer buffer = iterator.next();
+                    size += buffer.remaining();
+                    digest.update(buffer);
+                }
+            }
+        }
+
+        private String sha256() {
+            if (sha256 == null) {
+                sha256 = HexFormat.of().formatHex(digest.digest());
+            }
+            return sha256;
+        }
+
+        private long size() {
+            return size;
+        }
+
+    }
+
+}
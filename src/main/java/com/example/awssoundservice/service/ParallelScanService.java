@@ -0,0 +1,157 @@
+package com.example.awssoundservice.service;
+
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter.Operation;
+import com.example.awssoundservice.common.utils.AwsSdkUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ParallelScanService {
+
+    private final DynamoDbAsyncClient dynamoDb;
+    private final OutboundCallLimiter outboundCallLimiter;
+    private final Map<String, Mono<Integer>> segmentEstimates = new ConcurrentHashMap<>();
+
+    @Value("${aws.dynamodb.scan.max-segments:16}")
+    private int maxSegments;
+
+    @Value("${aws.dynamodb.scan.bytes-per-segment:1GB}")
+    private DataSize bytesPerSegment;
+
+    @Value("${aws.dynamodb.scan.size-estimate-ttl:5m}")
+    private Duration sizeEstimateTtl;
+
+    @Value("${aws.dynamodb.scan.page-size:0}")
+    private int defaultPageSize;
+
+    @Value("${aws.dynamodb.scan.max-read-capacity-per-segment:0}")
+    private double defaultMaxReadCapacityPerSegment;
+
+    public Flux<Map<String, AttributeValue>> scan(String tableName) {
+        return this.scan(new ParallelScanRequest(tableName, null, null, null, null));
+    }
+
+    public Flux<Map<String, AttributeValue>> scan(String tableName, List<String> attributes) {
+        return this.scan(new ParallelScanRequest(tableName, null, attributes, null, null));
+    }
+
+    public Flux<Map<String, AttributeValue>> scan(ParallelScanRequest request) {
+        Mono<Integer> totalSegments = request.totalSegments() != null
+                ? Mono.just(Math.max(1, Math.min(request.totalSegments(), maxSegments)))
+                : this.estimateSegments(request.tableName());
+        return totalSegments.flatMapMany(segments -> Flux.range(0, segments)
+                .flatMap(segment -> this.scanSegment(request, segment, segments), segments)
+        );
+    }
+
+    public Mono<ScanResponse> page(
+            String tableName, List<String> attributes, int limit, Map<String, AttributeValue> exclusiveStartKey
+    ) {
+        ParallelScanRequest request = new ParallelScanRequest(tableName, 1, attributes, limit, null);
+        return this.scanPage(request, 0, 1, exclusiveStartKey, 0);
+    }
+
+    public Mono<Integer> estimateSegments(String tableName) {
+        return segmentEstimates.computeIfAbsent(tableName, table -> this.describeSegments(table)
+                .cache(segments -> sizeEstimateTtl, error -> Duration.ZERO, () -> Duration.ZERO));
+    }
+
+    private Mono<Integer> describeSegments(String tableName) {
+        DescribeTableRequest describeTableRequest = DescribeTableRequest.builder().tableName(tableName).build();
+        return outboundCallLimiter
+                .dynamoDb(tableName, Operation.READ, () -> dynamoDb.describeTable(describeTableRequest))
+                .map(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    Long tableSizeBytes = response.table().tableSizeBytes();
+                    if (tableSizeBytes == null || tableSizeBytes <= 0) {
+                        return 1;
+                    }
+                    long segments = (tableSizeBytes + bytesPerSegment.toBytes() - 1) / bytesPerSegment.toBytes();
+                    return (int) Math.max(1, Math.min(segments, maxSegments));
+                });
+    }
+
+    private Flux<Map<String, AttributeValue>> scanSegment(ParallelScanRequest request, int segment, int totalSegments) {
+        double maxReadCapacity = request.maxReadCapacityPerSegment() != null
+                ? request.maxReadCapacityPerSegment()
+                : defaultMaxReadCapacityPerSegment;
+        return this.scanPage(request, segment, totalSegments, null, maxReadCapacity)
+                .expand(response -> {
+                    if (!response.hasLastEvaluatedKey() || response.lastEvaluatedKey().isEmpty()) {
+                        return Mono.empty();
+                    }
+                    return this.scanPage(request, segment, totalSegments, response.lastEvaluatedKey(), maxReadCapacity)
+                            .delaySubscription(this.throttleDelay(response, maxReadCapacity));
+                })
+                .concatMapIterable(ScanResponse::items);
+    }
+
+    private Mono<ScanResponse> scanPage(
+            ParallelScanRequest request,
+            int segment,
+            int totalSegments,
+            Map<String, AttributeValue> exclusiveStartKey,
+            double maxReadCapacity
+    ) {
+        ScanRequest.Builder builder = ScanRequest.builder()
+                .tableName(request.tableName())
+                .segment(segment)
+                .totalSegments(totalSegments)
+                .exclusiveStartKey(exclusiveStartKey);
+        int pageSize = request.pageSize() != null ? request.pageSize() : defaultPageSize;
+        if (pageSize > 0) {
+            builder.limit(pageSize);
+        }
+        if (request.attributes() != null && !request.attributes().isEmpty()) {
+            Map<String, String> names = new HashMap<>();
+            StringJoiner projection = new StringJoiner(",");
+            for (int i = 0; i < request.attributes().size(); i++) {
+                String name = "#p" + i;
+                names.put(name, request.attributes().get(i));
+                projection.add(name);
+            }
+            builder.projectionExpression(projection.toString()).expressionAttributeNames(names);
+        }
+        if (maxReadCapacity > 0) {
+            builder.returnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        }
+        ScanRequest scanRequest = builder.build();
+        return outboundCallLimiter.dynamoDb(request.tableName(), Operation.SCAN, () -> dynamoDb.scan(scanRequest))
+                .doOnNext(AwsSdkUtils::checkSdkResponse);
+    }
+
+    private Duration throttleDelay(ScanResponse response, double maxReadCapacity) {
+        if (maxReadCapacity <= 0 || response.consumedCapacity() == null) {
+            return Duration.ZERO;
+        }
+        Double capacityUnits = response.consumedCapacity().capacityUnits();
+        if (capacityUnits == null || capacityUnits <= 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofMillis((long) (capacityUnits / maxReadCapacity * 1000));
+    }
+
+    public record ParallelScanRequest(
+            String tableName,
+            Integer totalSegments,
+            List<String> attributes,
+            Integer pageSize,
+            Double maxReadCapacityPerSegment
+    ) {
+    }
+
+}
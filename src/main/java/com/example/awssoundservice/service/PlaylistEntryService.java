@@ -0,0 +1,595 @@
+package com.example.awssoundservice.service;
+
+import com.example.awssoundservice.common.DynamoDbTables;
+import com.example.awssoundservice.common.cache.EntityCache;
+import com.example.awssoundservice.common.codec.AttributeCodecs;
+import com.example.awssoundservice.common.codec.ItemCodec;
+import com.example.awssoundservice.common.codec.PlaylistCodec;
+import com.example.awssoundservice.common.codec.PlaylistEntryCodec;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter.Operation;
+import com.example.awssoundservice.common.utils.AwsSdkUtils;
+import com.example.awssoundservice.model.Playlist;
+import com.example.awssoundservice.model.PlaylistEntry;
+import com.example.awssoundservice.model.Track;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PlaylistEntryService {
+
+    public static final BigDecimal POSITION_STEP = BigDecimal.valueOf(1024);
+    public static final int MAX_POSITION_PRECISION = 32;
+
+    private static final int MAX_TRANSACT_ITEMS = 100;
+    private static final int MAX_ENTRIES_PER_TRANSACTION = (MAX_TRANSACT_ITEMS - 1) / 2;
+    private static final int MAX_REMOVE_ATTEMPTS = 3;
+    private static final String CONDITIONAL_CHECK_FAILED = "ConditionalCheckFailed";
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+    private static final String REVISION = "revision";
+
+    private final DynamoDbAsyncClient dynamoDb;
+    private final OutboundCallLimiter outboundCallLimiter;
+    private final BatchWriteService batchWriteService;
+    private final EntityCache<Playlist> playlistCache;
+
+    @Value("${aws.dynamodb.playlist-entries.concurrency:8}")
+    private int concurrency;
+
+    public Mono<QueryResponse> page(String playlistId, Integer limit, Map<String, AttributeValue> exclusiveStartKey) {
+        return this.page(playlistId, limit, exclusiveStartKey, false);
+    }
+
+    public Flux<PlaylistEntry> findAll(String playlistId) {
+        return this.findAll(playlistId, false);
+    }
+
+    public Mono<List<PlaylistEntry>> findByTracks(String playlistId, Collection<String> trackIds) {
+        return Flux.fromIterable(new LinkedHashSet<>(trackIds))
+                .flatMapSequential(trackId -> this.findMember(playlistId, trackId), concurrency)
+                .collectList();
+    }
+
+    public Mono<Void> append(String playlistId, List<Track> tracks) {
+        if (tracks.isEmpty()) {
+            return this.transact(playlistId, List.of(), 0);
+        }
+        return this.lastPosition(playlistId).flatMapMany(last -> {
+            List<PlaylistEntry> entries = new ArrayList<>(tracks.size());
+            BigDecimal position = last;
+            for (Track track : tracks) {
+                position = position.add(POSITION_STEP);
+                entries.add(PlaylistEntry.of(playlistId, position, track));
+            }
+            return Flux.fromIterable(entries)
+                    .map(entry -> List.of(this.putEntry(entry), this.putMember(entry)))
+                    .buffer(MAX_ENTRIES_PER_TRANSACTION)
+                    .concatMap(batch -> this.transact(
+                            playlistId, batch.stream().flatMap(List::stream).toList(), batch.size()
+                    ));
+        }).then();
+    }
+
+    public Mono<Void> remove(String playlistId, List<PlaylistEntry> entries) {
+        if (entries.isEmpty()) {
+            return this.transact(playlistId, List.of(), 0);
+        }
+        return Flux.fromIterable(entries)
+                .map(entry -> List.of(this.deleteEntry(entry), this.deleteMember(entry)))
+                .buffer(MAX_ENTRIES_PER_TRANSACTION)
+                .concatMap(batch -> this.transact(
+                        playlistId, batch.stream().flatMap(List::stream).toList(), -batch.size()
+                ))
+                .then();
+    }
+
+    public Mono<Void> requireCurrentHeader(String playlistId) {
+        return this.transact(playlistId, List.of(), 0);
+    }
+
+    public Mono<Void> move(PlaylistEntry entry, BigDecimal position) {
+        return this.findEntry(entry.playlistId(), entry.position())
+                .filter(current -> current.trackId().equals(entry.trackId()))
+                .switchIfEmpty(Mono.error(
+                        () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Track is not in playlist")
+                ))
+                .flatMap(current -> {
+                    PlaylistEntry moved = new PlaylistEntry(
+                            current.playlistId(), position, current.trackId(),
+                            current.name(), current.fileKey(), current.fileUrl()
+                    );
+                    Map<String, AttributeValue> trackId = Map.of(":trackId", AttributeValue.fromS(current.trackId()));
+                    List<TransactWriteItem> writes = List.of(
+                            TransactWriteItem.builder().delete(Delete.builder()
+                                    .tableName(DynamoDbTables.PLAYLIST_ENTRIES)
+                                    .key(current.key())
+                                    .conditionExpression("trackId = :trackId")
+                                    .expressionAttributeValues(trackId)
+                                    .build()).build(),
+                            this.putEntry(moved),
+                            this.moveMember(current, position)
+                    );
+                    return this.transact(current.playlistId(), writes, 0);
+                });
+    }
+
+    public Mono<BigDecimal> positionAfter(String playlistId, BigDecimal after, BigDecimal excluded) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":pk", PlaylistEntryCodec.partitionKey(playlistId));
+        String keyCondition = "pk = :pk";
+        if (after != null) {
+            keyCondition += " AND #position > :after";
+            values.put(":after", AttributeCodecs.number(after));
+        }
+        QueryRequest request = QueryRequest.builder()
+                .tableName(DynamoDbTables.PLAYLIST_ENTRIES)
+                .keyConditionExpression(keyCondition)
+                .projectionExpression("pk, #position")
+                .expressionAttributeNames(Map.of("#position", PlaylistEntryCodec.SORT_KEY))
+                .expressionAttributeValues(values)
+                .consistentRead(true)
+                .limit(2)
+                .build();
+        return outboundCallLimiter
+                .dynamoDb(DynamoDbTables.PLAYLIST_ENTRIES, Operation.QUERY, () -> dynamoDb.query(request))
+                .map(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    BigDecimal next = response.items().stream()
+                            .map(item -> AttributeCodecs.requireNumber(item, PlaylistEntryCodec.SORT_KEY))
+                            .filter(position -> position.compareTo(excluded) != 0)
+                            .findFirst()
+                            .orElse(null);
+                    if (after == null) {
+                        return next != null ? next.subtract(POSITION_STEP) : POSITION_STEP;
+                    }
+                    return next != null ? after.add(next).divide(TWO) : after.add(POSITION_STEP);
+                });
+    }
+
+    public Mono<Void> writeAll(String playlistId, List<Track> tracks) {
+        List<Map<String, AttributeValue>> items = new ArrayList<>(tracks.size() * 2);
+        for (int i = 0; i < tracks.size(); i++) {
+            BigDecimal position = POSITION_STEP.multiply(BigDecimal.valueOf(i + 1L));
+            PlaylistEntry entry = PlaylistEntry.of(playlistId, position, tracks.get(i));
+            items.add(entry.toMap());
+            items.add(entry.toMemberMap());
+        }
+        return this.checkWrites(batchWriteService.putAll(DynamoDbTables.PLAYLIST_ENTRIES, Flux.fromIterable(items)));
+    }
+
+    public Mono<Void> rebalance(String playlistId) {
+        return this.revision(playlistId)
+                .flatMap(revision -> this.findAll(playlistId, true).collectList().flatMap(entries -> this.rewrite(
+                        playlistId, entries, entries.stream().map(PlaylistEntry::toTrack).toList(), null, revision
+                )))
+                .doOnSuccess(ignored -> log.info("Rebalanced positions of playlist {}", playlistId));
+    }
+
+    public Mono<Void> replace(String playlistId, String name, List<Track> tracks) {
+        return this.revision(playlistId)
+                .flatMap(revision -> this.findAll(playlistId, true).collectList()
+                        .flatMap(entries -> this.rewrite(playlistId, entries, tracks, name, revision)));
+    }
+
+    public Mono<Void> deleteAll(String playlistId) {
+        Flux<Map<String, AttributeValue>> keys = this.findAll(playlistId, true)
+                .flatMapIterable(entry -> List.of(entry.key(), entry.memberKey()))
+                .distinct();
+        return this.checkWrites(batchWriteService.deleteAll(DynamoDbTables.PLAYLIST_ENTRIES, keys));
+    }
+
+    public Mono<Integer> indexMembers(String playlistId) {
+        return this.findAll(playlistId, true).collectList().flatMap(entries -> {
+            Set<String> seen = new HashSet<>();
+            List<Map<String, AttributeValue>> members = new ArrayList<>();
+            List<Map<String, AttributeValue>> duplicates = new ArrayList<>();
+            for (PlaylistEntry entry : entries) {
+                if (seen.add(entry.trackId())) {
+                    members.add(entry.toMemberMap());
+                } else {
+                    duplicates.add(entry.key());
+                }
+            }
+            return this.checkWrites(batchWriteService.deleteAll(
+                            DynamoDbTables.PLAYLIST_ENTRIES, Flux.fromIterable(duplicates)
+                    ))
+                    .then(this.checkWrites(batchWriteService.putAll(
+                            DynamoDbTables.PLAYLIST_ENTRIES, Flux.fromIterable(members)
+                    )))
+                    .thenReturn(members.size());
+        });
+    }
+
+    public Mono<Void> refreshTrack(Track track) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":name", AttributeCodecs.string(track.name()));
+        values.put(":fileKey", AttributeCodecs.string(track.fileKey()));
+        values.put(":fileUrl", AttributeCodecs.string(track.fileUrl()));
+        return this.findByTrack(track.uid(), null)
+                .flatMap(entry -> {
+                    UpdateItemRequest request = UpdateItemRequest.builder()
+                            .tableName(DynamoDbTables.PLAYLIST_ENTRIES)
+                            .key(entry.key())
+                            .updateExpression("SET #name = :name, fileKey = :fileKey, fileUrl = :fileUrl")
+                            .conditionExpression("attribute_exists(pk)")
+                            .expressionAttributeNames(Map.of("#name", "name"))
+                            .expressionAttributeValues(values)
+                            .build();
+                    return outboundCallLimiter
+                            .dynamoDb(
+                                    DynamoDbTables.PLAYLIST_ENTRIES, Operation.WRITE, () -> dynamoDb.updateItem(request)
+                            )
+                            .doOnNext(AwsSdkUtils::checkSdkResponse)
+                            .onErrorResume(ConditionalCheckFailedException.class, e -> Mono.empty());
+                }, concurrency)
+                .then();
+    }
+
+    public Mono<Void> removeTrack(String trackId) {
+        return this.findByTrack(trackId, null)
+                .map(PlaylistEntry::playlistId)
+                .distinct()
+                .flatMap(playlistId -> this.removeTrack(playlistId, trackId, 1), concurrency)
+                .then();
+    }
+
+    private Mono<QueryResponse> page(
+            String playlistId, Integer limit, Map<String, AttributeValue> exclusiveStartKey, boolean consistent
+    ) {
+        QueryRequest request = QueryRequest.builder()
+                .tableName(DynamoDbTables.PLAYLIST_ENTRIES)
+                .keyConditionExpression("pk = :pk")
+                .expressionAttributeValues(Map.of(":pk", PlaylistEntryCodec.partitionKey(playlistId)))
+                .limit(limit)
+                .exclusiveStartKey(exclusiveStartKey)
+                .consistentRead(consistent)
+                .build();
+        return outboundCallLimiter
+                .dynamoDb(DynamoDbTables.PLAYLIST_ENTRIES, Operation.QUERY, () -> dynamoDb.query(request))
+                .doOnNext(AwsSdkUtils::checkSdkResponse);
+    }
+
+    private Flux<PlaylistEntry> findAll(String playlistId, boolean consistent) {
+        return this.page(playlistId, null, null, consistent)
+                .expand(response -> this.hasMore(response)
+                        ? this.page(playlistId, null, response.lastEvaluatedKey(), consistent)
+                        : Mono.empty())
+                .flatMapIterable(QueryResponse::items)
+                .map(PlaylistEntry::from);
+    }
+
+    private Mono<Long> revision(String playlistId) {
+        GetItemRequest request = GetItemRequest.builder()
+                .tableName(DynamoDbTables.PLAYLISTS)
+                .key(Map.of("uid", AttributeValue.fromS(playlistId)))
+                .projectionExpression("uid, " + REVISION)
+                .consistentRead(true)
+                .build();
+        return outboundCallLimiter.dynamoDb(DynamoDbTables.PLAYLISTS, Operation.READ, () -> dynamoDb.getItem(request))
+                .flatMap(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    return response.hasItem() && !response.item().isEmpty()
+                            ? Mono.just(AttributeCodecs.getLong(response.item(), REVISION, 0))
+                            : Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Playlist not found"));
+                });
+    }
+
+    private Mono<Void> rewrite(
+            String playlistId, List<PlaylistEntry> current, List<Track> tracks, String name, long revision
+    ) {
+        Map<String, Deque<PlaylistEntry>> previousByTrack = new HashMap<>();
+        BigDecimal base = BigDecimal.ZERO;
+        for (PlaylistEntry entry : current) {
+            previousByTrack.computeIfAbsent(entry.trackId(), trackId -> new ArrayDeque<>()).add(entry);
+            base = base.max(entry.position().setScale(0, RoundingMode.FLOOR));
+        }
+        List<EntryChange> changes = new ArrayList<>(current.size() + tracks.size());
+        for (int i = 0; i < tracks.size(); i++) {
+            Track track = tracks.get(i);
+            Deque<PlaylistEntry> previous = previousByTrack.get(track.uid());
+            BigDecimal position = base.add(POSITION_STEP.multiply(BigDecimal.valueOf(i + 1L)));
+            changes.add(this.place(PlaylistEntry.of(playlistId, position, track),
+                    previous != null ? previous.pollFirst() : null));
+        }
+        Collections.reverse(changes);
+        previousByTrack.values().forEach(remaining -> remaining.forEach(entry -> changes.add(this.drop(entry))));
+        List<List<EntryChange>> chunks = new ArrayList<>();
+        List<EntryChange> chunk = new ArrayList<>();
+        int chunkWrites = 0;
+        for (EntryChange change : changes) {
+            if (chunkWrites + change.writes().size() > MAX_TRANSACT_ITEMS - 1) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                chunkWrites = 0;
+            }
+            chunk.add(change);
+            chunkWrites += change.writes().size();
+        }
+        chunks.add(chunk);
+        return Flux.range(0, chunks.size())
+                .concatMap(index -> {
+                    List<EntryChange> batch = chunks.get(index);
+                    List<TransactWriteItem> writes = batch.stream()
+                            .flatMap(change -> change.writes().stream())
+                            .toList();
+                    int countDelta = batch.stream().mapToInt(EntryChange::countDelta).sum();
+                    String newName = index == chunks.size() - 1 ? name : null;
+                    return this.transact(playlistId, writes, countDelta, revision + index, newName);
+                })
+                .then();
+    }
+
+    private EntryChange place(PlaylistEntry entry, PlaylistEntry previous) {
+        if (previous == null) {
+            return new EntryChange(List.of(this.putEntry(entry), this.putMember(entry)), 1);
+        }
+        return new EntryChange(List.of(
+                this.deleteEntry(previous), this.putEntry(entry), this.moveMember(previous, entry.position())
+        ), 0);
+    }
+
+    private EntryChange drop(PlaylistEntry entry) {
+        return new EntryChange(List.of(this.deleteEntry(entry), this.deleteMember(entry)), -1);
+    }
+
+    private TransactWriteItem putEntry(PlaylistEntry entry) {
+        return TransactWriteItem.builder().put(Put.builder()
+                .tableName(DynamoDbTables.PLAYLIST_ENTRIES)
+                .item(entry.toMap())
+                .conditionExpression("attribute_not_exists(pk)")
+                .build()).build();
+    }
+
+    private TransactWriteItem deleteEntry(PlaylistEntry entry) {
+        return TransactWriteItem.builder().delete(Delete.builder()
+                .tableName(DynamoDbTables.PLAYLIST_ENTRIES)
+                .key(entry.key())
+                .conditionExpression("attribute_exists(pk)")
+                .build()).build();
+    }
+
+    private TransactWriteItem putMember(PlaylistEntry entry) {
+        return TransactWriteItem.builder().put(Put.builder()
+                .tableName(DynamoDbTables.PLAYLIST_ENTRIES)
+                .item(entry.toMemberMap())
+                .conditionExpression("attribute_not_exists(pk)")
+                .build()).build();
+    }
+
+    private TransactWriteItem moveMember(PlaylistEntry entry, BigDecimal position) {
+        return TransactWriteItem.builder().update(Update.builder()
+                .tableName(DynamoDbTables.PLAYLIST_ENTRIES)
+                .key(entry.memberKey())
+                .updateExpression("SET #entryPosition = :position")
+                .conditionExpression("#entryPosition = :previous")
+                .expressionAttributeNames(Map.of("#entryPosition", PlaylistEntryCodec.ENTRY_POSITION))
+                .expressionAttributeValues(Map.of(
+                        ":position", AttributeCodecs.number(position),
+                        ":previous", AttributeCodecs.number(entry.position())
+                ))
+                .build()).build();
+    }
+
+    private TransactWriteItem deleteMember(PlaylistEntry entry) {
+        return TransactWriteItem.builder().delete(Delete.builder()
+                .tableName(DynamoDbTables.PLAYLIST_ENTRIES)
+                .key(entry.memberKey())
+                .conditionExpression("#entryPosition = :position")
+                .expressionAttributeNames(Map.of("#entryPosition", PlaylistEntryCodec.ENTRY_POSITION))
+                .expressionAttributeValues(Map.of(":position", AttributeCodecs.number(entry.position())))
+                .build()).build();
+    }
+
+    private Mono<Void> removeTrack(String playlistId, String trackId, int attempt) {
+        return this.findMember(playlistId, trackId)
+                .map(List::of)
+                .defaultIfEmpty(List.of())
+                .flatMap(members -> this.remove(playlistId, members))
+                .onErrorResume(TransactionCanceledException.class, e -> {
+                    if (this.headerRejected(e)) {
+                        return this.deleteOrphans(playlistId, trackId);
+                    }
+                    return attempt < MAX_REMOVE_ATTEMPTS
+                            ? this.removeTrack(playlistId, trackId, attempt + 1)
+                            : Mono.error(e);
+                });
+    }
+
+    private boolean headerRejected(TransactionCanceledException e) {
+        return e.hasCancellationReasons()
+                && !e.cancellationReasons().isEmpty()
+                && CONDITIONAL_CHECK_FAILED.equals(e.cancellationReasons().getLast().code());
+    }
+
+    private Mono<Void> deleteOrphans(String playlistId, String trackId) {
+        Flux<Map<String, AttributeValue>> keys = this.findByTrack(trackId, playlistId)
+                .flatMapIterable(entry -> List.of(entry.key(), entry.memberKey()))
+                .distinct();
+        return this.checkWrites(batchWriteService.deleteAll(DynamoDbTables.PLAYLIST_ENTRIES, keys))
+                .doOnSuccess(ignored -> log.info("Deleted orphaned entries of track {} in {}", trackId, playlistId));
+    }
+
+    private Mono<PlaylistEntry> findMember(String playlistId, String trackId) {
+        GetItemRequest request = GetItemRequest.builder()
+                .tableName(DynamoDbTables.PLAYLIST_ENTRIES)
+                .key(PlaylistEntryCodec.memberKey(playlistId, trackId))
+                .consistentRead(true)
+                .build();
+        return outboundCallLimiter
+                .dynamoDb(DynamoDbTables.PLAYLIST_ENTRIES, Operation.READ, () -> dynamoDb.getItem(request))
+                .flatMap(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    return response.hasItem() && !response.item().isEmpty()
+                            ? Mono.just(PlaylistEntryCodec.decodeMember(playlistId, trackId, response.item()))
+                            : Mono.empty();
+                });
+    }
+
+    private Mono<PlaylistEntry> findEntry(String playlistId, BigDecimal position) {
+        GetItemRequest request = GetItemRequest.builder()
+                .tableName(DynamoDbTables.PLAYLIST_ENTRIES)
+                .key(PlaylistEntryCodec.key(playlistId, position))
+                .consistentRead(true)
+                .build();
+        return outboundCallLimiter
+                .dynamoDb(DynamoDbTables.PLAYLIST_ENTRIES, Operation.READ, () -> dynamoDb.getItem(request))
+                .flatMap(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    return response.hasItem() && !response.item().isEmpty()
+                            ? Mono.just(PlaylistEntry.from(response.item()))
+                            : Mono.empty();
+                });
+    }
+
+    private Flux<PlaylistEntry> findByTrack(String trackId, String playlistId) {
+        return this.trackPage(trackId, playlistId, null)
+                .expand(response -> this.hasMore(response)
+                        ? this.trackPage(trackId, playlistId, response.lastEvaluatedKey())
+                        : Mono.empty())
+                .flatMapIterable(QueryResponse::items)
+                .map(PlaylistEntry::from);
+    }
+
+    private Mono<QueryResponse> trackPage(
+            String trackId, String playlistId, Map<String, AttributeValue> exclusiveStartKey
+    ) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":trackId", AttributeValue.fromS(trackId));
+        String keyCondition = "trackId = :trackId";
+        if (playlistId != null) {
+            keyCondition += " AND pk = :pk";
+            values.put(":pk", PlaylistEntryCodec.partitionKey(playlistId));
+        }
+        QueryRequest request = QueryRequest.builder()
+                .tableName(DynamoDbTables.PLAYLIST_ENTRIES)
+                .indexName(DynamoDbTables.PLAYLIST_ENTRIES_BY_TRACK)
+                .keyConditionExpression(keyCondition)
+                .expressionAttributeValues(values)
+                .exclusiveStartKey(exclusiveStartKey)
+                .build();
+        return outboundCallLimiter
+                .dynamoDb(DynamoDbTables.PLAYLIST_ENTRIES, Operation.QUERY, () -> dynamoDb.query(request))
+                .doOnNext(AwsSdkUtils::checkSdkResponse);
+    }
+
+    private Mono<BigDecimal> lastPosition(String playlistId) {
+        QueryRequest request = QueryRequest.builder()
+                .tableName(DynamoDbTables.PLAYLIST_ENTRIES)
+                .keyConditionExpression("pk = :pk")
+                .expressionAttributeValues(Map.of(":pk", PlaylistEntryCodec.partitionKey(playlistId)))
+                .projectionExpression("pk, #position")
+                .expressionAttributeNames(Map.of("#position", PlaylistEntryCodec.SORT_KEY))
+                .scanIndexForward(false)
+                .consistentRead(true)
+                .limit(1)
+                .build();
+        return outboundCallLimiter
+                .dynamoDb(DynamoDbTables.PLAYLIST_ENTRIES, Operation.QUERY, () -> dynamoDb.query(request))
+                .map(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    return response.items().isEmpty()
+                            ? BigDecimal.ZERO
+                            : AttributeCodecs.requireNumber(response.items().getFirst(), PlaylistEntryCodec.SORT_KEY);
+                });
+    }
+
+    private Mono<Void> transact(String playlistId, List<TransactWriteItem> entryWrites, int countDelta) {
+        return this.transact(playlistId, entryWrites, countDelta, null, null);
+    }
+
+    private Mono<Void> transact(
+            String playlistId, List<TransactWriteItem> entryWrites, int countDelta, Long expectedRevision, String name
+    ) {
+        Map<String, AttributeValue> headerKey = Map.of("uid", AttributeValue.fromS(playlistId));
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        names.put("#v", ItemCodec.SCHEMA_VERSION);
+        values.put(":version", PlaylistCodec.CURRENT_SCHEMA_VERSION_VALUE);
+        String condition = "#v = :version";
+        if (expectedRevision != null && expectedRevision == 0) {
+            condition += " AND attribute_not_exists(" + REVISION + ")";
+        } else if (expectedRevision != null) {
+            condition += " AND " + REVISION + " = :revision";
+            values.put(":revision", AttributeCodecs.number(expectedRevision));
+        }
+        TransactWriteItem header;
+        if (entryWrites.isEmpty() && countDelta == 0 && expectedRevision == null && name == null) {
+            header = TransactWriteItem.builder().conditionCheck(ConditionCheck.builder()
+                    .tableName(DynamoDbTables.PLAYLISTS)
+                    .key(headerKey)
+                    .conditionExpression(condition)
+                    .expressionAttributeNames(names)
+                    .expressionAttributeValues(values)
+                    .build()).build();
+        } else {
+            String updateExpression = "ADD " + REVISION + " :one";
+            values.put(":one", AttributeCodecs.number(1));
+            if (countDelta != 0) {
+                updateExpression += ", trackCount :delta";
+                values.put(":delta", AttributeCodecs.number(countDelta));
+            }
+            if (name != null) {
+                updateExpression += " SET #name = :name";
+                names.put("#name", "name");
+                values.put(":name", AttributeCodecs.string(name));
+            }
+            header = TransactWriteItem.builder().update(Update.builder()
+                    .tableName(DynamoDbTables.PLAYLISTS)
+                    .key(headerKey)
+                    .updateExpression(updateExpression)
+                    .conditionExpression(condition)
+                    .expressionAttributeNames(names)
+                    .expressionAttributeValues(values)
+                    .build()).build();
+        }
+        List<TransactWriteItem> items = new ArrayList<>(entryWrites.size() + 1);
+        items.addAll(entryWrites);
+        items.add(header);
+        TransactWriteItemsRequest request = TransactWriteItemsRequest.builder()
+                .transactItems(items)
+                .clientRequestToken(UUID.randomUUID().toString())
+                .build();
+        return outboundCallLimiter
+                .dynamoDb(
+                        DynamoDbTables.PLAYLIST_ENTRIES,
+                        Operation.TRANSACTION,
+                        () -> dynamoDb.transactWriteItems(request)
+                )
+                .doOnNext(AwsSdkUtils::checkSdkResponse)
+                .doOnSuccess(response -> {
+                    if (countDelta != 0 || name != null) {
+                        playlistCache.invalidate(playlistId);
+                    }
+                })
+                .then();
+    }
+
+    private Mono<Void> checkWrites(Flux<BatchWriteService.WriteResult> results) {
+        return results
+                .filter(result -> !result.isSuccess())
+                .next()
+                .flatMap(result -> Mono.<Void>error(result.error()));
+    }
+
+    private boolean hasMore(QueryResponse response) {
+        return response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty();
+    }
+
+    private record EntryChange(List<TransactWriteItem> writes, int countDelta) {
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.example.awssoundservice.service;
+
+import com.example.awssoundservice.common.DynamoDbTables;
+import com.example.awssoundservice.common.cache.EntityCache;
+import com.example.awssoundservice.common.codec.AttributeCodecs;
+import com.example.awssoundservice.common.codec.ItemCodec;
+import com.example.awssoundservice.common.codec.PlaylistCodec;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter.Operation;
+import com.example.awssoundservice.common.metrics.AwsCaller;
+import com.example.awssoundservice.common.utils.AwsSdkUtils;
+import com.example.awssoundservice.model.Playlist;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PlaylistMigrationService {
+
+    private final DynamoDbAsyncClient dynamoDb;
+    private final OutboundCallLimiter outboundCallLimiter;
+    private final TrackService trackService;
+    private final PlaylistEntryService playlistEntryService;
+    private final ParallelScanService parallelScanService;
+    private final EntityCache<Playlist> playlistCache;
+
+    @Value("${aws.dynamodb.playlist-entries.migration-concurrency:4}")
+    private int concurrency;
+
+    public Flux<String> migrateAll() {
+        return parallelScanService.scan(DynamoDbTables.PLAYLISTS, List.of("uid", ItemCodec.SCHEMA_VERSION))
+                .filter(item -> !PlaylistCodec.isCurrent(item))
+                .map(item -> item.get("uid").s())
+                .flatMap(uid -> this.migrate(uid)
+                        .filter(Boolean::booleanValue)
+                        .map(migrated -> uid)
+                        .onErrorResume(error -> {
+                            log.warn("Failed to migrate playlist {}", uid, error);
+                            return Mono.empty();
+                        }), concurrency)
+                .contextWrite(AwsCaller.of("PlaylistMigrationService.migrateAll"));
+    }
+
+    public Mono<Boolean> migrate(String playlistId) {
+        GetItemRequest request = GetItemRequest.builder()
+                .tableName(DynamoDbTables.PLAYLISTS)
+                .key(Map.of("uid", AttributeValue.fromS(playlistId)))
+                .consistentRead(true)
+                .build();
+        return outboundCallLimiter.dynamoDb(
+                DynamoDbTables.PLAYLISTS, Operation.READ, () -> dynamoDb.getItem(request)
+        ).flatMap(response -> {
+            AwsSdkUtils.checkSdkResponse(response);
+            if (!response.hasItem() || response.item().isEmpty()) {
+                return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Playlist not found"));
+            }
+            if (PlaylistCodec.isCurrent(response.item())) {
+                return Mono.just(false);
+            }
+            Mono<Integer> trackCount = ItemCodec.schemaVersion(response.item()) >= PlaylistCodec.ENTRIES_SCHEMA_VERSION
+                    ? playlistEntryService.indexMembers(playlistId)
+                    : trackService.getByIds(PlaylistCodec.legacyTrackIds(response.item()))
+                            .flatMap(tracks -> playlistEntryService.writeAll(playlistId, tracks)
+                                    .thenReturn(tracks.size()));
+            return trackCount
+                    .flatMap(count -> this.markMigrated(playlistId, count))
+                    .doOnSuccess(migrated -> {
+                        playlistCache.invalidate(playlistId);
+                        if (Boolean.TRUE.equals(migrated)) {
+                            log.info("Migrated playlist {} to schema version {}", playlistId,
+                                    PlaylistCodec.CURRENT_SCHEMA_VERSION);
+                        }
+                    });
+        }).contextWrite(AwsCaller.of("PlaylistMigrationService.migrate"));
+    }
+
+    private Mono<Boolean> markMigrated(String playlistId, int trackCount) {
+        UpdateItemRequest request = UpdateItemRequest.builder()
+                .tableName(DynamoDbTables.PLAYLISTS)
+                .key(Map.of("uid", AttributeValue.fromS(playlistId)))
+                .updateExpression("SET trackCount = :trackCount, #v = :version REMOVE " + PlaylistCodec.LEGACY_TRACK_IDS)
+                .conditionExpression(
+                        "attribute_exists(uid) AND attribute_not_exists(#v) OR attribute_exists(uid) AND #v < :version"
+                )
+                .expressionAttributeNames(Map.of("#v", ItemCodec.SCHEMA_VERSION))
+                .expressionAttributeValues(Map.of(
+                        ":trackCount", AttributeCodecs.number(trackCount),
+                        ":version", PlaylistCodec.CURRENT_SCHEMA_VERSION_VALUE
+                ))
+                .build();
+        return outboundCallLimiter
+                .dynamoDb(DynamoDbTables.PLAYLISTS, Operation.WRITE, () -> dynamoDb.updateItem(request))
+                .map(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    return true;
+                })
+                .onErrorResume(ConditionalCheckFailedException.class, e -> Mono.just(false));
+    }
+
+}
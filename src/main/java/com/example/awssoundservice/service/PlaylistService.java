@@ -1,166 +1,289 @@
 package com.example.awssoundservice.service;
 
 import com.example.awssoundservice.common.DynamoDbTables;
+import com.example.awssoundservice.common.cache.EntityCache;
+import com.example.awssoundservice.common.codec.PlaylistCodec;
+import com.example.awssoundservice.common.concurrency.HedgedReads;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter.Operation;
+import com.example.awssoundservice.common.metrics.AwsCaller;
+import com.example.awssoundservice.common.pagination.CursorCodec;
 import com.example.awssoundservice.common.utils.AwsSdkUtils;
 import com.example.awssoundservice.model.Playlist;
+import com.example.awssoundservice.model.PlaylistEntry;
 import com.example.awssoundservice.model.Track;
 import com.example.awssoundservice.request.PlaylistAddTrackRequest;
 import com.example.awssoundservice.request.PlaylistCreateOrUpdateRequest;
+import com.example.awssoundservice.request.PlaylistMoveTrackRequest;
+import com.example.awssoundservice.request.PlaylistRemoveTrackRequest;
+import com.example.awssoundservice.response.PageResponse;
+import com.example.awssoundservice.response.PlaylistResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Repository;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.model.*;
 
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Repository
 @RequiredArgsConstructor
 public class PlaylistService {
 
+    private static final String CURSOR_SCOPE = "playlists";
+    private static final String TRACKS_CURSOR_SCOPE = "playlist-tracks/";
+
     private final DynamoDbAsyncClient dynamoDb;
+    private final OutboundCallLimiter outboundCallLimiter;
     private final TrackService trackService;
+    private final PlaylistEntryService playlistEntryService;
+    private final PlaylistMigrationService playlistMigrationService;
+    private final ParallelScanService parallelScanService;
+    private final EntityCache<Playlist> playlistCache;
+    private final BatchLoader<Playlist> playlistBatchLoader;
+    private final HedgedReads hedgedReads;
+    private final CursorCodec cursorCodec;
 
     public Mono<Playlist> findById(String uid) {
-        GetItemRequest request = GetItemRequest.builder()
-                .tableName(DynamoDbTables.PLAYLISTS)
-                .key(Map.of("uid", AttributeValue.builder().s(uid).build()))
-                .build();
-        CompletableFuture<GetItemResponse> responseFuture = dynamoDb.getItem(request);
-        return Mono.fromFuture(responseFuture)
-                .map(response -> {
-                    Map<String, AttributeValue> item = response.item();
-                    if (item.isEmpty()) {
-                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Playlist not found");
-                    }
-                    return item;
-                })
-                .map(Playlist::from);
+        return playlistCache.get(uid, this::loadById)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Playlist not found")))
+                .contextWrite(AwsCaller.of("PlaylistService.findById"));
     }
 
-    public Mono<List<Playlist>> findAll() {
-        ScanRequest request = ScanRequest.builder().tableName(DynamoDbTables.PLAYLISTS).build();
-        CompletableFuture<ScanResponse> responseFuture = dynamoDb.scan(request);
-        return Mono.fromFuture(responseFuture)
-                .map(ScanResponse::items)
-                .map(Playlist::fromList);
+    private Mono<Playlist> loadById(String uid) {
+        return hedgedReads.execute(
+                "playlist.findById", () -> playlistBatchLoader.load(uid), () -> playlistBatchLoader.loadSingle(uid)
+        );
     }
 
-    public Mono<Playlist> create(PlaylistCreateOrUpdateRequest request) {
-        Playlist playlist = new Playlist(
-                UUID.randomUUID().toString(),
-                request.name(),
-                request.trackIds()
-        );
-        PutItemRequest putItemRequest = PutItemRequest.builder()
-                .tableName(DynamoDbTables.PLAYLISTS)
-                .item(playlist.toMap())
-                .build();
-        CompletableFuture<PutItemResponse> responseFuture = dynamoDb.putItem(putItemRequest);
-        return Mono.fromFuture(responseFuture).map(response -> {
-            AwsSdkUtils.checkSdkResponse(response);
-            return playlist;
-        });
+    public Flux<Playlist> findAll() {
+        return parallelScanService.scan(DynamoDbTables.PLAYLISTS, PlaylistCodec.INSTANCE.attributes()).map(Playlist::from)
+                .contextWrite(AwsCaller.of("PlaylistService.findAll"));
     }
 
-    public Mono<Playlist> update(String uid, PlaylistCreateOrUpdateRequest request) {
-        Mono<Playlist> playlist = this.findById(uid);
-        return playlist.flatMap(currentPlaylist -> {
-            Playlist updatedPlaylist = new Playlist(
-                    currentPlaylist.uid(),
-                    request.name(),
-                    request.trackIds()
+    public Mono<PageResponse<Playlist>> findPage(int limit, String cursor) {
+        return Mono.defer(() -> {
+            Map<String, AttributeValue> startKey = cursor != null ? cursorCodec.decodeKey(CURSOR_SCOPE, cursor) : null;
+            return parallelScanService.page(
+                    DynamoDbTables.PLAYLISTS, PlaylistCodec.INSTANCE.attributes(), cursorCodec.pageSize(limit), startKey
             );
+        }).map(response -> new PageResponse<>(
+                response.items().stream().map(Playlist::from).toList(),
+                response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                        ? cursorCodec.encodeKey(CURSOR_SCOPE, response.lastEvaluatedKey())
+                        : null
+        )).contextWrite(AwsCaller.of("PlaylistService.findPage"));
+    }
+
+    public Mono<Playlist> create(PlaylistCreateOrUpdateRequest request) {
+        return this.resolveTracks(request.trackIds()).flatMap(tracks -> {
+            Playlist playlist = new Playlist(UUID.randomUUID().toString(), request.name(), tracks.size());
             PutItemRequest putItemRequest = PutItemRequest.builder()
                     .tableName(DynamoDbTables.PLAYLISTS)
-                    .item(updatedPlaylist.toMap())
+                    .item(playlist.toMap())
                     .build();
-            CompletableFuture<PutItemResponse> responseFuture = dynamoDb.putItem(putItemRequest);
-            return Mono.fromFuture(responseFuture).map(response -> {
-                AwsSdkUtils.checkSdkResponse(response);
-                return updatedPlaylist;
-            });
-        });
+            return outboundCallLimiter
+                    .dynamoDb(DynamoDbTables.PLAYLISTS, Operation.WRITE, () -> dynamoDb.putItem(putItemRequest))
+                    .doOnNext(AwsSdkUtils::checkSdkResponse)
+                    .then(Mono.defer(() -> playlistEntryService.writeAll(playlist.uid(), tracks)))
+                    .then(Mono.fromSupplier(() -> {
+                        playlistCache.put(playlist.uid(), playlist);
+                        return playlist;
+                    }));
+        }).contextWrite(AwsCaller.of("PlaylistService.create"));
+    }
+
+    public Mono<Playlist> update(String uid, PlaylistCreateOrUpdateRequest request) {
+        return this.resolveTracks(request.trackIds()).flatMap(tracks -> {
+            Mono<Void> replace = Mono.defer(() -> playlistEntryService.replace(uid, request.name(), tracks));
+            return this.retryAfterMigration(uid, replace).then(Mono.fromSupplier(() -> {
+                Playlist playlist = new Playlist(uid, request.name(), tracks.size());
+                playlistCache.put(uid, playlist);
+                return playlist;
+            }));
+        }).contextWrite(AwsCaller.of("PlaylistService.update"));
     }
 
     public Mono<Playlist> addTrackToPlaylist(PlaylistAddTrackRequest request) {
-        Mono<Playlist> playlist = this.findById(request.playlistId());
-        Mono<Track> track = trackService.getById(request.trackId());
-        return playlist.zipWith(track).flatMap(playlistAndTrack -> {
-            Playlist currentPlaylist = playlistAndTrack.getT1();
-            Track trackToAdd = playlistAndTrack.getT2();
-            ArrayList<String> newTrackIds = new ArrayList<>(currentPlaylist.trackIds());
-            newTrackIds.add(trackToAdd.uid());
-            PlaylistCreateOrUpdateRequest updateRequest = new PlaylistCreateOrUpdateRequest(
-                    currentPlaylist.name(),
-                    newTrackIds
-            );
-            return this.update(currentPlaylist.uid(), updateRequest);
+        return this.addTracksToPlaylist(request.playlistId(), List.of(request.trackId()));
+    }
+
+    public Mono<Playlist> removeTrackFromPlaylist(PlaylistRemoveTrackRequest request) {
+        return this.removeTracksFromPlaylist(request.playlistId(), List.of(request.trackId()));
+    }
+
+    public Mono<Playlist> addTracksToPlaylist(String playlistId, List<String> trackIds) {
+        if (trackIds == null || trackIds.isEmpty()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Track ids must not be empty"));
+        }
+        Mono<Void> append = Mono.defer(() -> playlistEntryService.findByTracks(playlistId, trackIds)
+                .flatMap(existing -> {
+                    Set<String> present = existing.stream().map(PlaylistEntry::trackId).collect(Collectors.toSet());
+                    List<String> added = trackIds.stream().distinct().filter(trackId -> !present.contains(trackId)).toList();
+                    return this.resolveTracks(added);
+                })
+                .flatMap(tracks -> playlistEntryService.append(playlistId, tracks)));
+        return this.retryAfterMigration(playlistId, append).then(Mono.defer(() -> this.findById(playlistId)))
+                .contextWrite(AwsCaller.of("PlaylistService.addTracksToPlaylist"));
+    }
+
+    public Mono<Playlist> removeTracksFromPlaylist(String playlistId, List<String> trackIds) {
+        if (trackIds == null || trackIds.isEmpty()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Track ids must not be empty"));
+        }
+        Mono<Void> remove = Mono.defer(() -> playlistEntryService.findByTracks(playlistId, trackIds)
+                .flatMap(entries -> playlistEntryService.remove(playlistId, entries)));
+        return this.retryAfterMigration(playlistId, remove).then(Mono.defer(() -> this.findById(playlistId)))
+                .contextWrite(AwsCaller.of("PlaylistService.removeTracksFromPlaylist"));
+    }
+
+    public Mono<Playlist> moveTrack(String playlistId, PlaylistMoveTrackRequest request) {
+        String trackId = request.trackId();
+        String afterTrackId = request.afterTrackId();
+        if (trackId == null || trackId.isBlank()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Track id must not be empty"));
+        }
+        if (trackId.equals(afterTrackId)) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Track cannot follow itself"));
+        }
+        Mono<Void> move = Mono.defer(() -> this.moveEntry(playlistId, trackId, afterTrackId, true));
+        return this.retryAfterMigration(playlistId, move).then(Mono.defer(() -> this.findById(playlistId)))
+                .contextWrite(AwsCaller.of("PlaylistService.moveTrack"));
+    }
+
+    private Mono<Void> moveEntry(String playlistId, String trackId, String afterTrackId, boolean mayRebalance) {
+        List<String> trackIds = afterTrackId != null ? List.of(trackId, afterTrackId) : List.of(trackId);
+        return playlistEntryService.findByTracks(playlistId, trackIds).flatMap(entries -> {
+            Map<String, PlaylistEntry> entriesByTrack = new HashMap<>();
+            entries.forEach(entry -> entriesByTrack.putIfAbsent(entry.trackId(), entry));
+            PlaylistEntry moved = entriesByTrack.get(trackId);
+            PlaylistEntry after = afterTrackId != null ? entriesByTrack.get(afterTrackId) : null;
+            if (moved == null || (afterTrackId != null && after == null)) {
+                return playlistEntryService.requireCurrentHeader(playlistId).then(Mono.<Void>error(
+                        () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Track is not in playlist")
+                ));
+            }
+            return playlistEntryService.positionAfter(
+                    playlistId, after != null ? after.position() : null, moved.position()
+            ).flatMap(position -> {
+                if (position.precision() <= PlaylistEntryService.MAX_POSITION_PRECISION) {
+                    return playlistEntryService.move(moved, position);
+                }
+                if (!mayRebalance) {
+                    return Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "Playlist was modified concurrently"));
+                }
+                return playlistEntryService.rebalance(playlistId)
+                        .then(Mono.defer(() -> this.moveEntry(playlistId, trackId, afterTrackId, false)));
+            });
         });
     }
 
-    public Mono<Playlist> delete(String uid) {
-        Mono<Playlist> currentPlaylistMono = this.findById(uid.strip());
-        return currentPlaylistMono.flatMap(currentPlaylist -> {
-            DeleteItemRequest request = DeleteItemRequest.builder()
-                    .tableName(DynamoDbTables.PLAYLISTS)
-                    .key(Map.of("uid", AttributeValue.builder().s(currentPlaylist.uid()).build()))
-                    .build();
-            CompletableFuture<DeleteItemResponse> responseFuture = dynamoDb.deleteItem(request);
-            return Mono.fromFuture(responseFuture).map(__ -> currentPlaylist);
+    private Mono<List<Track>> resolveTracks(List<String> requestedIds) {
+        List<String> trackIds = Objects.requireNonNullElse(requestedIds, List.<String>of()).stream().distinct().toList();
+        if (trackIds.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return trackService.getByIds(trackIds).flatMap(tracks -> {
+            if (tracks.size() == trackIds.size()) {
+                return Mono.just(tracks);
+            }
+            Set<String> found = tracks.stream().map(Track::uid).collect(Collectors.toSet());
+            String missingIds = trackIds.stream().filter(trackId -> !found.contains(trackId)).collect(Collectors.joining(", "));
+            return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Tracks not found: " + missingIds));
         });
     }
 
-    public Mono<Boolean> existsById(String uid) {
-        GetItemRequest request = GetItemRequest.builder()
+    private <T> Mono<T> retryAfterMigration(String playlistId, Mono<T> operation) {
+        return operation
+                .onErrorResume(
+                        TransactionCanceledException.class,
+                        e -> playlistMigrationService.migrate(playlistId).then(operation)
+                )
+                .onErrorMap(
+                        TransactionCanceledException.class,
+                        e -> new ResponseStatusException(HttpStatus.CONFLICT, "Playlist was modified concurrently")
+                );
+    }
+
+    public Mono<PlaylistResponse> delete(String uid) {
+        DeleteItemRequest request = DeleteItemRequest.builder()
                 .tableName(DynamoDbTables.PLAYLISTS)
-                .key(Map.of("uid", AttributeValue.builder().s(uid).build()))
+                .key(Map.of("uid", AttributeValue.builder().s(uid.strip()).build()))
+                .conditionExpression("attribute_exists(uid)")
+                .returnValues(ReturnValue.ALL_OLD)
                 .build();
-        CompletableFuture<GetItemResponse> responseFuture = dynamoDb.getItem(request);
-        return Mono.fromFuture(responseFuture)
-                .map(GetItemResponse::item)
-                .map(item -> !item.isEmpty());
+        return outboundCallLimiter
+                .dynamoDb(DynamoDbTables.PLAYLISTS, Operation.WRITE, () -> dynamoDb.deleteItem(request))
+                .map(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    Playlist deletedPlaylist = Playlist.from(response.attributes());
+                    playlistCache.invalidate(deletedPlaylist.uid());
+                    return deletedPlaylist;
+                })
+                .onErrorMap(
+                        ConditionalCheckFailedException.class,
+                        e -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Playlist not found")
+                )
+                .flatMap(deletedPlaylist -> playlistEntryService.findAll(deletedPlaylist.uid())
+                        .map(PlaylistEntry::trackId)
+                        .collectList()
+                        .flatMap(trackIds -> playlistEntryService.deleteAll(deletedPlaylist.uid())
+                                .thenReturn(PlaylistResponse.of(deletedPlaylist, trackIds))))
+                .contextWrite(AwsCaller.of("PlaylistService.delete"));
+    }
+
+    public Mono<Boolean> existsById(String uid) {
+        return playlistCache.get(uid, this::loadById).hasElement()
+                .contextWrite(AwsCaller.of("PlaylistService.existsById"));
+    }
+
+    public Mono<PlaylistResponse> describe(Playlist playlist) {
+        return this.readEntries(
+                playlist,
+                () -> playlistEntryService.findAll(playlist.uid()).map(PlaylistEntry::trackId).collectList(),
+                List::isEmpty
+        ).map(trackIds -> PlaylistResponse.of(playlist, trackIds))
+                .contextWrite(AwsCaller.of("PlaylistService.describe"));
     }
 
     public Mono<List<Track>> getTracksByPlaylistId(String playlistId) {
-        Mono<Playlist> playlistMono = this.findById(playlistId);
-        return playlistMono.flatMap(playlist -> {
-            List<String> trackIds = playlist.trackIds();
-            ScanRequest scanRequest = ScanRequest.builder()
-                    .tableName(DynamoDbTables.TRACKS)
-                    .filterExpression(this.buildFilterExpression(trackIds))
-                    .expressionAttributeValues(this.buildFilterExpressionValues(trackIds))
-                    .build();
-            return Mono.fromFuture(dynamoDb.scan(scanRequest));
-        }).map(scanResponse -> {
-            AwsSdkUtils.checkSdkResponse(scanResponse);
-            List<Map<String, AttributeValue>> items = scanResponse.items();
-            return Track.fromList(items);
-        });
+        return this.findById(playlistId).flatMap(playlist -> this.readEntries(
+                playlist,
+                () -> playlistEntryService.findAll(playlistId).map(PlaylistEntry::toTrack).collectList(),
+                List::isEmpty
+        )).contextWrite(AwsCaller.of("PlaylistService.getTracksByPlaylistId"));
     }
 
-    private String buildFilterExpression(List<String> trackIds) {
-        List<String> names = new ArrayList<>();
-        for (int i = 0; i < trackIds.size(); i++) {
-            names.add(":trackId%d".formatted(i + 1));
-        }
-        String namesJoined = String.join(", ", names);
-        return "uid IN (%s)".formatted(namesJoined);
+    public Mono<PageResponse<Track>> getTracksPageByPlaylistId(String playlistId, int limit, String cursor) {
+        String scope = TRACKS_CURSOR_SCOPE + playlistId;
+        return Mono.defer(() -> {
+            Map<String, AttributeValue> startKey = cursor != null ? cursorCodec.decodeKey(scope, cursor) : null;
+            int pageSize = cursorCodec.pageSize(limit);
+            return this.findById(playlistId).flatMap(playlist -> this.readEntries(
+                    playlist,
+                    () -> playlistEntryService.page(playlistId, pageSize, startKey),
+                    response -> startKey == null && response.items().isEmpty()
+            ));
+        }).map(response -> new PageResponse<>(
+                response.items().stream().map(PlaylistEntry::from).map(PlaylistEntry::toTrack).toList(),
+                response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                        ? cursorCodec.encodeKey(scope, response.lastEvaluatedKey())
+                        : null
+        )).contextWrite(AwsCaller.of("PlaylistService.getTracksPageByPlaylistId"));
     }
 
-    private Map<String, AttributeValue> buildFilterExpressionValues(List<String> trackIds) {
-        Map<String, AttributeValue> result = new HashMap<>();
-        for (int i = 0; i < trackIds.size(); i++) {
-            String name = ":trackId%d".formatted(i + 1);
-            String value = trackIds.get(i);
-            result.put(name, AttributeValue.builder().s(value).build());
-        }
-        return result;
+    private <T> Mono<T> readEntries(Playlist playlist, Supplier<Mono<T>> read, Predicate<T> isEmpty) {
+        return read.get().flatMap(result -> playlist.trackCount() > 0 && isEmpty.test(result)
+                ? playlistMigrationService.migrate(playlist.uid()).flatMap(migrated -> migrated ? read.get() : Mono.just(result))
+                : Mono.just(result));
     }
 
 }
@@ -0,0 +1,285 @@
+package com.example.awssoundservice.service;
+
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter.Operation;
+import com.example.awssoundservice.common.metrics.AwsCaller;
+import com.example.awssoundservice.common.utils.AwsSdkUtils;
+import com.example.awssoundservice.common.utils.FileUtils;
+import com.example.awssoundservice.model.Track;
+import com.example.awssoundservice.request.TrackUploadCompleteRequest;
+import com.example.awssoundservice.request.TrackUploadUrlRequest;
+import com.example.awssoundservice.response.PresignedUploadResponse;
+import com.example.awssoundservice.response.PresignedUrlResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Slf4j
+@Service
+public class PresignedUrlService implements DisposableBean {
+
+    private static final int MAX_PARTS = 10_000;
+
+    private final S3Presigner s3Presigner;
+    private final S3AsyncClient s3AsyncClient;
+    private final OutboundCallLimiter outboundCallLimiter;
+    private final TrackService trackService;
+    private final String bucket;
+    private final Duration uploadUrlTtl;
+    private final Duration downloadUrlTtl;
+    private final long multipartThreshold;
+    private final long partSize;
+    private final Duration abandonedUploadAge;
+    private final Duration abandonedUploadSweepInterval;
+    private final Cache<String, PresignedUrlResponse> downloadUrls;
+    private Disposable abandonedUploadSweep;
+
+    public PresignedUrlService(
+            S3Presigner s3Presigner,
+            S3AsyncClient s3AsyncClient,
+            OutboundCallLimiter outboundCallLimiter,
+            TrackService trackService,
+            @Value("${aws.s3.track-bucket}") String bucket,
+            @Value("${aws.s3.presign.upload-ttl:15m}") Duration uploadUrlTtl,
+            @Value("${aws.s3.presign.download-ttl:1h}") Duration downloadUrlTtl,
+            @Value("${aws.s3.presign.download-refresh-margin:5m}") Duration downloadRefreshMargin,
+            @Value("${aws.s3.presign.multipart-threshold:64MB}") DataSize multipartThreshold,
+            @Value("${aws.s3.presign.part-size:16MB}") DataSize partSize,
+            @Value("${aws.s3.presign.cache-size:10000}") long cacheSize,
+            @Value("${aws.s3.presign.abandoned-upload-age:24h}") Duration abandonedUploadAge,
+            @Value("${aws.s3.presign.abandoned-upload-sweep-interval:1h}") Duration abandonedUploadSweepInterval
+    ) {
+        if (downloadRefreshMargin.isNegative() || downloadRefreshMargin.compareTo(downloadUrlTtl) >= 0) {
+            throw new IllegalArgumentException(
+                    "aws.s3.presign.download-refresh-margin must be non-negative and shorter than download-ttl"
+            );
+        }
+        this.s3Presigner = s3Presigner;
+        this.s3AsyncClient = s3AsyncClient;
+        this.outboundCallLimiter = outboundCallLimiter;
+        this.trackService = trackService;
+        this.bucket = bucket;
+        this.uploadUrlTtl = uploadUrlTtl;
+        this.downloadUrlTtl = downloadUrlTtl;
+        this.multipartThreshold = multipartThreshold.toBytes();
+        this.partSize = partSize.toBytes();
+        this.abandonedUploadAge = abandonedUploadAge;
+        this.abandonedUploadSweepInterval = abandonedUploadSweepInterval;
+        this.downloadUrls = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(downloadUrlTtl.minus(downloadRefreshMargin))
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startAbandonedUploadSweep() {
+        if (abandonedUploadSweepInterval.isZero() || abandonedUploadSweepInterval.isNegative()) {
+            return;
+        }
+        abandonedUploadSweep = Flux.interval(Duration.ZERO, abandonedUploadSweepInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> this.abortAbandonedUploads()
+                        .onErrorResume(error -> {
+                            log.warn("Failed to abort abandoned multipart uploads in {}", bucket, error);
+                            return Mono.empty();
+                        }))
+                .subscribe(aborted -> {
+                    if (aborted > 0) {
+                        log.info("Aborted {} abandoned multipart uploads in {}", aborted, bucket);
+                    }
+                });
+    }
+
+    @Override
+    public void destroy() {
+        if (abandonedUploadSweep != null) {
+            abandonedUploadSweep.dispose();
+        }
+    }
+
+    public Mono<Long> abortAbandonedUploads() {
+        return Mono.defer(() -> this.abandonedUploads(Instant.now().minus(abandonedUploadAge), null, null)
+                        .concatMap(upload -> this.abortUpload(upload.key(), upload.uploadId()).thenReturn(upload))
+                        .count())
+                .contextWrite(AwsCaller.of("PresignedUrlService.abortAbandonedUploads"));
+    }
+
+    public Mono<PresignedUploadResponse> createUploadUrl(String trackId, TrackUploadUrlRequest request) {
+        return Mono.fromCallable(() -> trackId + "/" + FileUtils.safeFileName(request.filename()))
+                .flatMap(fileKey -> trackService.getById(trackId)
+                        .flatMap(track -> this.createUploadUrlForKey(fileKey, request)))
+                .contextWrite(AwsCaller.of("PresignedUrlService.createUploadUrl"));
+    }
+
+    public Mono<Track> completeUpload(String trackId, TrackUploadCompleteRequest request) {
+        if (request.fileKey() == null || !request.fileKey().startsWith(trackId + "/")) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "File key does not belong to track"));
+        }
+        if (request.uploadId() == null) {
+            HeadObjectRequest headObjectRequest = HeadObjectRequest.builder().bucket(bucket).key(request.fileKey()).build();
+            return outboundCallLimiter.s3(bucket, Operation.READ, () -> s3AsyncClient.headObject(headObjectRequest))
+                    .onErrorMap(
+                            e -> e instanceof S3Exception s3Exception && s3Exception.statusCode() == 404,
+                            e -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Uploaded file not found")
+                    )
+                    .flatMap(response -> trackService.attachFile(trackId, request.fileKey()))
+                    .contextWrite(AwsCaller.of("PresignedUrlService.completeUpload"));
+        }
+        List<CompletedPart> parts = request.parts() == null ? List.of() : request.parts().stream()
+                .map(part -> CompletedPart.builder().partNumber(part.partNumber()).eTag(part.eTag()).build())
+                .sorted(Comparator.comparing(CompletedPart::partNumber))
+                .toList();
+        CompleteMultipartUploadRequest completeRequest = CompleteMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(request.fileKey())
+                .uploadId(request.uploadId())
+                .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                .build();
+        return outboundCallLimiter
+                .s3(bucket, Operation.WRITE, () -> s3AsyncClient.completeMultipartUpload(completeRequest))
+                .flatMap(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    return trackService.attachFile(trackId, request.fileKey());
+                })
+                .contextWrite(AwsCaller.of("PresignedUrlService.completeUpload"));
+    }
+
+    public Mono<PresignedUrlResponse> createDownloadUrl(String trackId) {
+        return trackService.getById(trackId).map(track -> {
+            if (track.fileKey() == null || track.fileKey().isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Track file not found");
+            }
+            return downloadUrls.get(track.fileKey(), this::presignDownload);
+        }).contextWrite(AwsCaller.of("PresignedUrlService.createDownloadUrl"));
+    }
+
+    private Mono<PresignedUploadResponse> createUploadUrlForKey(String fileKey, TrackUploadUrlRequest request) {
+        if (request.contentLength() != null && request.contentLength() > multipartThreshold) {
+            return this.createMultipartUploadUrls(fileKey, request);
+        }
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(fileKey)
+                .contentType(request.contentType())
+                .build();
+        PresignedPutObjectRequest presigned = s3Presigner.presignPutObject(PutObjectPresignRequest.builder()
+                .signatureDuration(uploadUrlTtl)
+                .putObjectRequest(putObjectRequest)
+                .build());
+        return Mono.just(new PresignedUploadResponse(
+                fileKey, null, presigned.url().toExternalForm(), null, null, presigned.expiration()
+        ));
+    }
+
+    private PresignedUrlResponse presignDownload(String fileKey) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder().bucket(bucket).key(fileKey).build();
+        PresignedGetObjectRequest presigned = s3Presigner.presignGetObject(GetObjectPresignRequest.builder()
+                .signatureDuration(downloadUrlTtl)
+                .getObjectRequest(getObjectRequest)
+                .build());
+        return new PresignedUrlResponse(presigned.url().toExternalForm(), presigned.expiration());
+    }
+
+    private Mono<PresignedUploadResponse> createMultipartUploadUrls(String fileKey, TrackUploadUrlRequest request) {
+        long effectivePartSize = Math.max(partSize, (request.contentLength() + MAX_PARTS - 1) / MAX_PARTS);
+        int partCount = (int) ((request.contentLength() + effectivePartSize - 1) / effectivePartSize);
+        CreateMultipartUploadRequest createRequest = CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(fileKey)
+                .contentType(request.contentType())
+                .build();
+        return outboundCallLimiter.s3(
+                bucket, Operation.WRITE, () -> s3AsyncClient.createMultipartUpload(createRequest)
+        ).flatMap(response -> {
+            AwsSdkUtils.checkSdkResponse(response);
+            return Mono.fromCallable(() -> this.presignUploadParts(
+                            fileKey, response.uploadId(), partCount, effectivePartSize
+                    ))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .onErrorResume(error -> this.abortUpload(fileKey, response.uploadId())
+                            .onErrorResume(abortError -> Mono.empty())
+                            .then(Mono.error(error)));
+        });
+    }
+
+    private PresignedUploadResponse presignUploadParts(
+            String fileKey, String uploadId, int partCount, long effectivePartSize
+    ) {
+        List<String> partUrls = new ArrayList<>(partCount);
+        PresignedUploadPartRequest presigned = null;
+        for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+            UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
+                    .bucket(bucket)
+                    .key(fileKey)
+                    .uploadId(uploadId)
+                    .partNumber(partNumber)
+                    .build();
+            presigned = s3Presigner.presignUploadPart(UploadPartPresignRequest.builder()
+                    .signatureDuration(uploadUrlTtl)
+                    .uploadPartRequest(uploadPartRequest)
+                    .build());
+            partUrls.add(presigned.url().toExternalForm());
+        }
+        return new PresignedUploadResponse(
+                fileKey, uploadId, null, effectivePartSize, partUrls, presigned.expiration()
+        );
+    }
+
+    private Flux<MultipartUpload> abandonedUploads(Instant initiatedBefore, String keyMarker, String uploadIdMarker) {
+        ListMultipartUploadsRequest listRequest = ListMultipartUploadsRequest.builder()
+                .bucket(bucket)
+                .keyMarker(keyMarker)
+                .uploadIdMarker(uploadIdMarker)
+                .build();
+        return outboundCallLimiter.s3(bucket, Operation.READ, () -> s3AsyncClient.listMultipartUploads(listRequest))
+                .flatMapMany(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    Flux<MultipartUpload> page = Flux.fromIterable(response.uploads())
+                            .filter(upload -> upload.initiated() != null
+                                    && !upload.initiated().isAfter(initiatedBefore));
+                    if (!Boolean.TRUE.equals(response.isTruncated())) {
+                        return page;
+                    }
+                    return page.concatWith(this.abandonedUploads(
+                            initiatedBefore, response.nextKeyMarker(), response.nextUploadIdMarker()
+                    ));
+                });
+    }
+
+    private Mono<Void> abortUpload(String fileKey, String uploadId) {
+        AbortMultipartUploadRequest abortRequest = AbortMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(fileKey)
+                .uploadId(uploadId)
+                .build();
+        return outboundCallLimiter.s3(bucket, Operation.WRITE, () -> s3AsyncClient.abortMultipartUpload(abortRequest))
+                .onErrorResume(
+                        e -> e instanceof S3Exception s3Exception && s3Exception.statusCode() == 404,
+                        e -> Mono.empty()
+                )
+                .then();
+    }
+
+}
@@ -0,0 +1,158 @@
+package com.example.awssoundservice.service;
+
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter.Operation;
+import com.example.awssoundservice.common.utils.AwsSdkUtils;
+import com.example.awssoundservice.common.utils.FileUtils;
+import io.netty.buffer.PooledByteBufAllocator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class S3MultipartUploadService {
+
+    private static final long MIN_PART_SIZE = DataSize.ofMegabytes(5).toBytes();
+
+    private final S3AsyncClient s3AsyncClient;
+    private final OutboundCallLimiter outboundCallLimiter;
+    private final DataBufferFactory partBufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+    @Value("${aws.s3.multipart.part-size:8MB}")
+    private DataSize partSize;
+
+    @Value("${aws.s3.multipart.concurrency:4}")
+    private int concurrency;
+
+    public Mono<CompleteMultipartUploadResponse> upload(
+            String bucket, String key, String contentType, Flux<DataBuffer> content
+    ) {
+        return this.upload(bucket, key, contentType, content, Mono.just(true));
+    }
+
+    public Mono<CompleteMultipartUploadResponse> upload(
+            String bucket, String key, String contentType, Flux<DataBuffer> content, Mono<Boolean> shouldComplete
+    ) {
+        CreateMultipartUploadRequest createRequest = CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .build();
+        Mono<String> uploadIdMono = outboundCallLimiter
+                .s3(bucket, Operation.WRITE, () -> s3AsyncClient.createMultipartUpload(createRequest))
+                .map(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    return response.uploadId();
+                });
+        return Mono.usingWhen(
+                uploadIdMono,
+                uploadId -> this.uploadParts(bucket, key, uploadId, content)
+                        .flatMap(parts -> shouldComplete.flatMap(complete -> complete
+                                ? this.complete(bucket, key, uploadId, parts)
+                                : this.abort(bucket, key, uploadId).then(Mono.empty()))),
+                uploadId -> Mono.empty(),
+                (uploadId, error) -> this.abort(bucket, key, uploadId),
+                uploadId -> this.abort(bucket, key, uploadId)
+        );
+    }
+
+    private Mono<List<CompletedPart>> uploadParts(
+            String bucket, String key, String uploadId, Flux<DataBuffer> content
+    ) {
+        int partSizeBytes = (int) Math.max(partSize.toBytes(), MIN_PART_SIZE);
+        return FileUtils.dataBuffersToChunks(content, partSizeBytes, partBufferFactory)
+                .index()
+                .flatMap(
+                        indexedPart -> this.uploadPart(
+                                bucket, key, uploadId, indexedPart.getT1().intValue() + 1, indexedPart.getT2()
+                        ),
+                        concurrency,
+                        1
+                )
+                .doOnDiscard(Tuple2.class, indexedPart -> DataBufferUtils.release((DataBuffer) indexedPart.getT2()))
+                .sort(Comparator.comparing(CompletedPart::partNumber))
+                .collectList();
+    }
+
+    private Mono<CompletedPart> uploadPart(
+            String bucket, String key, String uploadId, int partNumber, DataBuffer part
+    ) {
+        UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) part.readableByteCount())
+                .build();
+        return Mono.using(
+                part::readableByteBuffers,
+                iterator -> {
+                    List<ByteBuffer> buffers = new ArrayList<>();
+                    iterator.forEachRemaining(buffers::add);
+                    AsyncRequestBody body = AsyncRequestBody.fromByteBuffersUnsafe(buffers.toArray(ByteBuffer[]::new));
+                    return outboundCallLimiter.s3(
+                            bucket, Operation.TRANSFER, () -> s3AsyncClient.uploadPart(uploadPartRequest, body)
+                    );
+                },
+                iterator -> {
+                    iterator.close();
+                    DataBufferUtils.release(part);
+                }
+        ).map(response -> {
+            AwsSdkUtils.checkSdkResponse(response);
+            return CompletedPart.builder()
+                    .partNumber(partNumber)
+                    .eTag(response.eTag())
+                    .build();
+        });
+    }
+
+    private Mono<CompleteMultipartUploadResponse> complete(
+            String bucket, String key, String uploadId, List<CompletedPart> parts
+    ) {
+        CompleteMultipartUploadRequest completeRequest = CompleteMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                .build();
+        return outboundCallLimiter
+                .s3(bucket, Operation.WRITE, () -> s3AsyncClient.completeMultipartUpload(completeRequest))
+                .map(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    return response;
+                });
+    }
+
+    private Mono<Void> abort(String bucket, String key, String uploadId) {
+        AbortMultipartUploadRequest abortRequest = AbortMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .build();
+        return outboundCallLimiter.s3(bucket, Operation.WRITE, () -> s3AsyncClient.abortMultipartUpload(abortRequest))
+                .doOnError(error -> log.warn("Failed to abort multipart upload {} for {}", uploadId, key, error))
+                .onErrorResume(error -> Mono.empty())
+                .then();
+    }
+
+}
@@ -0,0 +1,281 @@
+package com.example.awssoundservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class TrackFileDiskCache implements MeterBinder {
+
+    private static final String FILE_SUFFIX = ".track";
+    private static final String PARTIAL_SUFFIX = ".part";
+    private static final Pattern CACHE_FILE_NAME = Pattern.compile(
+            "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}(\\.track)?(\\.part)?"
+    );
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+)");
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxFileBytes;
+    private final Cache<String, CachedFile> files;
+    private final Map<String, Fill> filling = new ConcurrentHashMap<>();
+    private final AtomicLong usedBytes = new AtomicLong();
+
+    public TrackFileDiskCache(
+            @Value("${track-file-cache.enabled:true}") boolean enabled,
+            @Value("${track-file-cache.directory:${java.io.tmpdir}/aws-sound-track-cache}") Path directory,
+            @Value("${track-file-cache.max-size:2GB}") DataSize maxSize,
+            @Value("${track-file-cache.max-file-size:200MB}") DataSize maxFileSize
+    ) throws IOException {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.maxFileBytes = maxFileSize.toBytes();
+        this.files = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, CachedFile file) -> (int) Math.min(Integer.MAX_VALUE, file.size()))
+                .removalListener((String key, CachedFile file, RemovalCause cause) -> this.deleteFile(file))
+                .recordStats()
+                .build();
+        if (enabled) {
+            Files.createDirectories(directory);
+            this.deleteLeftoverFiles();
+        }
+    }
+
+    public Optional<CachedFile> get(String fileKey) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(files.getIfPresent(fileKey));
+    }
+
+    public Optional<OpenFile> open(String fileKey) {
+        Optional<CachedFile> cachedFile = this.get(fileKey);
+        if (cachedFile.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            AsynchronousFileChannel channel = AsynchronousFileChannel.open(
+                    cachedFile.get().path(), StandardOpenOption.READ
+            );
+            return Optional.of(new OpenFile(cachedFile.get(), channel));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("Failed to open cached track file {}", cachedFile.get().path(), e);
+            files.asMap().remove(fileKey, cachedFile.get());
+            return Optional.empty();
+        }
+    }
+
+    public Flux<ByteBuffer> fillWhileStreaming(String fileKey, GetObjectResponse metadata, Flux<ByteBuffer> body) {
+        Long objectSize = enabled ? this.wholeObjectSize(metadata) : null;
+        if (objectSize == null || objectSize > maxFileBytes) {
+            return body;
+        }
+        return Flux.defer(() -> {
+            if (files.asMap().containsKey(fileKey) || filling.containsKey(fileKey)) {
+                return body;
+            }
+            Fill fill;
+            try {
+                fill = new Fill(fileKey, objectSize, metadata);
+            } catch (IOException e) {
+                log.warn("Failed to start caching track file {}", fileKey, e);
+                return body;
+            }
+            if (filling.putIfAbsent(fileKey, fill) != null) {
+                fill.discard();
+                return body;
+            }
+            return body.doOnNext(fill::write).doFinally(fill::finish);
+        });
+    }
+
+    public void invalidate(String fileKey) {
+        filling.remove(fileKey);
+        files.invalidate(fileKey);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(files, "track-files", List.of()).bindTo(registry);
+        Gauge.builder("track.file.cache.used.bytes", usedBytes, AtomicLong::get).register(registry);
+    }
+
+    private Long wholeObjectSize(GetObjectResponse metadata) {
+        if (metadata.contentRange() == null) {
+            return metadata.contentLength();
+        }
+        Matcher contentRange = CONTENT_RANGE.matcher(metadata.contentRange());
+        if (!contentRange.matches() || Long.parseLong(contentRange.group(1)) != 0) {
+            return null;
+        }
+        long size = Long.parseLong(contentRange.group(3));
+        return Long.parseLong(contentRange.group(2)) == size - 1 ? size : null;
+    }
+
+    private void deleteLeftoverFiles() throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            entries.filter(path -> CACHE_FILE_NAME.matcher(path.getFileName().toString()).matches())
+                    .filter(Files::isRegularFile)
+                    .forEach(this::deleteQuietly);
+        }
+    }
+
+    private void deleteFile(CachedFile file) {
+        if (file == null) {
+            return;
+        }
+        usedBytes.addAndGet(-file.size());
+        this.deleteQuietly(file.path());
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete cached track file {}", path, e);
+        }
+    }
+
+    private final class Fill {
+
+        private final String fileKey;
+        private final long objectSize;
+        private final GetObjectResponse metadata;
+        private final Path target;
+        private final Path temporary;
+        private final AsynchronousFileChannel channel;
+        private CompletableFuture<Void> writes = CompletableFuture.completedFuture(null);
+        private long position;
+
+        private Fill(String fileKey, long objectSize, GetObjectResponse metadata) throws IOException {
+            this.fileKey = fileKey;
+            this.objectSize = objectSize;
+            this.metadata = metadata;
+            this.target = directory.resolve(UUID.randomUUID() + FILE_SUFFIX);
+            this.temporary = directory.resolve(target.getFileName() + PARTIAL_SUFFIX);
+            this.channel = AsynchronousFileChannel.open(
+                    temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE
+            );
+        }
+
+        private void write(ByteBuffer buffer) {
+            long offset = position;
+            position += buffer.remaining();
+            if (position > objectSize) {
+                return;
+            }
+            ByteBuffer source = buffer.duplicate();
+            writes = writes.thenCompose(ignored -> this.writeFully(source, offset));
+        }
+
+        private CompletableFuture<Void> writeFully(ByteBuffer source, long offset) {
+            CompletableFuture<Integer> written = new CompletableFuture<>();
+            channel.write(source, offset, written, new CompletionHandler<>() {
+                @Override
+                public void completed(Integer count, CompletableFuture<Integer> result) {
+                    result.complete(count);
+                }
+
+                @Override
+                public void failed(Throwable error, CompletableFuture<Integer> result) {
+                    result.completeExceptionally(error);
+                }
+            });
+            return written.thenCompose(count -> source.hasRemaining()
+                    ? this.writeFully(source, offset + count)
+                    : CompletableFuture.completedFuture(null));
+        }
+
+        private void finish(SignalType signal) {
+            writes.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    log.warn("Failed to cache track file {}", fileKey, error);
+                }
+                boolean complete = signal == SignalType.ON_COMPLETE && error == null && position == objectSize;
+                if (complete && filling.remove(fileKey, this)) {
+                    this.commit();
+                } else {
+                    filling.remove(fileKey, this);
+                    this.discard();
+                }
+            });
+        }
+
+        private void commit() {
+            try {
+                channel.close();
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.warn("Failed to cache track file {}", fileKey, e);
+                this.discard();
+                return;
+            }
+            usedBytes.addAndGet(objectSize);
+            files.put(fileKey, new CachedFile(
+                    target, objectSize, metadata.contentType(), metadata.eTag(), metadata.lastModified()
+            ));
+        }
+
+        private void discard() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close cached track file {}", temporary, e);
+            }
+            TrackFileDiskCache.this.deleteQuietly(temporary);
+        }
+
+    }
+
+    public record CachedFile(Path path, long size, String contentType, String eTag, Instant lastModified) {
+    }
+
+    public record OpenFile(CachedFile file, AsynchronousFileChannel channel) {
+
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close cached track file {}", file.path(), e);
+            }
+        }
+
+    }
+
+}
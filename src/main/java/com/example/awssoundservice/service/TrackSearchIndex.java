@@ -0,0 +1,379 @@
+package com.example.awssoundservice.service;
+
+import com.example.awssoundservice.common.DynamoDbTables;
+import com.example.awssoundservice.common.codec.TrackCodec;
+import com.example.awssoundservice.common.search.GramPostings;
+import com.example.awssoundservice.model.Track;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Service
+public class TrackSearchIndex implements MeterBinder {
+
+    private static final char WORD_START = '\u0002';
+    private static final int GRAM_LENGTH = 3;
+    private static final int PREFIX_GRAM_LENGTH = 2;
+
+    private static final Comparator<Hit> RANKING = Comparator
+            .comparingInt(Hit::score)
+            .thenComparingInt(hit -> -hit.nameLength())
+            .thenComparing(hit -> hit.track().uid(), Comparator.reverseOrder());
+
+    private final ParallelScanService parallelScanService;
+    private final boolean enabled;
+    private final int maxResults;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final GramPostings postings = new GramPostings();
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private final Set<String> touchedWhileWarming = new HashSet<>();
+    private Track[] documents = new Track[1024];
+    private String[] normalizedNames = new String[1024];
+    private int[] freeDocIds = new int[16];
+    private int freeDocIdCount;
+    private int nextDocId;
+    private volatile boolean warming;
+    private volatile Duration buildTime = Duration.ZERO;
+
+    public TrackSearchIndex(
+            ParallelScanService parallelScanService,
+            @Value("${track-search.enabled:true}") boolean enabled,
+            @Value("${track-search.max-results:100}") int maxResults
+    ) {
+        this.parallelScanService = parallelScanService;
+        this.enabled = enabled;
+        this.maxResults = maxResults;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        warming = true;
+        long started = System.nanoTime();
+        parallelScanService.scan(DynamoDbTables.TRACKS, TrackCodec.INSTANCE.attributes())
+                .map(Track::from)
+                .doFinally(signal -> this.finishWarmUp())
+                .subscribe(
+                        track -> this.index(track, true),
+                        error -> log.error("Failed to warm track search index", error),
+                        () -> {
+                            buildTime = Duration.ofNanos(System.nanoTime() - started);
+                            log.info("Indexed {} tracks for search in {} ms", this.size(), buildTime.toMillis());
+                        }
+                );
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void put(Track track) {
+        if (enabled) {
+            this.index(track, false);
+        }
+    }
+
+    public void remove(String uid) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (warming) {
+                touchedWhileWarming.add(uid);
+            }
+            Integer docId = docIds.remove(uid);
+            if (docId != null) {
+                this.unindex(docId);
+                this.releaseDocId(docId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Track> search(String query, int limit) {
+        String normalizedQuery = normalize(query);
+        if (normalizedQuery.isEmpty()) {
+            return List.of();
+        }
+        String[] queryWords = normalizedQuery.split(" ");
+        long[] queryGrams = grams(queryWords, false);
+        int resultLimit = Math.max(1, Math.min(limit, maxResults));
+        PriorityQueue<Hit> top = new PriorityQueue<>(resultLimit + 1, RANKING);
+        lock.readLock().lock();
+        try {
+            int[] slots = new int[queryGrams.length];
+            for (int i = 0; i < queryGrams.length; i++) {
+                slots[i] = postings.find(queryGrams[i]);
+                if (postings.size(slots[i]) == 0) {
+                    return List.of();
+                }
+            }
+            int smallest = 0;
+            for (int i = 1; i < slots.length; i++) {
+                if (postings.size(slots[i]) < postings.size(slots[smallest])) {
+                    smallest = i;
+                }
+            }
+            int[] candidates = postings.docs(slots[smallest]);
+            int candidateCount = postings.size(slots[smallest]);
+            for (int c = 0; c < candidateCount; c++) {
+                int docId = candidates[c];
+                if (!this.inAllPostings(docId, slots, smallest)) {
+                    continue;
+                }
+                int score = this.score(normalizedNames[docId], normalizedQuery, queryWords);
+                if (score <= 0) {
+                    continue;
+                }
+                top.add(new Hit(documents[docId], score, normalizedNames[docId].length()));
+                if (top.size() > resultLimit) {
+                    top.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Track> results = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            results.add(top.poll().track());
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = postings.estimatedBytes()
+                    + (long) documents.length * Integer.BYTES
+                    + (long) normalizedNames.length * Integer.BYTES
+                    + (long) freeDocIds.length * Integer.BYTES
+                    + docIds.size() * 48L;
+            for (int docId = 0; docId < nextDocId; docId++) {
+                if (normalizedNames[docId] != null) {
+                    bytes += 40L + normalizedNames[docId].length();
+                }
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("track.search.index.documents", this, TrackSearchIndex::size).register(registry);
+        Gauge.builder("track.search.index.grams", postings, GramPostings::keyCount).register(registry);
+        Gauge.builder("track.search.index.memory.bytes", this, TrackSearchIndex::estimatedBytes)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("track.search.index.build.time", this, index -> index.buildTime.toMillis())
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    private void finishWarmUp() {
+        lock.writeLock().lock();
+        try {
+            warming = false;
+            touchedWhileWarming.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(Track track, boolean fromWarmUp) {
+        String normalizedName = normalize(track.name());
+        lock.writeLock().lock();
+        try {
+            if (fromWarmUp && touchedWhileWarming.contains(track.uid())) {
+                return;
+            }
+            if (!fromWarmUp && warming) {
+                touchedWhileWarming.add(track.uid());
+            }
+            Integer existing = docIds.get(track.uid());
+            int docId;
+            if (existing != null) {
+                docId = existing;
+                if (!normalizedName.equals(normalizedNames[docId])) {
+                    this.unindex(docId);
+                    normalizedNames[docId] = normalizedName;
+                    this.addGrams(docId, normalizedName);
+                }
+            } else {
+                docId = this.allocateDocId();
+                docIds.put(track.uid(), docId);
+                normalizedNames[docId] = normalizedName;
+                this.addGrams(docId, normalizedName);
+            }
+            documents[docId] = track;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addGrams(int docId, String normalizedName) {
+        if (normalizedName.isEmpty()) {
+            return;
+        }
+        for (long gram : grams(normalizedName.split(" "), true)) {
+            postings.add(gram, docId);
+        }
+    }
+
+    private void unindex(int docId) {
+        String normalizedName = normalizedNames[docId];
+        if (normalizedName != null && !normalizedName.isEmpty()) {
+            for (long gram : grams(normalizedName.split(" "), true)) {
+                postings.remove(gram, docId);
+            }
+        }
+        normalizedNames[docId] = null;
+        documents[docId] = null;
+    }
+
+    private int allocateDocId() {
+        if (freeDocIdCount > 0) {
+            return freeDocIds[--freeDocIdCount];
+        }
+        if (nextDocId == documents.length) {
+            documents = Arrays.copyOf(documents, documents.length * 2);
+            normalizedNames = Arrays.copyOf(normalizedNames, normalizedNames.length * 2);
+        }
+        return nextDocId++;
+    }
+
+    private void releaseDocId(int docId) {
+        if (freeDocIdCount == freeDocIds.length) {
+            freeDocIds = Arrays.copyOf(freeDocIds, freeDocIds.length * 2);
+        }
+        freeDocIds[freeDocIdCount++] = docId;
+    }
+
+    private boolean inAllPostings(int docId, int[] slots, int skip) {
+        for (int i = 0; i < slots.length; i++) {
+            if (i != skip && Arrays.binarySearch(postings.docs(slots[i]), 0, postings.size(slots[i]), docId) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int score(String name, String query, String[] queryWords) {
+        String[] nameWords = name.split(" ");
+        int score = 0;
+        for (String queryWord : queryWords) {
+            int wordScore = 0;
+            for (String nameWord : nameWords) {
+                if (nameWord.equals(queryWord)) {
+                    wordScore = 3;
+                    break;
+                }
+                if (nameWord.startsWith(queryWord)) {
+                    wordScore = 2;
+                }
+            }
+            if (wordScore == 0) {
+                return 0;
+            }
+            score += wordScore;
+        }
+        if (name.equals(query)) {
+            score += 10;
+        } else if (name.startsWith(query)) {
+            score += 5;
+        }
+        return score;
+    }
+
+    private static long[] grams(String[] words, boolean indexing) {
+        long[] grams = new long[0];
+        int count = 0;
+        for (String word : words) {
+            String term = WORD_START + word;
+            int termGrams = Math.max(1, term.length() - GRAM_LENGTH + 1);
+            boolean prefixGram = indexing && term.length() > PREFIX_GRAM_LENGTH;
+            int wordGrams = termGrams + (prefixGram ? 1 : 0);
+            if (count + wordGrams > grams.length) {
+                grams = Arrays.copyOf(grams, Math.max(grams.length * 2, count + wordGrams));
+            }
+            if (prefixGram) {
+                grams[count++] = pack(term, 0, PREFIX_GRAM_LENGTH);
+            }
+            for (int i = 0; i < termGrams; i++) {
+                grams[count++] = pack(term, i, GRAM_LENGTH);
+            }
+        }
+        Arrays.sort(grams, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || grams[unique - 1] != grams[i]) {
+                grams[unique++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, unique);
+    }
+
+    private static long pack(String term, int offset, int length) {
+        long gram = 0;
+        for (int i = offset; i < offset + GRAM_LENGTH; i++) {
+            gram = (gram << Character.SIZE) | (i < term.length() && i < offset + length ? term.charAt(i) : 0);
+        }
+        return gram;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                normalized.append(Character.toLowerCase(c));
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    private record Hit(Track track, int score, int nameLength) {
+    }
+
+}
@@ -1,64 +1,145 @@
 package com.example.awssoundservice.service;
 
 import com.example.awssoundservice.common.DynamoDbTables;
+import com.example.awssoundservice.common.audio.AudioMetadataExtractor;
+import com.example.awssoundservice.common.cache.EntityCache;
+import com.example.awssoundservice.common.codec.AttributeCodecs;
+import com.example.awssoundservice.common.codec.TrackCodec;
+import com.example.awssoundservice.common.concurrency.HedgedReads;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter.Operation;
+import com.example.awssoundservice.common.metrics.AwsCaller;
+import com.example.awssoundservice.common.pagination.CursorCodec;
 import com.example.awssoundservice.common.utils.AwsSdkUtils;
 import com.example.awssoundservice.common.utils.FileUtils;
+import com.example.awssoundservice.model.AudioMetadata;
 import com.example.awssoundservice.model.Track;
 import com.example.awssoundservice.request.TrackCreateOrUpdateRequest;
 import com.example.awssoundservice.response.FileResponse;
+import com.example.awssoundservice.response.FileStreamResponse;
+import com.example.awssoundservice.response.GeneralResponse;
+import com.example.awssoundservice.response.PageResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.async.ResponsePublisher;
 import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.model.*;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.model.*;
 
-import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.StringJoiner;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TrackService {
 
+    private static final String CURSOR_SCOPE = "tracks";
+
     private final S3AsyncClient s3AsyncClient;
     private final DynamoDbAsyncClient dynamoDb;
+    private final OutboundCallLimiter outboundCallLimiter;
+    private final S3MultipartUploadService s3MultipartUploadService;
+    private final ParallelScanService parallelScanService;
+    private final BatchGetService batchGetService;
+    private final BatchWriteService batchWriteService;
+    private final TrackFileDiskCache trackFileDiskCache;
+    private final EntityCache<Track> trackCache;
+    private final BatchLoader<Track> trackBatchLoader;
+    private final HedgedReads hedgedReads;
+    private final CursorCodec cursorCodec;
+    private final TrackSearchIndex trackSearchIndex;
+    private final PlaylistEntryService playlistEntryService;
+    private final ContentStoreService contentStoreService;
 
     @Value("${aws.s3.track-bucket}")
     private String bucket;
 
+    @Value("${aws.s3.stream.prefetch:4}")
+    private int streamPrefetch;
+
+    @Value("${audio-metadata.enabled:true}")
+    private boolean audioMetadataEnabled;
+
+    @Value("${audio-metadata.peak-count:512}")
+    private int peakCount;
+
     public Mono<Track> getById(String trackId) {
-        GetItemRequest getItemRequest = GetItemRequest.builder()
-                .tableName(DynamoDbTables.TRACKS)
-                .key(Map.of("uid", AttributeValue.builder().s(trackId).build()))
-                .build();
-        CompletableFuture<GetItemResponse> future = dynamoDb.getItem(getItemRequest);
-        return Mono.fromFuture(future)
-                .map(getItemResponse -> {
-                    AwsSdkUtils.checkSdkResponse(getItemResponse);
-                    return Track.from(getItemResponse.item());
-                });
+        return trackCache.get(trackId, this::loadById)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Track not found")))
+                .contextWrite(AwsCaller.of("TrackService.getById"));
     }
 
-    public Mono<List<Track>> getAll() {
-        ScanRequest scanRequest = ScanRequest.builder()
-                .tableName(DynamoDbTables.TRACKS)
-                .build();
-        CompletableFuture<ScanResponse> future = dynamoDb.scan(scanRequest);
-        return Mono.fromFuture(future)
-                .map(scanResponse -> {
-                    AwsSdkUtils.checkSdkResponse(scanResponse);
-                    return Track.fromList(scanResponse.items());
-                });
+    private Mono<Track> loadById(String trackId) {
+        return hedgedReads.execute(
+                "track.getById", () -> trackBatchLoader.load(trackId), () -> trackBatchLoader.loadSingle(trackId)
+        );
+    }
+
+    public Flux<Track> getAll() {
+        return parallelScanService.scan(DynamoDbTables.TRACKS, TrackCodec.INSTANCE.attributes()).map(Track::from)
+                .contextWrite(AwsCaller.of("TrackService.getAll"));
+    }
+
+    public Mono<PageResponse<Track>> getPage(int limit, String cursor) {
+        return Mono.defer(() -> {
+            Map<String, AttributeValue> startKey = cursor != null ? cursorCodec.decodeKey(CURSOR_SCOPE, cursor) : null;
+            return parallelScanService.page(
+                    DynamoDbTables.TRACKS, TrackCodec.INSTANCE.attributes(), cursorCodec.pageSize(limit), startKey
+            );
+        }).map(response -> new PageResponse<>(
+                response.items().stream().map(Track::from).toList(),
+                response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                        ? cursorCodec.encodeKey(CURSOR_SCOPE, response.lastEvaluatedKey())
+                        : null
+        )).contextWrite(AwsCaller.of("TrackService.getPage"));
+    }
+
+    public Mono<List<Track>> search(String query, int limit) {
+        if (!trackSearchIndex.isEnabled()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Track search is disabled"));
+        }
+        if (query == null || query.isBlank()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query must not be empty"));
+        }
+        return Mono.fromSupplier(() -> trackSearchIndex.search(query, limit));
+    }
+
+    public Mono<List<Track>> getByIds(List<String> trackIds) {
+        List<Map<String, AttributeValue>> keys = trackIds.stream()
+                .distinct()
+                .map(trackId -> Map.of("uid", AttributeValue.builder().s(trackId).build()))
+                .toList();
+        return batchGetService.batchGet(DynamoDbTables.TRACKS, keys)
+                .map(Track::from)
+                .collectMap(Track::uid)
+                .map(tracksById -> trackIds.stream()
+                        .distinct()
+                        .map(tracksById::get)
+                        .filter(Objects::nonNull)
+                        .toList()
+                )
+                .contextWrite(AwsCaller.of("TrackService.getByIds"));
     }
 
     public Mono<Track> create(TrackCreateOrUpdateRequest request) {
@@ -72,93 +153,272 @@ public class TrackService {
                 .tableName(DynamoDbTables.TRACKS)
                 .item(track.toMap())
                 .build();
-        CompletableFuture<PutItemResponse> responseFuture = dynamoDb.putItem(putItemRequest);
-        return Mono.fromFuture(responseFuture)
+        return outboundCallLimiter
+                .dynamoDb(DynamoDbTables.TRACKS, Operation.WRITE, () -> dynamoDb.putItem(putItemRequest))
                 .map(putItemResponse -> {
                     AwsSdkUtils.checkSdkResponse(putItemResponse);
+                    trackCache.put(track.uid(), track);
+                    trackSearchIndex.put(track);
                     return track;
-                });
+                })
+                .contextWrite(AwsCaller.of("TrackService.create"));
+    }
+
+    public Flux<GeneralResponse<Track>> createAll(Flux<TrackCreateOrUpdateRequest> requests) {
+        Flux<Map<String, AttributeValue>> items = requests.map(request -> new Track(
+                UUID.randomUUID().toString(),
+                request.name(),
+                "",
+                ""
+        ).toMap());
+        return batchWriteService.putAll(DynamoDbTables.TRACKS, items)
+                .map(result -> {
+                    Track track = Track.from(result.item());
+                    if (!result.isSuccess()) {
+                        return new GeneralResponse<>(500, result.error().getMessage(), track);
+                    }
+                    trackCache.put(track.uid(), track);
+                    trackSearchIndex.put(track);
+                    return GeneralResponse.successResponse(track);
+                })
+                .contextWrite(AwsCaller.of("TrackService.createAll"));
     }
 
     public Mono<Track> update(String trackId, TrackCreateOrUpdateRequest request) {
-        Mono<Track> trackMono = this.getById(trackId);
-        return trackMono.flatMap(currentTrack -> {
-            Track updatedTrack = new Track(
-                    currentTrack.uid(),
-                    request.name(),
-                    currentTrack.fileKey(),
-                    currentTrack.fileUrl()
-            );
-            PutItemRequest putItemRequest = PutItemRequest.builder()
-                    .tableName(DynamoDbTables.TRACKS)
-                    .item(updatedTrack.toMap())
-                    .build();
-            return Mono.fromFuture(dynamoDb.putItem(putItemRequest));
-        }).flatMap(response -> {
-            AwsSdkUtils.checkSdkResponse(response);
-            return this.getById(trackId);
-        });
+        return this.updateTrack(
+                trackId,
+                "SET #name = :name",
+                Map.of("#name", "name"),
+                Map.of(":name", AttributeValue.builder().s(request.name()).build())
+        ).contextWrite(AwsCaller.of("TrackService.update"));
     }
 
     public Mono<Track> delete(String trackId) {
-        Mono<Track> trackMono = this.getById(trackId);
         DeleteItemRequest deleteItemRequest = DeleteItemRequest.builder()
                 .tableName(DynamoDbTables.TRACKS)
                 .key(Map.of("uid", AttributeValue.builder().s(trackId).build()))
+                .conditionExpression("attribute_exists(uid)")
+                .returnValues(ReturnValue.ALL_OLD)
                 .build();
-        CompletableFuture<DeleteItemResponse> deleteFuture = dynamoDb.deleteItem(deleteItemRequest);
-        return trackMono.zipWith(Mono.fromFuture(deleteFuture))
-                .map(objects -> {
-                    Track currentTrack = objects.getT1();
-                    DeleteItemResponse deleteResponse = objects.getT2();
+        return outboundCallLimiter
+                .dynamoDb(DynamoDbTables.TRACKS, Operation.WRITE, () -> dynamoDb.deleteItem(deleteItemRequest))
+                .onErrorMap(
+                        ConditionalCheckFailedException.class,
+                        e -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Track not found")
+                )
+                .flatMap(deleteResponse -> {
                     AwsSdkUtils.checkSdkResponse(deleteResponse);
-                    return currentTrack;
-                });
+                    trackCache.invalidate(trackId);
+                    trackSearchIndex.remove(trackId);
+                    return playlistEntryService.removeTrack(trackId)
+                            .then(this.releaseContent(deleteResponse.attributes(), null))
+                            .thenReturn(Track.from(deleteResponse.attributes()));
+                })
+                .contextWrite(AwsCaller.of("TrackService.delete"));
+    }
+
+    public Mono<Track> uploadTrackFile(String trackId, FilePart filePart, String contentSha256) {
+        String contentType = Objects.requireNonNull(filePart.headers().getContentType()).toString();
+        return Mono.defer(() -> {
+            AudioMetadataExtractor extractor = audioMetadataEnabled ? new AudioMetadataExtractor(peakCount) : null;
+            Flux<DataBuffer> content = extractor != null
+                    ? filePart.content().doOnNext(extractor::feed)
+                    : filePart.content();
+            Supplier<AudioMetadata> audio = () -> extractor != null ? extractor.finish().orElse(null) : null;
+            if (contentStoreService.isEnabled()) {
+                return contentStoreService.store(trackId, contentType, content, contentSha256)
+                        .flatMap(stored -> this.attachFile(trackId, stored.fileKey(), stored.sha256(), audio.get())
+                                .onErrorResume(error -> contentStoreService.release(stored.sha256(), trackId)
+                                        .onErrorResume(releaseError -> Mono.empty())
+                                        .then(Mono.error(error))));
+            }
+            String fileKey = trackId + "/" + FileUtils.safeFileName(filePart.filename());
+            return s3MultipartUploadService.upload(bucket, fileKey, contentType, content)
+                    .flatMap(completeResponse -> this.attachFile(trackId, fileKey, null, audio.get()));
+        }).contextWrite(AwsCaller.of("TrackService.uploadTrackFile"));
+    }
+
+    public Mono<Track> attachFile(String trackId, String fileKey) {
+        return this.attachFile(trackId, fileKey, null, null).contextWrite(AwsCaller.of("TrackService.attachFile"));
+    }
+
+    private Mono<Track> attachFile(String trackId, String fileKey, String contentSha256, AudioMetadata audio) {
+        trackFileDiskCache.invalidate(fileKey);
+        GetUrlRequest getUrlRequest = GetUrlRequest.builder().bucket(bucket).key(fileKey).build();
+        String fileUrl = s3AsyncClient.utilities().getUrl(getUrlRequest).toExternalForm();
+        return this.addFileInfoToTrack(trackId, new FileResponse(
+                fileKey,
+                fileUrl
+        ), contentSha256, audio);
+    }
+
+    public Mono<FileStreamResponse> streamTrackFile(String trackId, String range, String ifRange) {
+        return this.getById(trackId)
+                .flatMap(track -> {
+                    if (track.fileKey() == null || track.fileKey().isEmpty()) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Track file not found"));
+                    }
+                    if (range == null || (ifRange != null && !this.isStrongValidator(ifRange))) {
+                        return this.getTrackObject(track.fileKey(), null, null);
+                    }
+                    return this.getTrackObject(track.fileKey(), range, ifRange)
+                            .onErrorResume(
+                                    e -> e instanceof S3Exception s3Exception && s3Exception.statusCode() == 412,
+                                    e -> this.getTrackObject(track.fileKey(), null, null)
+                            );
+                })
+                .onErrorMap(
+                        e -> e instanceof S3Exception s3Exception && s3Exception.statusCode() == 416,
+                        e -> new ResponseStatusException(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, "Invalid range")
+                )
+                .contextWrite(AwsCaller.of("TrackService.streamTrackFile"));
     }
 
-    public Mono<Track> uploadTrackFile(String trackId, FilePart filePart) {
-        String filename = filePart.filename();
-        String fileKey = trackId + "/" + filename;
-        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+    private boolean isStrongValidator(String ifRange) {
+        if (ifRange.startsWith("\"")) {
+            return true;
+        }
+        try {
+            ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private Mono<FileStreamResponse> getTrackObject(String fileKey, String range, String ifRange) {
+        GetObjectRequest.Builder builder = GetObjectRequest.builder()
                 .bucket(bucket)
                 .key(fileKey)
-                .contentType(Objects.requireNonNull(filePart.headers().getContentType()).toString())
+                .range(range);
+        Instant ifRangeDate = ifRange != null && !ifRange.startsWith("\"")
+                ? ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant()
+                : null;
+        if (ifRangeDate != null) {
+            builder.ifUnmodifiedSince(ifRangeDate);
+        } else if (ifRange != null) {
+            builder.ifMatch(ifRange);
+        }
+        GetObjectRequest getObjectRequest = builder.build();
+        return outboundCallLimiter.s3Stream(
+                        bucket, () -> s3AsyncClient.getObject(getObjectRequest, AsyncResponseTransformer.toPublisher())
+                )
+                .flatMap(lease -> {
+                    ResponsePublisher<GetObjectResponse> responsePublisher = lease.response();
+                    GetObjectResponse response = responsePublisher.response();
+                    try {
+                        AwsSdkUtils.checkSdkResponse(response);
+                    } catch (RuntimeException e) {
+                        lease.release();
+                        return Mono.error(e);
+                    }
+                    if (ifRangeDate != null && (response.lastModified() == null
+                            || response.lastModified().getEpochSecond() != ifRangeDate.getEpochSecond())) {
+                        lease.hold(Flux.from(responsePublisher)).subscribe().dispose();
+                        return this.getTrackObject(fileKey, null, null);
+                    }
+                    return Mono.just(new FileStreamResponse(
+                            response,
+                            range != null && response.contentRange() != null,
+                            lease.hold(Flux.from(responsePublisher).limitRate(streamPrefetch))
+                    ));
+                });
+    }
+
+    private Mono<Track> addFileInfoToTrack(
+            String trackId, FileResponse fileResponse, String contentSha256, AudioMetadata audio
+    ) {
+        Map<String, AttributeValue> assigned = new HashMap<>();
+        assigned.put("fileKey", AttributeValue.builder().s(fileResponse.fileKey()).build());
+        assigned.put("fileUrl", AttributeValue.builder().s(fileResponse.fileUrl()).build());
+        if (contentSha256 != null) {
+            assigned.put(TrackCodec.CONTENT_SHA256, AttributeValue.fromS(contentSha256));
+        }
+        if (audio != null) {
+            assigned.putAll(TrackCodec.INSTANCE.encodeAudio(audio));
+        }
+        List<String> removed = Stream.concat(
+                        Stream.of(TrackCodec.CONTENT_SHA256), TrackCodec.AUDIO_ATTRIBUTES.stream()
+                )
+                .filter(attribute -> !assigned.containsKey(attribute))
+                .toList();
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        StringJoiner set = new StringJoiner(", ", "SET ", "");
+        StringJoiner remove = new StringJoiner(", ", " REMOVE ", "").setEmptyValue("");
+        assigned.forEach((attribute, value) -> {
+            names.put("#" + attribute, attribute);
+            values.put(":" + attribute, value);
+            set.add("#" + attribute + " = :" + attribute);
+        });
+        removed.forEach(attribute -> {
+            names.put("#" + attribute, attribute);
+            remove.add("#" + attribute);
+        });
+        UpdateItemRequest updateItemRequest = UpdateItemRequest.builder()
+                .tableName(DynamoDbTables.TRACKS)
+                .key(Map.of("uid", AttributeValue.builder().s(trackId).build()))
+                .updateExpression(set.toString() + remove)
+                .conditionExpression("attribute_exists(uid)")
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(values)
+                .returnValues(ReturnValue.ALL_OLD)
                 .build();
-        Mono<ByteBuffer> fileByteBuffer = FileUtils.dataBuffersToByteBuffer(filePart.content());
-        return fileByteBuffer
-                .flatMap(buffer -> Mono.fromFuture(
-                        s3AsyncClient.putObject(putObjectRequest, AsyncRequestBody.fromByteBuffer(buffer))
-                ))
-                .map(putObjectResponse -> {
-                    AwsSdkUtils.checkSdkResponse(putObjectResponse);
-                    GetUrlRequest getUrlRequest = GetUrlRequest.builder().bucket(bucket).key(fileKey).build();
-                    String fileUrl = s3AsyncClient.utilities().getUrl(getUrlRequest).toExternalForm();
-                    return new FileResponse(
-                            fileKey,
-                            fileUrl
-                    );
+        return outboundCallLimiter
+                .dynamoDb(DynamoDbTables.TRACKS, Operation.WRITE, () -> dynamoDb.updateItem(updateItemRequest))
+                .flatMap(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    Map<String, AttributeValue> item = new HashMap<>(response.attributes());
+                    item.putAll(assigned);
+                    removed.forEach(item::remove);
+                    return this.publishUpdate(Track.from(item))
+                            .delayUntil(track -> this.releaseContent(response.attributes(), contentSha256));
                 })
-                .flatMap(fileResponse -> this.addFileInfoToTrack(trackId, fileResponse));
+                .onErrorMap(
+                        ConditionalCheckFailedException.class,
+                        e -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Track not found")
+                );
     }
 
-    private Mono<Track> addFileInfoToTrack(String trackId, FileResponse fileResponse) {
-        Mono<Track> track = this.getById(trackId);
-        return track.flatMap(currentTrack -> {
-            Track updatedTrack = new Track(
-                    currentTrack.uid(),
-                    currentTrack.name(),
-                    fileResponse.fileKey(),
-                    fileResponse.fileUrl()
-            );
-            PutItemRequest putItemRequest = PutItemRequest.builder()
-                    .tableName(DynamoDbTables.TRACKS)
-                    .item(updatedTrack.toMap())
-                    .build();
-            return Mono.fromFuture(dynamoDb.putItem(putItemRequest));
-        }).flatMap(putItemResponse -> {
-            AwsSdkUtils.checkSdkResponse(putItemResponse);
-            return this.getById(trackId);
-        });
+    private Mono<Void> releaseContent(Map<String, AttributeValue> previousItem, String currentSha256) {
+        String previousSha256 = AttributeCodecs.getString(previousItem, TrackCodec.CONTENT_SHA256, null);
+        if (previousSha256 == null || previousSha256.equals(currentSha256)) {
+            return Mono.empty();
+        }
+        return contentStoreService.release(previousSha256, AttributeCodecs.requireString(previousItem, "uid"));
+    }
+
+    private Mono<Track> publishUpdate(Track updatedTrack) {
+        trackCache.put(updatedTrack.uid(), updatedTrack);
+        trackSearchIndex.put(updatedTrack);
+        return playlistEntryService.refreshTrack(updatedTrack).thenReturn(updatedTrack);
+    }
+
+    private Mono<Track> updateTrack(
+            String trackId,
+            String updateExpression,
+            Map<String, String> names,
+            Map<String, AttributeValue> values
+    ) {
+        UpdateItemRequest updateItemRequest = UpdateItemRequest.builder()
+                .tableName(DynamoDbTables.TRACKS)
+                .key(Map.of("uid", AttributeValue.builder().s(trackId).build()))
+                .updateExpression(updateExpression)
+                .conditionExpression("attribute_exists(uid)")
+                .expressionAttributeNames(names.isEmpty() ? null : names)
+                .expressionAttributeValues(values)
+                .returnValues(ReturnValue.ALL_NEW)
+                .build();
+        return outboundCallLimiter
+                .dynamoDb(DynamoDbTables.TRACKS, Operation.WRITE, () -> dynamoDb.updateItem(updateItemRequest))
+                .flatMap(response -> {
+                    AwsSdkUtils.checkSdkResponse(response);
+                    return this.publishUpdate(Track.from(response.attributes()));
+                })
+                .onErrorMap(
+                        ConditionalCheckFailedException.class,
+                        e -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Track not found")
+                );
     }
 
 }
@@ -0,0 +1,278 @@
+package com.example.awssoundservice.benchmark;
+
+import com.example.awssoundservice.common.DynamoDbTables;
+import com.example.awssoundservice.model.Playlist;
+import com.example.awssoundservice.model.PlaylistEntry;
+import com.example.awssoundservice.model.Track;
+import com.example.awssoundservice.service.PlaylistEntryService;
+import com.example.awssoundservice.service.TrackSearchIndex;
+import com.example.awssoundservice.standin.InMemoryDynamoDbAsyncClient;
+import com.example.awssoundservice.standin.InMemoryS3AsyncClient;
+import com.example.awssoundservice.standin.StandInAwsConfiguration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "track-file-cache.enabled=false"
+)
+@Import(StandInAwsConfiguration.class)
+class EndToEndThroughputBenchmark {
+
+    private static final int TRACKS = 10_000;
+    private static final int TRACKS_WITH_FILES = 100;
+    private static final int PLAYLISTS = 1_000;
+    private static final int TRACKS_PER_PLAYLIST = 50;
+    private static final int BULK_SIZE = 100;
+    private static final int PAGE_SIZE = 50;
+    private static final byte[] AUDIO = new byte[1024 * 1024];
+
+    private final double rate = Double.parseDouble(System.getProperty("e2e.rps", "1000"));
+    private final Duration warmup = Duration.parse(System.getProperty("e2e.warmup", "PT5S"));
+    private final Duration duration = Duration.parse(System.getProperty("e2e.duration", "PT15S"));
+    private final Pattern include = Pattern.compile(System.getProperty("e2e.include", ".*"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private InMemoryDynamoDbAsyncClient dynamoDb;
+
+    @Autowired
+    private InMemoryS3AsyncClient s3;
+
+    @Autowired
+    private TrackSearchIndex trackSearchIndex;
+
+    @Value("${aws.s3.track-bucket}")
+    private String bucket;
+
+    @Test
+    void endpointBaseline() throws IOException {
+        long disposable = (long) Math.ceil(rate * (warmup.toSeconds() + duration.toSeconds()));
+        this.seed(disposable);
+        trackSearchIndex.warmUp();
+
+        ConnectionProvider connections = ConnectionProvider.builder("e2e-load")
+                .maxConnections(2048)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                .build();
+        LoadDriver driver = new LoadDriver(warmup, duration, 4096);
+
+        List<LoadResult> results = new ArrayList<>();
+        System.out.println(LoadResult.HEADER);
+        for (Scenario scenario : this.scenarios(webClient)) {
+            if (!include.matcher(scenario.name()).matches()) {
+                continue;
+            }
+            LoadResult result = driver.run(scenario.name(), rate * scenario.rateFactor(), scenario.request());
+            System.out.println(result.toRow());
+            results.add(result);
+        }
+        connections.dispose();
+
+        Path report = Path.of("target", "e2e-result.json");
+        Files.createDirectories(report.getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(report.toFile(), results);
+        assertThat(results).allSatisfy(result -> assertThat(result.requests()).isPositive());
+    }
+
+    private List<Scenario> scenarios(WebClient webClient) {
+        MultipartBodyBuilder upload = new MultipartBodyBuilder();
+        upload.part("file", AUDIO).filename("upload.mp3").contentType(MediaType.parseMediaType("audio/mpeg"));
+        String bulkBody = LongStream.range(0, BULK_SIZE)
+                .mapToObj(i -> "{\"name\":\"Bulk " + i + "\"}")
+                .collect(Collectors.joining("\n"));
+        return List.of(
+                new Scenario("echo", 1.0, i -> webClient.get()
+                        .uri("/echo/ping-pong?message={message}", "ping")),
+                new Scenario("tracks.getById", 1.0, i -> webClient.get()
+                        .uri("/tracks/{uid}", this.trackId(i))),
+                new Scenario("tracks.getAll", 0.002, i -> webClient.get()
+                        .uri("/tracks").accept(MediaType.APPLICATION_JSON)),
+                new Scenario("tracks.page", 0.5, i -> webClient.get()
+                        .uri("/tracks?limit={limit}", PAGE_SIZE).accept(MediaType.APPLICATION_JSON)),
+                new Scenario("tracks.search", 1.0, i -> webClient.get()
+                        .uri("/tracks/search?q={q}", "track " + (i % TRACKS))),
+                new Scenario("tracks.streamAll", 0.002, i -> webClient.get()
+                        .uri("/tracks").accept(MediaType.APPLICATION_NDJSON)),
+                new Scenario("tracks.create", 0.2, i -> webClient.post()
+                        .uri("/tracks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of("name", "Created " + i))),
+                new Scenario("tracks.bulk", 0.01, i -> webClient.post()
+                        .uri("/tracks/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .bodyValue(bulkBody)),
+                new Scenario("tracks.update", 0.2, i -> webClient.put()
+                        .uri("/tracks/{uid}", this.trackId(i))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of("name", "Updated " + i))),
+                new Scenario("tracks.delete", 0.05, i -> webClient.delete()
+                        .uri("/tracks/{uid}", this.disposableTrackId(i))),
+                new Scenario("tracks.stream", 0.2, i -> webClient.get()
+                        .uri("/tracks/{uid}/stream", this.trackWithFileId(i))),
+                new Scenario("tracks.streamRange", 0.2, i -> webClient.get()
+                        .uri("/tracks/{uid}/stream", this.trackWithFileId(i))
+                        .header(HttpHeaders.RANGE, "bytes=0-65535")),
+                new Scenario("tracks.uploadUrl", 0.1, i -> webClient.post()
+                        .uri("/tracks/{uid}/upload-url", this.trackId(i))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of("filename", "audio.mp3", "contentType", "audio/mpeg", "contentLength", AUDIO.length))),
+                new Scenario("tracks.uploadComplete", 0.05, i -> webClient.post()
+                        .uri("/tracks/{uid}/upload-complete", this.trackWithFileId(i))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of("fileKey", this.fileKey(this.trackWithFileId(i))))),
+                new Scenario("tracks.downloadUrl", 0.5, i -> webClient.get()
+                        .uri("/tracks/{uid}/download-url", this.trackWithFileId(i))),
+                new Scenario("tracks.upload", 0.01, i -> webClient.post()
+                        .uri("/tracks/{uid}/upload", this.trackId(i))
+                        .contentType(MediaType.MULTIPART_FORM_DATA)
+                        .body(BodyInserters.fromMultipartData(upload.build()))),
+                new Scenario("playlists.getById", 1.0, i -> webClient.get()
+                        .uri("/playlists/{uid}", this.playlistId(i))),
+                new Scenario("playlists.exists", 1.0, i -> webClient.get()
+                        .uri("/playlists/{uid}/exists", this.playlistId(i))),
+                new Scenario("playlists.getAll", 0.01, i -> webClient.get()
+                        .uri("/playlists").accept(MediaType.APPLICATION_JSON)),
+                new Scenario("playlists.page", 0.5, i -> webClient.get()
+                        .uri("/playlists?limit={limit}", PAGE_SIZE).accept(MediaType.APPLICATION_JSON)),
+                new Scenario("playlists.tracksPage", 0.5, i -> webClient.get()
+                        .uri("/playlists/{uid}/tracks?limit={limit}", this.playlistId(i), PAGE_SIZE / 2)),
+                new Scenario("playlists.tracks", 0.5, i -> webClient.get()
+                        .uri("/playlists/{uid}/tracks", this.playlistId(i))),
+                new Scenario("playlists.create", 0.2, i -> webClient.post()
+                        .uri("/playlists")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of("name", "Created " + i, "trackIds", this.playlistTrackIds(i)))),
+                new Scenario("playlists.update", 0.1, i -> webClient.put()
+                        .uri("/playlists/{uid}", this.playlistId(i))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of("name", "Updated " + i, "trackIds", this.playlistTrackIds(i)))),
+                new Scenario("playlists.addTracks", 0.2, i -> webClient.put()
+                        .uri("/playlists/{uid}/addTracks", this.playlistId(i))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of("trackIds", List.of(this.trackId(i), this.trackId(i + 1))))),
+                new Scenario("playlists.moveTrack", 0.2, i -> webClient.put()
+                        .uri("/playlists/{uid}/moveTrack", this.playlistId(i))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of(
+                                "trackId", this.playlistTrackIds(i).get((int) (i % TRACKS_PER_PLAYLIST)),
+                                "afterTrackId", this.playlistTrackIds(i).get((int) ((i + 7) % TRACKS_PER_PLAYLIST))
+                        ))),
+                new Scenario("playlists.removeTracks", 0.2, i -> webClient.put()
+                        .uri("/playlists/{uid}/removeTracks", this.playlistId(i))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of("trackIds", List.of(this.trackId(i))))),
+                new Scenario("playlists.delete", 0.05, i -> webClient.delete()
+                        .uri("/playlists/{uid}", this.disposablePlaylistId(i)))
+        );
+    }
+
+    private void seed(long disposable) {
+        List<Map<String, AttributeValue>> tracks = new ArrayList<>();
+        List<Track> seededTracks = new ArrayList<>(TRACKS);
+        for (int i = 0; i < TRACKS; i++) {
+            String uid = this.trackId(i);
+            String fileKey = i < TRACKS_WITH_FILES ? this.fileKey(uid) : "";
+            Track track = new Track(uid, "Track " + i, fileKey, fileKey.isEmpty() ? "" : "s3://" + bucket + "/" + fileKey);
+            seededTracks.add(track);
+            tracks.add(track.toMap());
+            if (!fileKey.isEmpty()) {
+                s3.putObject(bucket, fileKey, "audio/mpeg", AUDIO);
+            }
+        }
+        for (long i = 0; i < disposable; i++) {
+            tracks.add(new Track(this.disposableTrackId(i), "Disposable " + i, "", "").toMap());
+        }
+        dynamoDb.putItems(DynamoDbTables.TRACKS, tracks);
+
+        List<Map<String, AttributeValue>> playlists = new ArrayList<>();
+        List<Map<String, AttributeValue>> entries = new ArrayList<>();
+        for (int i = 0; i < PLAYLISTS; i++) {
+            playlists.add(new Playlist(this.playlistId(i), "Playlist " + i, TRACKS_PER_PLAYLIST).toMap());
+            for (int offset = 0; offset < TRACKS_PER_PLAYLIST; offset++) {
+                Track track = seededTracks.get((i * TRACKS_PER_PLAYLIST + offset) % TRACKS);
+                BigDecimal position = PlaylistEntryService.POSITION_STEP.multiply(BigDecimal.valueOf(offset + 1L));
+                PlaylistEntry entry = PlaylistEntry.of(this.playlistId(i), position, track);
+                entries.add(entry.toMap());
+                entries.add(entry.toMemberMap());
+            }
+        }
+        for (long i = 0; i < disposable; i++) {
+            playlists.add(new Playlist(this.disposablePlaylistId(i), "Disposable " + i, 0).toMap());
+        }
+        dynamoDb.putItems(DynamoDbTables.PLAYLISTS, playlists);
+        dynamoDb.putItems(DynamoDbTables.PLAYLIST_ENTRIES, entries);
+    }
+
+    private String trackId(long sequence) {
+        return "track-%05d".formatted(sequence % TRACKS);
+    }
+
+    private String trackWithFileId(long sequence) {
+        return this.trackId(sequence % TRACKS_WITH_FILES);
+    }
+
+    private String disposableTrackId(long sequence) {
+        return "disposable-track-%07d".formatted(sequence);
+    }
+
+    private String playlistId(long sequence) {
+        return "playlist-%04d".formatted(sequence % PLAYLISTS);
+    }
+
+    private String disposablePlaylistId(long sequence) {
+        return "disposable-playlist-%07d".formatted(sequence);
+    }
+
+    private List<String> playlistTrackIds(long sequence) {
+        return LongStream.range(0, TRACKS_PER_PLAYLIST)
+                .mapToObj(offset -> this.trackId(sequence * TRACKS_PER_PLAYLIST + offset))
+                .toList();
+    }
+
+    private String fileKey(String trackId) {
+        return trackId + "/audio.mp3";
+    }
+
+    private record Scenario(String name, double rateFactor, LongFunction<WebClient.RequestHeadersSpec<?>> request) {
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.example.awssoundservice.benchmark;
+
+import com.example.awssoundservice.common.utils.FileUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class FileBufferingBenchmark {
+
+    private static final int NETWORK_CHUNK_SIZE = 8 * 1024;
+    private static final int PART_SIZE = 8 * 1024 * 1024;
+
+    @Param({"1024", "1048576", "104857600"})
+    private int fileSize;
+
+    private byte[] chunk;
+
+    @Setup
+    public void setUp() {
+        chunk = new byte[NETWORK_CHUNK_SIZE];
+        for (int i = 0; i < chunk.length; i++) {
+            chunk[i] = (byte) i;
+        }
+    }
+
+    @Benchmark
+    public ByteBuffer joinIntoSingleBuffer() {
+        return FileUtils.dataBuffersToByteBuffer(this.content()).block();
+    }
+
+    @Benchmark
+    public Long sliceIntoParts() {
+        return FileUtils.dataBuffersToChunks(this.content(), PART_SIZE, DefaultDataBufferFactory.sharedInstance)
+                .doOnNext(DataBufferUtils::release)
+                .count()
+                .block();
+    }
+
+    private Flux<DataBuffer> content() {
+        int chunks = (fileSize + NETWORK_CHUNK_SIZE - 1) / NETWORK_CHUNK_SIZE;
+        return Flux.range(0, chunks).map(index -> {
+            int length = Math.min(NETWORK_CHUNK_SIZE, fileSize - index * NETWORK_CHUNK_SIZE);
+            return DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(chunk, 0, length));
+        });
+    }
+
+}
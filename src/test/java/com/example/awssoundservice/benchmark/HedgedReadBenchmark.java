@@ -0,0 +1,92 @@
+package com.example.awssoundservice.benchmark;
+
+import com.example.awssoundservice.common.DynamoDbTables;
+import com.example.awssoundservice.common.concurrency.HedgedReads;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter;
+import com.example.awssoundservice.model.Track;
+import com.example.awssoundservice.service.BatchLoader;
+import com.example.awssoundservice.standin.FaultInjector;
+import com.example.awssoundservice.standin.InMemoryDynamoDbAsyncClient;
+import com.example.awssoundservice.standin.LatencyDistribution;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+class HedgedReadBenchmark {
+
+    private static final int TRACKS = 1_000;
+    private static final int REQUESTS = 20_000;
+    private static final int CONCURRENCY = 32;
+    private static final double SLOW_RATE = 0.02;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void getByIdWithSlowTail(boolean hedged) {
+        LatencyDistribution fast = LatencyDistribution.uniform(Duration.ofMillis(1), Duration.ofMillis(3));
+        LatencyDistribution slow = LatencyDistribution.uniform(Duration.ofMillis(50), Duration.ofMillis(100));
+        LatencyDistribution latency = random -> random.nextDouble() < SLOW_RATE
+                ? slow.sampleNanos(random)
+                : fast.sampleNanos(random);
+        InMemoryDynamoDbAsyncClient dynamoDb = new InMemoryDynamoDbAsyncClient(new FaultInjector(latency, 0, 0, 42));
+        dynamoDb.defineTable(DynamoDbTables.TRACKS, "uid", null);
+        List<Track> tracks = new ArrayList<>(TRACKS);
+        for (int i = 0; i < TRACKS; i++) {
+            tracks.add(new Track("track-" + i, "Track " + i, "", ""));
+        }
+        dynamoDb.putItems(DynamoDbTables.TRACKS, tracks.stream().map(Track::toMap).toList());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OutboundCallLimiter outboundCallLimiter = new OutboundCallLimiter(
+                meterRegistry,
+                new OutboundCallLimiter.Settings(false, null, 1, Duration.ZERO, Duration.ZERO, 0, 0)
+        );
+        HedgedReads hedgedReads = new HedgedReads(meterRegistry, new HedgedReads.Settings(
+                hedged, 95, Duration.ofMillis(1), Duration.ofMillis(500), 1024, 100, 5, 50
+        ));
+        Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+        try (BatchLoader<Track> loader = new BatchLoader<>(
+                DynamoDbTables.TRACKS, Track::from, dynamoDb, outboundCallLimiter, null, meterRegistry,
+                new BatchLoader.Settings(false, 1, Duration.ofMillis(1), 1, Duration.ofSeconds(5))
+        )) {
+            Long found = Flux.range(0, REQUESTS)
+                    .flatMap(i -> {
+                        String uid = "track-" + i % TRACKS;
+                        long started = System.nanoTime();
+                        return hedgedReads
+                                .execute("track.getById", () -> loader.load(uid), () -> loader.loadSingle(uid))
+                                .doOnNext(track -> latencies.recordValue(System.nanoTime() - started));
+                    }, CONCURRENCY)
+                    .count()
+                    .block();
+            assertThat(found).isEqualTo(REQUESTS);
+        }
+
+        double hedges = meterRegistry.counter("hedged.read.hedges", "operation", "track.getById").count();
+        double wins = meterRegistry.counter("hedged.read.wins", "operation", "track.getById").count();
+        System.out.printf(
+                "hedged=%s p50=%.2fms p99=%.2fms p999=%.2fms max=%.2fms hedgeRate=%.2f%% winRate=%.2f%%%n",
+                hedged,
+                latencies.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                latencies.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                latencies.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                latencies.getMaxValue() / NANOS_PER_MILLI,
+                hedges * 100 / REQUESTS,
+                hedges == 0 ? 0 : wins * 100 / hedges
+        );
+        assertThat(hedges).isLessThanOrEqualTo(REQUESTS * 0.05 + 50);
+    }
+
+}
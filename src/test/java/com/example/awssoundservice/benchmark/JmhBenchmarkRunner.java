@@ -0,0 +1,27 @@
+package com.example.awssoundservice.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@Tag("benchmark")
+class JmhBenchmarkRunner {
+
+    @Test
+    void runJmhBenchmarks() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("jmh.include", "com.example.awssoundservice.benchmark.*"))
+                .forks(Integer.getInteger("jmh.forks", 1))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+
+}
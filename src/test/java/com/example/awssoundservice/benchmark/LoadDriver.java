@@ -0,0 +1,121 @@
+package com.example.awssoundservice.benchmark;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+public class LoadDriver {
+
+    private static final long TICK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Duration warmup;
+    private final Duration duration;
+    private final int maxInFlight;
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public LoadDriver(Duration warmup, Duration duration, int maxInFlight) {
+        this.warmup = warmup;
+        this.duration = duration;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public LoadResult run(String scenario, double ratePerSecond, LongFunction<WebClient.RequestHeadersSpec<?>> request) {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long warmupRequests = Math.max(1, warmup.toNanos() / intervalNanos);
+        long measuredRequests = Math.max(1, duration.toNanos() / intervalNanos);
+
+        this.phase(request, 0, warmupRequests, intervalNanos, new Recording());
+
+        Recording recording = new Recording();
+        long allocatedBefore = threads.getTotalThreadAllocatedBytes();
+        long started = System.nanoTime();
+        this.phase(request, warmupRequests, measuredRequests, intervalNanos, recording);
+        long elapsed = System.nanoTime() - started;
+        long allocated = threads.getTotalThreadAllocatedBytes() - allocatedBefore;
+
+        Histogram latencies = recording.latencies;
+        long completed = latencies.getTotalCount();
+        return new LoadResult(
+                scenario,
+                ratePerSecond,
+                completed * (double) TimeUnit.SECONDS.toNanos(1) / elapsed,
+                completed,
+                recording.errors.sum(),
+                recording.dropped.sum(),
+                latencies.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                latencies.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                latencies.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                latencies.getMaxValue() / NANOS_PER_MILLI,
+                completed == 0 ? 0 : allocated / completed
+        );
+    }
+
+    private void phase(
+            LongFunction<WebClient.RequestHeadersSpec<?>> request,
+            long firstSequence,
+            long requests,
+            long intervalNanos,
+            Recording recording
+    ) {
+        AtomicInteger inFlight = new AtomicInteger();
+        long started = System.nanoTime();
+        long issued = 0;
+        while (issued < requests) {
+            long now = System.nanoTime();
+            while (issued < requests && started + issued * intervalNanos <= now) {
+                long intendedStart = started + issued * intervalNanos;
+                if (inFlight.get() >= maxInFlight) {
+                    recording.dropped.increment();
+                } else {
+                    inFlight.incrementAndGet();
+                    this.send(request.apply(firstSequence + issued), intendedStart, recording, inFlight);
+                }
+                issued++;
+            }
+            LockSupport.parkNanos(TICK_NANOS);
+        }
+        long deadline = System.nanoTime() + MAX_TRACKABLE_NANOS;
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TICK_NANOS);
+        }
+    }
+
+    private void send(
+            WebClient.RequestHeadersSpec<?> request, long intendedStart, Recording recording, AtomicInteger inFlight
+    ) {
+        request.exchangeToMono(response -> response.bodyToFlux(DataBuffer.class)
+                        .doOnNext(DataBufferUtils::release)
+                        .then(Mono.just(response.statusCode().is2xxSuccessful())))
+                .onErrorReturn(false)
+                .doFinally(signal -> inFlight.decrementAndGet())
+                .subscribe(success -> {
+                    recording.latencies.recordValue(Math.min(System.nanoTime() - intendedStart, MAX_TRACKABLE_NANOS));
+                    if (!success) {
+                        recording.errors.increment();
+                    }
+                });
+    }
+
+    private static class Recording {
+
+        private final Histogram latencies = new ConcurrentHistogram(MAX_TRACKABLE_NANOS, 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+    }
+
+}
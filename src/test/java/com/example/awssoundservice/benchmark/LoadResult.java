@@ -0,0 +1,29 @@
+package com.example.awssoundservice.benchmark;
+
+public record LoadResult(
+        String scenario,
+        double targetRps,
+        double achievedRps,
+        long requests,
+        long errors,
+        long dropped,
+        double p50Millis,
+        double p99Millis,
+        double p999Millis,
+        double maxMillis,
+        long allocatedBytesPerRequest
+) {
+
+    public static final String HEADER = "%-24s %9s %9s %8s %7s %7s %9s %9s %9s %9s %12s".formatted(
+            "scenario", "target/s", "actual/s", "requests", "errors", "dropped",
+            "p50 ms", "p99 ms", "p999 ms", "max ms", "alloc B/req"
+    );
+
+    public String toRow() {
+        return "%-24s %9.0f %9.0f %8d %7d %7d %9.2f %9.2f %9.2f %9.2f %12d".formatted(
+                scenario, targetRps, achievedRps, requests, errors, dropped,
+                p50Millis, p99Millis, p999Millis, maxMillis, allocatedBytesPerRequest
+        );
+    }
+
+}
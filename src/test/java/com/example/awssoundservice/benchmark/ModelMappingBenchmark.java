@@ -0,0 +1,113 @@
+package com.example.awssoundservice.benchmark;
+
+import com.example.awssoundservice.common.codec.AttributeCodecs;
+import com.example.awssoundservice.common.codec.PlaylistCodec;
+import com.example.awssoundservice.model.Playlist;
+import com.example.awssoundservice.model.PlaylistEntry;
+import com.example.awssoundservice.model.Track;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ModelMappingBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int playlistSize;
+
+    private Track track;
+    private Map<String, AttributeValue> trackItem;
+    private Playlist playlist;
+    private Map<String, AttributeValue> playlistItem;
+    private Map<String, AttributeValue> legacyPlaylistItem;
+    private Map<String, AttributeValue> playlistEntryItem;
+
+    @Setup
+    public void setUp() {
+        track = new Track(UUID.randomUUID().toString(), "Evening Conversation", "uid/track.mp3", "https://example.com/uid/track.mp3");
+        trackItem = track.toMap();
+        List<String> trackIds = new ArrayList<>(playlistSize);
+        for (int i = 0; i < playlistSize; i++) {
+            trackIds.add(UUID.randomUUID().toString());
+        }
+        playlist = new Playlist(UUID.randomUUID().toString(), "Chart", playlistSize);
+        playlistItem = playlist.toMap();
+        legacyPlaylistItem = new HashMap<>(Map.of(
+                "uid", AttributeValue.fromS(playlist.uid()),
+                "name", AttributeValue.fromS(playlist.name())
+        ));
+        legacyPlaylistItem.put(PlaylistCodec.LEGACY_TRACK_IDS, AttributeCodecs.stringSet(trackIds));
+        playlistEntryItem = PlaylistEntry.of(playlist.uid(), BigDecimal.valueOf(1024), track).toMap();
+    }
+
+    @Benchmark
+    public Track trackFrom() {
+        return Track.from(trackItem);
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> trackToMap() {
+        return track.toMap();
+    }
+
+    @Benchmark
+    public Playlist playlistFrom() {
+        return Playlist.from(playlistItem);
+    }
+
+    @Benchmark
+    public Playlist legacyPlaylistFrom() {
+        return Playlist.from(legacyPlaylistItem);
+    }
+
+    @Benchmark
+    public PlaylistEntry playlistEntryFrom() {
+        return PlaylistEntry.from(playlistEntryItem);
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> playlistToMap() {
+        return playlist.toMap();
+    }
+
+    @Benchmark
+    public Track trackFromHandBuilt() {
+        return new Track(
+                trackItem.get("uid").s(),
+                trackItem.get("name").s(),
+                trackItem.get("fileKey").s(),
+                trackItem.get("fileUrl").s()
+        );
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> trackToMapHandBuilt() {
+        return Map.of(
+                "uid", AttributeValue.builder().s(track.uid()).build(),
+                "name", AttributeValue.builder().s(track.name()).build(),
+                "fileKey", AttributeValue.builder().s(track.fileKey()).build(),
+                "fileUrl", AttributeValue.builder().s(track.fileUrl()).build()
+        );
+    }
+
+    @Benchmark
+    public Playlist playlistFromHandBuilt() {
+        return new Playlist(
+                playlistItem.get("uid").s(),
+                playlistItem.get("name").s(),
+                Integer.parseInt(playlistItem.get("trackCount").n())
+        );
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.example.awssoundservice.benchmark;
+
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter;
+import com.example.awssoundservice.service.ParallelScanService;
+import com.example.awssoundservice.service.ParallelScanService.ParallelScanRequest;
+import com.example.awssoundservice.standin.InMemoryDynamoDbAsyncClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+class ParallelScanBenchmark {
+
+    private static final String TABLE = "benchmark.tracks";
+    private static final int ITEMS = 20_000;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4, 16})
+    void scanWithSegments(int segments) {
+        InMemoryDynamoDbAsyncClient dynamoDb = new InMemoryDynamoDbAsyncClient(Duration.ofMillis(5));
+        List<Map<String, AttributeValue>> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(Map.of(
+                    "uid", AttributeValue.builder().s(UUID.randomUUID().toString()).build(),
+                    "name", AttributeValue.builder().s("Track " + i).build(),
+                    "fileKey", AttributeValue.builder().s("").build(),
+                    "fileUrl", AttributeValue.builder().s("").build()
+            ));
+        }
+        dynamoDb.putItems(TABLE, items);
+        OutboundCallLimiter outboundCallLimiter = new OutboundCallLimiter(
+                new SimpleMeterRegistry(),
+                new OutboundCallLimiter.Settings(false, null, 1, Duration.ZERO, Duration.ZERO, 0, 0)
+        );
+        ParallelScanService scanService = new ParallelScanService(dynamoDb, outboundCallLimiter);
+        ReflectionTestUtils.setField(scanService, "maxSegments", 16);
+        ReflectionTestUtils.setField(scanService, "bytesPerSegment", DataSize.ofGigabytes(1));
+
+        ParallelScanRequest request = new ParallelScanRequest(TABLE, segments, null, 100, null);
+        long started = System.nanoTime();
+        Long count = scanService.scan(request).count().block();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+
+        System.out.printf("segments=%d items=%d elapsed=%dms throughput=%.0f items/s%n",
+                segments, count, elapsedMillis, count * 1000.0 / Math.max(1, elapsedMillis));
+        assertThat(count).isEqualTo(ITEMS);
+    }
+
+}
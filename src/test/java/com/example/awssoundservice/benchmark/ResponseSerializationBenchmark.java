@@ -0,0 +1,52 @@
+package com.example.awssoundservice.benchmark;
+
+import com.example.awssoundservice.model.Track;
+import com.example.awssoundservice.response.GeneralResponse;
+import com.example.awssoundservice.response.PlaylistResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private GeneralResponse<List<Track>> tracksResponse;
+    private GeneralResponse<PlaylistResponse> playlistResponse;
+
+    @Setup
+    public void setUp() {
+        List<Track> tracks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String uid = UUID.randomUUID().toString();
+            tracks.add(new Track(uid, "Track " + i, uid + "/track.mp3", "https://example.com/" + uid + "/track.mp3"));
+        }
+        tracksResponse = GeneralResponse.successResponse(tracks);
+        playlistResponse = GeneralResponse.successResponse(new PlaylistResponse(
+                UUID.randomUUID().toString(), "Chart", tracks.stream().map(Track::uid).toList(), size
+        ));
+    }
+
+    @Benchmark
+    public byte[] serializeTracks() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tracksResponse);
+    }
+
+    @Benchmark
+    public byte[] serializePlaylist() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(playlistResponse);
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.example.awssoundservice.benchmark;
+
+import com.example.awssoundservice.model.Track;
+import com.example.awssoundservice.service.TrackSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TrackSearchBenchmark {
+
+    private static final String[] WORDS = {
+            "midnight", "city", "lights", "love", "song", "evening", "conversation", "river", "summer", "rain",
+            "dancing", "alone", "golden", "hour", "heart", "electric", "dreams", "ocean", "drive", "forever"
+    };
+
+    @Param({"10000", "100000"})
+    private int tracks;
+
+    @Param({"love", "mid nig", "golden hour dreams", "zzz"})
+    private String query;
+
+    private TrackSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new TrackSearchIndex(null, true, 100);
+        Random random = new Random(42);
+        for (int i = 0; i < tracks; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            index.put(new Track("track-" + i, name, "", ""));
+        }
+    }
+
+    @Benchmark
+    public List<Track> search() {
+        return index.search(query, 20);
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.example.awssoundservice.common.audio;
+
+import com.example.awssoundservice.model.AudioMetadata;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AudioMetadataExtractorTests {
+
+    private static final int PEAK_COUNT = 8;
+    private static final int FEED_SLICE = 7;
+
+    @Test
+    void mp3ReportsFramesAfterId3TagAndSkipsInfoFrame() {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.writeBytes(this.id3Tag(20));
+        file.writeBytes(this.mp3Frame(0xFB, 0x90, 0x00, 417, "Info", 36));
+        for (int i = 0; i < 10; i++) {
+            file.writeBytes(this.mp3Frame(0xFB, 0x90, 0x00, 417, null, 0));
+        }
+
+        AudioMetadata metadata = this.extract(file.toByteArray()).orElseThrow();
+
+        assertThat(metadata.codec()).isEqualTo("mp3");
+        assertThat(metadata.sampleRate()).isEqualTo(44_100);
+        assertThat(metadata.channels()).isEqualTo(2);
+        assertThat(metadata.durationMillis()).isEqualTo(10 * 1152 * 1000 / 44_100);
+        assertThat(metadata.bitrate()).isCloseTo(128_000, within(1_000));
+        assertThat(metadata.peaks()).isEmpty();
+    }
+
+    @Test
+    void mp3ReadsMpeg2MonoFrames() {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        for (int i = 0; i < 20; i++) {
+            file.writeBytes(this.mp3Frame(0xF3, 0x80, 0xC0, 208, null, 0));
+        }
+
+        AudioMetadata metadata = this.extract(file.toByteArray()).orElseThrow();
+
+        assertThat(metadata.sampleRate()).isEqualTo(22_050);
+        assertThat(metadata.channels()).isEqualTo(1);
+        assertThat(metadata.durationMillis()).isEqualTo(20 * 576 * 1000 / 22_050);
+        assertThat(metadata.bitrate()).isCloseTo(64_000, within(1_000));
+        assertThat(metadata.peaks()).isEmpty();
+    }
+
+    @Test
+    void wavReportsFormatAndPeaks() {
+        int sampleRate = 8_000;
+        ByteBuffer data = ByteBuffer.allocate(sampleRate * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int frame = 0; frame < sampleRate; frame++) {
+            short sample = (short) (frame < sampleRate / 2 ? 1_000 : 30_000);
+            data.putShort(sample).putShort((short) -sample);
+        }
+
+        AudioMetadata metadata = this.extract(this.wav(sampleRate, 2, 16, data.array())).orElseThrow();
+
+        assertThat(metadata.codec()).isEqualTo("pcm_s16le");
+        assertThat(metadata.sampleRate()).isEqualTo(sampleRate);
+        assertThat(metadata.channels()).isEqualTo(2);
+        assertThat(metadata.durationMillis()).isEqualTo(1_000);
+        assertThat(metadata.bitrate()).isEqualTo(sampleRate * 4 * 8);
+        assertThat(metadata.peaks()).hasSizeLessThanOrEqualTo(PEAK_COUNT).isNotEmpty();
+        assertThat(metadata.peaks()[metadata.peaks().length - 1] & 0xFF).isEqualTo(255);
+        assertThat(metadata.peaks()[0] & 0xFF).isLessThan(32);
+    }
+
+    @Test
+    void flacReadsStreamInfoWithoutPeaks() {
+        ByteBuffer file = ByteBuffer.allocate(4 + 4 + 34 + 100);
+        file.put("fLaC".getBytes(StandardCharsets.US_ASCII));
+        file.put(new byte[]{(byte) 0x80, 0x00, 0x00, 0x22});
+        file.put(new byte[10]);
+        file.put(new byte[]{0x0A, (byte) 0xC4, 0x42, (byte) 0xF0});
+        file.putInt(88_200);
+        file.put(new byte[16]);
+
+        AudioMetadata metadata = this.extract(file.array()).orElseThrow();
+
+        assertThat(metadata.codec()).isEqualTo("flac");
+        assertThat(metadata.sampleRate()).isEqualTo(44_100);
+        assertThat(metadata.channels()).isEqualTo(2);
+        assertThat(metadata.durationMillis()).isEqualTo(2_000);
+        assertThat(metadata.peaks()).isEmpty();
+    }
+
+    @Test
+    void unknownContentHasNoMetadata() {
+        assertThat(this.extract("not an audio file at all".getBytes(StandardCharsets.US_ASCII))).isEmpty();
+    }
+
+    private Optional<AudioMetadata> extract(byte[] file) {
+        AudioMetadataExtractor extractor = new AudioMetadataExtractor(PEAK_COUNT);
+        for (int offset = 0; offset < file.length; offset += FEED_SLICE) {
+            extractor.feed(ByteBuffer.wrap(file, offset, Math.min(FEED_SLICE, file.length - offset)));
+        }
+        return extractor.finish();
+    }
+
+    private byte[] id3Tag(int size) {
+        byte[] tag = new byte[10 + size];
+        tag[0] = 'I';
+        tag[1] = 'D';
+        tag[2] = '3';
+        tag[3] = 3;
+        tag[9] = (byte) size;
+        return tag;
+    }
+
+    private byte[] mp3Frame(int b1, int b2, int b3, int length, String tag, int tagOffset) {
+        byte[] frame = new byte[length];
+        frame[0] = (byte) 0xFF;
+        frame[1] = (byte) b1;
+        frame[2] = (byte) b2;
+        frame[3] = (byte) b3;
+        if (tag != null) {
+            byte[] ascii = tag.getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(ascii, 0, frame, tagOffset, ascii.length);
+        }
+        return frame;
+    }
+
+    private byte[] wav(int sampleRate, int channels, int bitsPerSample, byte[] data) {
+        int blockAlign = channels * bitsPerSample / 8;
+        ByteBuffer file = ByteBuffer.allocate(44 + data.length).order(ByteOrder.LITTLE_ENDIAN);
+        file.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(36 + data.length);
+        file.put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        file.put("fmt ".getBytes(StandardCharsets.US_ASCII)).putInt(16);
+        file.putShort((short) 1).putShort((short) channels).putInt(sampleRate).putInt(sampleRate * blockAlign);
+        file.putShort((short) blockAlign).putShort((short) bitsPerSample);
+        file.put("data".getBytes(StandardCharsets.US_ASCII)).putInt(data.length).put(data);
+        return file.array();
+    }
+
+}
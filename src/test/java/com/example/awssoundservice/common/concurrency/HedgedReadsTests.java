@@ -0,0 +1,63 @@
+package com.example.awssoundservice.common.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgedReadsTests {
+
+    private static final String OPERATION = "track.getById";
+
+    private SimpleMeterRegistry meterRegistry;
+    private HedgedReads hedgedReads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hedgedReads = new HedgedReads(meterRegistry, new HedgedReads.Settings(
+                true, 50, Duration.ofMillis(10), Duration.ofMillis(10), 4, 1, 100, 10
+        ));
+        hedgedReads.execute(OPERATION, () -> Mono.just("warm"), Mono::empty).block(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void losingPrimaryIsCancelledWhenHedgeWins() {
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+
+        String result = hedgedReads.execute(
+                OPERATION,
+                () -> Mono.<String>never().doOnCancel(() -> primaryCancelled.set(true)),
+                () -> Mono.just("hedge")
+        ).block(Duration.ofSeconds(5));
+
+        assertThat(result).isEqualTo("hedge");
+        assertThat(primaryCancelled).isTrue();
+        assertThat(meterRegistry.get("hedged.read.wins").tag("operation", OPERATION).counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void losingHedgeIsCancelledWhenPrimaryWins() {
+        AtomicBoolean hedgeCancelled = new AtomicBoolean();
+
+        String result = hedgedReads.execute(
+                OPERATION,
+                () -> Mono.delay(Duration.ofMillis(50)).thenReturn("primary"),
+                () -> Mono.<String>never().doOnCancel(() -> hedgeCancelled.set(true))
+        ).block(Duration.ofSeconds(5));
+
+        assertThat(result).isEqualTo("primary");
+        assertThat(hedgeCancelled).isTrue();
+        assertThat(meterRegistry.get("hedged.read.hedges").tag("operation", OPERATION).counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("hedged.read.wins").tag("operation", OPERATION).counter().count())
+                .isZero();
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.example.awssoundservice.common.concurrency;
+
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter.Operation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OutboundCallLimiterTests {
+
+    private static final String TABLE = "tracks";
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboundCallLimiter outboundCallLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AdaptiveConcurrencyLimiter.Settings limiterSettings = new AdaptiveConcurrencyLimiter.Settings(
+                10, 1, 10, 10, Duration.ofSeconds(1), 2.0, 0.5, Duration.ofSeconds(30)
+        );
+        outboundCallLimiter = new OutboundCallLimiter(meterRegistry, new OutboundCallLimiter.Settings(
+                true, limiterSettings, 3, Duration.ofMillis(1), Duration.ofMillis(5), 0.1, 10
+        ));
+    }
+
+    @Test
+    void throttledScansDoNotShrinkReadLimit() {
+        outboundCallLimiter.dynamoDb(TABLE, Operation.READ, () -> CompletableFuture.completedFuture("item"))
+                .block(Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> outboundCallLimiter.dynamoDb(
+                TABLE, Operation.SCAN, () -> CompletableFuture.failedFuture(this.throttled())
+        ).block(Duration.ofSeconds(5))).isInstanceOf(ResponseStatusException.class);
+
+        assertThat(this.gauge("aws.limiter.limit", Operation.SCAN)).isLessThan(10);
+        assertThat(this.gauge("aws.limiter.limit", Operation.READ)).isEqualTo(10);
+    }
+
+    @Test
+    void throttledCallIsRetriedWithinItsLane() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = outboundCallLimiter.dynamoDb(TABLE, Operation.QUERY, () -> calls.incrementAndGet() < 3
+                ? CompletableFuture.failedFuture(this.throttled())
+                : CompletableFuture.completedFuture("page")
+        ).block(Duration.ofSeconds(5));
+
+        assertThat(result).isEqualTo("page");
+        assertThat(calls).hasValue(3);
+        assertThat(meterRegistry.get("aws.limiter.retries").tag("operation", "query").counter().count())
+                .isEqualTo(2);
+        assertThat(this.gauge("aws.limiter.in.flight", Operation.QUERY)).isZero();
+    }
+
+    @Test
+    void writeIsRetriedOnlyWhenThrottled() {
+        AtomicInteger throttledCalls = new AtomicInteger();
+        AtomicInteger failedCalls = new AtomicInteger();
+
+        String result = outboundCallLimiter.dynamoDb(TABLE, Operation.WRITE, () -> throttledCalls.incrementAndGet() < 2
+                ? CompletableFuture.failedFuture(this.throttled())
+                : CompletableFuture.completedFuture("written")
+        ).block(Duration.ofSeconds(5));
+        assertThatThrownBy(() -> outboundCallLimiter.dynamoDb(TABLE, Operation.WRITE, () -> {
+            failedCalls.incrementAndGet();
+            return CompletableFuture.failedFuture(this.serverError());
+        }).block(Duration.ofSeconds(5))).isInstanceOf(AwsServiceException.class);
+
+        assertThat(result).isEqualTo("written");
+        assertThat(throttledCalls).hasValue(2);
+        assertThat(failedCalls).hasValue(1);
+    }
+
+    @Test
+    void idempotentReadIsRetriedOnServerError() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = outboundCallLimiter.dynamoDb(TABLE, Operation.READ, () -> calls.incrementAndGet() < 2
+                ? CompletableFuture.failedFuture(this.serverError())
+                : CompletableFuture.completedFuture("item")
+        ).block(Duration.ofSeconds(5));
+
+        assertThat(result).isEqualTo("item");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void streamHoldsPermitUntilBodyCompletes() {
+        OutboundCallLimiter.StreamLease<String> lease = outboundCallLimiter
+                .s3Stream("audio", () -> CompletableFuture.completedFuture("response"))
+                .block(Duration.ofSeconds(5));
+
+        assertThat(lease.response()).isEqualTo("response");
+        assertThat(this.gauge("aws.limiter.in.flight", Operation.STREAM)).isEqualTo(1);
+
+        Flux<Integer> body = lease.hold(Flux.range(0, 3));
+        assertThat(this.gauge("aws.limiter.in.flight", Operation.STREAM)).isEqualTo(1);
+        assertThat(body.collectList().block(Duration.ofSeconds(5))).containsExactly(0, 1, 2);
+        assertThat(this.gauge("aws.limiter.in.flight", Operation.STREAM)).isZero();
+    }
+
+    @Test
+    void cancelledStreamReleasesPermit() {
+        OutboundCallLimiter.StreamLease<String> lease = outboundCallLimiter
+                .s3Stream("audio", () -> CompletableFuture.completedFuture("response"))
+                .block(Duration.ofSeconds(5));
+
+        lease.hold(Flux.range(0, 100)).take(1).blockLast(Duration.ofSeconds(5));
+
+        assertThat(this.gauge("aws.limiter.in.flight", Operation.STREAM)).isZero();
+        assertThat(this.gauge("aws.limiter.limit", Operation.STREAM)).isEqualTo(10);
+    }
+
+    private double gauge(String name, Operation operation) {
+        return meterRegistry.get(name).tag("operation", operation.name().toLowerCase()).gauge().value();
+    }
+
+    private AwsServiceException throttled() {
+        return AwsServiceException.builder().statusCode(429).message("Slow down").build();
+    }
+
+    private AwsServiceException serverError() {
+        return AwsServiceException.builder().statusCode(500).message("Internal error").build();
+    }
+
+}
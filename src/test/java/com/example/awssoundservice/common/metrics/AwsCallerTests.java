@@ -0,0 +1,42 @@
+package com.example.awssoundservice.common.metrics;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AwsCallerTests {
+
+    @Test
+    void callSeesCallerFromReactorContext() {
+        String caller = AwsCaller.fromFuture(() -> CompletableFuture.completedFuture(AwsCaller.current()))
+                .contextWrite(AwsCaller.of("TrackService.getById"))
+                .block(Duration.ofSeconds(5));
+
+        assertThat(caller).isEqualTo("TrackService.getById");
+        assertThat(AwsCaller.current()).isEqualTo(AwsCaller.UNKNOWN);
+    }
+
+    @Test
+    void innermostCallerWins() {
+        String caller = Mono.just("ignored")
+                .flatMap(ignored -> AwsCaller.fromFuture(() -> CompletableFuture.completedFuture(AwsCaller.current()))
+                        .contextWrite(AwsCaller.of("TrackService.getByIds")))
+                .contextWrite(AwsCaller.of("PlaylistService.create"))
+                .block(Duration.ofSeconds(5));
+
+        assertThat(caller).isEqualTo("TrackService.getByIds");
+    }
+
+    @Test
+    void callWithoutCallerIsUnknown() {
+        String caller = AwsCaller.fromFuture(() -> CompletableFuture.completedFuture(AwsCaller.current()))
+                .block(Duration.ofSeconds(5));
+
+        assertThat(caller).isEqualTo(AwsCaller.UNKNOWN);
+    }
+
+}
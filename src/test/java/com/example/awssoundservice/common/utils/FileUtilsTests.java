@@ -0,0 +1,31 @@
+package com.example.awssoundservice.common.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileUtilsTests {
+
+    @Test
+    void safeFileNameKeepsOnlyLastPathSegment() {
+        assertThat(FileUtils.safeFileName("../../other-track/audio.mp3")).isEqualTo("audio.mp3");
+        assertThat(FileUtils.safeFileName("C:\\music\\song.flac")).isEqualTo("song.flac");
+    }
+
+    @Test
+    void safeFileNameReplacesUnsafeCharacters() {
+        assertThat(FileUtils.safeFileName("my song?#1.mp3")).isEqualTo("my_song__1.mp3");
+        assertThat(FileUtils.safeFileName("x".repeat(300) + ".mp3")).hasSize(200).endsWith(".mp3");
+    }
+
+    @Test
+    void safeFileNameRejectsEmptyAndDotNames() {
+        assertThatThrownBy(() -> FileUtils.safeFileName(null)).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> FileUtils.safeFileName("  ")).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> FileUtils.safeFileName("dir/..")).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> FileUtils.safeFileName("folder/")).isInstanceOf(ResponseStatusException.class);
+    }
+
+}
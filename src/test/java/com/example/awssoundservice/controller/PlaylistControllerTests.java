@@ -0,0 +1,105 @@
+package com.example.awssoundservice.controller;
+
+import com.example.awssoundservice.model.Playlist;
+import com.example.awssoundservice.model.Track;
+import com.example.awssoundservice.request.PlaylistCreateOrUpdateRequest;
+import com.example.awssoundservice.request.TrackCreateOrUpdateRequest;
+import com.example.awssoundservice.response.GeneralResponse;
+import com.example.awssoundservice.response.PlaylistResponse;
+import com.example.awssoundservice.service.PlaylistService;
+import com.example.awssoundservice.service.TrackService;
+import com.example.awssoundservice.standin.StandInAwsConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "track-file-cache.enabled=false",
+        "standin.dynamodb.latency-median=1ms",
+        "standin.dynamodb.latency-p99=2ms"
+})
+@AutoConfigureWebTestClient
+@Import(StandInAwsConfiguration.class)
+class PlaylistControllerTests {
+
+    private static final ParameterizedTypeReference<GeneralResponse<PlaylistResponse>> PLAYLIST_RESPONSE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private PlaylistService playlistService;
+
+    @Autowired
+    private TrackService trackService;
+
+    @Test
+    void listWithoutAcceptHeaderReturnsJsonEnvelope() {
+        Playlist playlist = playlistService.create(new PlaylistCreateOrUpdateRequest("Listed", List.of())).block();
+
+        webTestClient.get().uri("/playlists")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.statusCode").isEqualTo(200)
+                .jsonPath("$.data[?(@.uid == '%s')]".formatted(playlist.uid())).exists();
+    }
+
+    @Test
+    void listWithNdjsonAcceptHeaderStreamsPlaylists() {
+        Playlist playlist = playlistService.create(new PlaylistCreateOrUpdateRequest("Streamed", List.of())).block();
+
+        List<PlaylistResponse> playlists = webTestClient.get().uri("/playlists")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(PlaylistResponse.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(playlists).contains(new PlaylistResponse(playlist.uid(), "Streamed", List.of(), 0));
+    }
+
+    @Test
+    void playlistResponsesKeepTrackIdsInOrder() {
+        List<String> trackIds = Flux.range(0, 3)
+                .concatMap(i -> trackService.create(new TrackCreateOrUpdateRequest("Track " + i)))
+                .map(Track::uid)
+                .collectList()
+                .block();
+        List<String> reversed = List.of(trackIds.get(2), trackIds.get(1), trackIds.get(0));
+        Playlist playlist = playlistService.create(new PlaylistCreateOrUpdateRequest("Ordered", reversed)).block();
+
+        GeneralResponse<PlaylistResponse> found = webTestClient.get().uri("/playlists/{uid}", playlist.uid())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PLAYLIST_RESPONSE)
+                .returnResult()
+                .getResponseBody();
+        GeneralResponse<PlaylistResponse> deleted = webTestClient.delete().uri("/playlists/{uid}", playlist.uid())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PLAYLIST_RESPONSE)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(found.data()).isEqualTo(new PlaylistResponse(playlist.uid(), "Ordered", reversed, 3));
+        assertThat(deleted.data()).isEqualTo(found.data());
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.example.awssoundservice.controller;
+
+import com.example.awssoundservice.model.Track;
+import com.example.awssoundservice.request.TrackCreateOrUpdateRequest;
+import com.example.awssoundservice.service.TrackService;
+import com.example.awssoundservice.standin.InMemoryS3AsyncClient;
+import com.example.awssoundservice.standin.StandInAwsConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "track-file-cache.enabled=false",
+        "standin.dynamodb.latency-median=1ms",
+        "standin.dynamodb.latency-p99=2ms"
+})
+@AutoConfigureWebTestClient
+@Import(StandInAwsConfiguration.class)
+class TrackControllerTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private TrackService trackService;
+
+    @Autowired
+    private InMemoryS3AsyncClient s3;
+
+    @Value("${aws.s3.track-bucket}")
+    private String bucket;
+
+    @Test
+    void listWithoutAcceptHeaderReturnsJsonEnvelope() {
+        Track track = trackService.create(new TrackCreateOrUpdateRequest("Listed")).block();
+
+        webTestClient.get().uri("/tracks")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.statusCode").isEqualTo(200)
+                .jsonPath("$.data[?(@.uid == '%s')]".formatted(track.uid())).exists();
+    }
+
+    @Test
+    void listWithNdjsonAcceptHeaderStreamsTracks() {
+        Track track = trackService.create(new TrackCreateOrUpdateRequest("Streamed")).block();
+
+        List<Track> tracks = webTestClient.get().uri("/tracks")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Track.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(tracks).contains(track);
+    }
+
+    @Test
+    void rangeWithIfRangeDateIsServedOnlyWhenLastModifiedMatchesExactly() {
+        Track track = trackService.create(new TrackCreateOrUpdateRequest("Ranged")).block();
+        String fileKey = track.uid() + "/audio.mp3";
+        byte[] content = "ID3 ranged audio".getBytes(StandardCharsets.UTF_8);
+        s3.putObject(bucket, fileKey, "audio/mpeg", content);
+        trackService.attachFile(track.uid(), fileKey).block();
+        String lastModified = webTestClient.head().uri("/tracks/{uid}/stream", track.uid())
+                .exchange()
+                .returnResult(Void.class)
+                .getResponseHeaders()
+                .getFirst(HttpHeaders.LAST_MODIFIED);
+        String later = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.now(ZoneOffset.UTC).plusDays(1)
+        );
+
+        webTestClient.get().uri("/tracks/{uid}/stream", track.uid())
+                .header(HttpHeaders.RANGE, "bytes=0-2")
+                .header(HttpHeaders.IF_RANGE, lastModified)
+                .exchange()
+                .expectStatus().isEqualTo(206)
+                .expectBody(byte[].class).isEqualTo("ID3".getBytes(StandardCharsets.UTF_8));
+
+        webTestClient.get().uri("/tracks/{uid}/stream", track.uid())
+                .header(HttpHeaders.RANGE, "bytes=0-2")
+                .header(HttpHeaders.IF_RANGE, later)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(byte[].class).isEqualTo(content);
+    }
+
+}
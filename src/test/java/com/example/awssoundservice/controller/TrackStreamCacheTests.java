@@ -0,0 +1,94 @@
+package com.example.awssoundservice.controller;
+
+import com.example.awssoundservice.model.Track;
+import com.example.awssoundservice.request.TrackCreateOrUpdateRequest;
+import com.example.awssoundservice.service.TrackFileDiskCache;
+import com.example.awssoundservice.service.TrackService;
+import com.example.awssoundservice.standin.InMemoryS3AsyncClient;
+import com.example.awssoundservice.standin.StandInAwsConfiguration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = {
+        "standin.dynamodb.latency-median=1ms",
+        "standin.dynamodb.latency-p99=2ms"
+})
+@AutoConfigureWebTestClient
+@Import(StandInAwsConfiguration.class)
+class TrackStreamCacheTests {
+
+    private static final byte[] CONTENT = "ID3 cached audio".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    private static Path cacheDirectory;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private TrackService trackService;
+
+    @Autowired
+    private TrackFileDiskCache trackFileDiskCache;
+
+    @Autowired
+    private InMemoryS3AsyncClient s3;
+
+    @Value("${aws.s3.track-bucket}")
+    private String bucket;
+
+    @DynamicPropertySource
+    static void cacheProperties(DynamicPropertyRegistry registry) {
+        registry.add("track-file-cache.enabled", () -> "true");
+        registry.add("track-file-cache.directory", cacheDirectory::toString);
+    }
+
+    @Test
+    void openEndedRangeWarmsCacheAndCachedRangesAreServed() {
+        Track track = trackService.create(new TrackCreateOrUpdateRequest("Cached")).block();
+        String fileKey = track.uid() + "/audio.mp3";
+        s3.putObject(bucket, fileKey, "audio/mpeg", CONTENT);
+        trackService.attachFile(track.uid(), fileKey).block();
+
+        webTestClient.get().uri("/tracks/{uid}/stream", track.uid())
+                .header(HttpHeaders.RANGE, "bytes=0-")
+                .exchange()
+                .expectStatus().isEqualTo(206)
+                .expectBody(byte[].class).isEqualTo(CONTENT);
+        await().atMost(Duration.ofSeconds(5)).until(() -> trackFileDiskCache.get(fileKey).isPresent());
+
+        webTestClient.get().uri("/tracks/{uid}/stream", track.uid())
+                .header(HttpHeaders.RANGE, "bytes=4-9")
+                .exchange()
+                .expectStatus().isEqualTo(206)
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_RANGE, "bytes 4-9/" + CONTENT.length)
+                .expectBody(byte[].class).isEqualTo("cached".getBytes(StandardCharsets.UTF_8));
+
+        webTestClient.get().uri("/tracks/{uid}/stream", track.uid())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(byte[].class).isEqualTo(CONTENT);
+
+        webTestClient.get().uri("/tracks/{uid}/stream", track.uid())
+                .header(HttpHeaders.RANGE, "bytes=100-")
+                .exchange()
+                .expectStatus().isEqualTo(416)
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_RANGE, "bytes */" + CONTENT.length);
+    }
+
+}
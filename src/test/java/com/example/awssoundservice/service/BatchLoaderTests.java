@@ -0,0 +1,87 @@
+package com.example.awssoundservice.service;
+
+import com.example.awssoundservice.common.DynamoDbTables;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter;
+import com.example.awssoundservice.model.Track;
+import com.example.awssoundservice.standin.FaultInjector;
+import com.example.awssoundservice.standin.InMemoryDynamoDbAsyncClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchLoaderTests {
+
+    private static final int TRACKS = 200;
+
+    @Test
+    void saturatedDispatcherKeepsServingLoads() {
+        InMemoryDynamoDbAsyncClient dynamoDb = this.dynamoDb(FaultInjector.latencyOnly(Duration.ofMillis(10)));
+        BatchLoader.Settings settings = new BatchLoader.Settings(
+                true, 10, Duration.ofMillis(1), 2, Duration.ofSeconds(30)
+        );
+        try (BatchLoader<Track> loader = this.loader(dynamoDb, settings)) {
+            Long loaded = Flux.range(0, 5_000)
+                    .flatMap(i -> loader.load("track-" + i % TRACKS), 5_000)
+                    .count()
+                    .block(Duration.ofSeconds(60));
+
+            assertThat(loaded).isEqualTo(5_000);
+            assertThat(loader.load("track-1").block(Duration.ofSeconds(5)))
+                    .extracting(Track::name)
+                    .isEqualTo("Track 1");
+        }
+    }
+
+    @Test
+    void loadFailsAfterTimeoutInsteadOfHanging() {
+        InMemoryDynamoDbAsyncClient dynamoDb = this.dynamoDb(FaultInjector.latencyOnly(Duration.ofSeconds(2)));
+        BatchLoader.Settings settings = new BatchLoader.Settings(
+                true, 10, Duration.ofMillis(1), 1, Duration.ofMillis(100)
+        );
+        try (BatchLoader<Track> loader = this.loader(dynamoDb, settings)) {
+            assertThatThrownBy(() -> loader.load("track-1").block(Duration.ofSeconds(5)))
+                    .isInstanceOfSatisfying(ResponseStatusException.class, e ->
+                            assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        }
+    }
+
+    private InMemoryDynamoDbAsyncClient dynamoDb(FaultInjector faults) {
+        InMemoryDynamoDbAsyncClient dynamoDb = new InMemoryDynamoDbAsyncClient(faults);
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        for (int i = 0; i < TRACKS; i++) {
+            items.add(new Track("track-" + i, "Track " + i, "", "").toMap());
+        }
+        dynamoDb.putItems(DynamoDbTables.TRACKS, items);
+        return dynamoDb;
+    }
+
+    private BatchLoader<Track> loader(InMemoryDynamoDbAsyncClient dynamoDb, BatchLoader.Settings settings) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OutboundCallLimiter outboundCallLimiter = new OutboundCallLimiter(
+                meterRegistry,
+                new OutboundCallLimiter.Settings(false, null, 1, Duration.ZERO, Duration.ZERO, 0, 0)
+        );
+        BatchGetService batchGetService = new BatchGetService(dynamoDb, outboundCallLimiter);
+        ReflectionTestUtils.setField(batchGetService, "concurrency", 4);
+        ReflectionTestUtils.setField(batchGetService, "maxAttempts", 8);
+        ReflectionTestUtils.setField(batchGetService, "baseDelay", Duration.ofMillis(5));
+        ReflectionTestUtils.setField(batchGetService, "maxDelay", Duration.ofMillis(50));
+        return new BatchLoader<>(
+                DynamoDbTables.TRACKS, Track::from, dynamoDb, outboundCallLimiter, batchGetService, meterRegistry,
+                settings
+        );
+    }
+
+}
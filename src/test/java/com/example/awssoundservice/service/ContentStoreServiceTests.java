@@ -0,0 +1,123 @@
+package com.example.awssoundservice.service;
+
+import com.example.awssoundservice.common.DynamoDbTables;
+import com.example.awssoundservice.common.codec.AttributeCodecs;
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter;
+import com.example.awssoundservice.standin.InMemoryDynamoDbAsyncClient;
+import com.example.awssoundservice.standin.InMemoryS3AsyncClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentStoreServiceTests {
+
+    private static final String BUCKET = "tracks";
+    private static final byte[] CONTENT = "ID3 sample audio".getBytes(StandardCharsets.UTF_8);
+
+    private InMemoryDynamoDbAsyncClient dynamoDb;
+    private InMemoryS3AsyncClient s3;
+    private ContentStoreService contentStoreService;
+
+    @BeforeEach
+    void setUp() {
+        dynamoDb = new InMemoryDynamoDbAsyncClient(Duration.ZERO);
+        dynamoDb.defineTable(DynamoDbTables.TRACK_CONTENTS, "sha256", null);
+        s3 = new InMemoryS3AsyncClient(Duration.ZERO);
+        OutboundCallLimiter outboundCallLimiter = new OutboundCallLimiter(
+                new SimpleMeterRegistry(),
+                new OutboundCallLimiter.Settings(false, null, 1, Duration.ZERO, Duration.ZERO, 0, 0)
+        );
+        S3MultipartUploadService s3MultipartUploadService = new S3MultipartUploadService(s3, outboundCallLimiter);
+        ReflectionTestUtils.setField(s3MultipartUploadService, "partSize", DataSize.ofMegabytes(5));
+        ReflectionTestUtils.setField(s3MultipartUploadService, "concurrency", 1);
+        contentStoreService = new ContentStoreService(s3, dynamoDb, outboundCallLimiter, s3MultipartUploadService);
+        ReflectionTestUtils.setField(contentStoreService, "bucket", BUCKET);
+        ReflectionTestUtils.setField(contentStoreService, "enabled", true);
+        ReflectionTestUtils.setField(contentStoreService, "prefix", "content/");
+    }
+
+    @Test
+    void storeReclaimsUnreferencedEntry() throws Exception {
+        String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(CONTENT));
+        dynamoDb.putItems(DynamoDbTables.TRACK_CONTENTS, List.of(Map.of(
+                "sha256", AttributeValue.fromS(sha256),
+                "fileKey", AttributeValue.fromS("content/old"),
+                "size", AttributeCodecs.number(CONTENT.length)
+        )));
+        s3.putObject(BUCKET, "content/old", "audio/mpeg", CONTENT);
+
+        ContentStoreService.StoredContent stored = this.store("track-a", sha256);
+
+        assertThat(stored.deduplicated()).isFalse();
+        assertThat(stored.fileKey()).isNotEqualTo("content/old");
+        assertThat(s3.hasObject(BUCKET, stored.fileKey())).isTrue();
+        assertThat(s3.hasObject(BUCKET, "content/old")).isFalse();
+        Map<String, AttributeValue> entry = this.entry(sha256);
+        assertThat(entry.get("referencedBy").ss()).containsExactly("track-a");
+        assertThat(AttributeCodecs.requireString(entry, "fileKey")).isEqualTo(stored.fileKey());
+    }
+
+    @Test
+    void storeDeduplicatesLiveEntry() {
+        ContentStoreService.StoredContent first = this.store("track-a", null);
+        ContentStoreService.StoredContent second = this.store("track-b", null);
+
+        assertThat(second.deduplicated()).isTrue();
+        assertThat(second.fileKey()).isEqualTo(first.fileKey());
+        assertThat(s3.objectCount()).isEqualTo(1);
+        assertThat(this.entry(first.sha256()).get("referencedBy").ss()).containsExactlyInAnyOrder("track-a", "track-b");
+    }
+
+    @Test
+    void repeatedReferenceChangesAreIdempotent() {
+        ContentStoreService.StoredContent stored = this.store("track-a", null);
+        this.store("track-a", stored.sha256());
+        this.store("track-b", stored.sha256());
+
+        contentStoreService.release(stored.sha256(), "track-b").block(Duration.ofSeconds(5));
+        contentStoreService.release(stored.sha256(), "track-b").block(Duration.ofSeconds(5));
+
+        assertThat(this.entry(stored.sha256()).get("referencedBy").ss()).containsExactly("track-a");
+        assertThat(s3.hasObject(BUCKET, stored.fileKey())).isTrue();
+
+        contentStoreService.release(stored.sha256(), "track-a").block(Duration.ofSeconds(5));
+
+        assertThat(this.entry(stored.sha256())).isEmpty();
+        assertThat(s3.hasObject(BUCKET, stored.fileKey())).isFalse();
+    }
+
+    private ContentStoreService.StoredContent store(String trackId, String expectedSha256) {
+        return contentStoreService.store(trackId, "audio/mpeg", this.content(), expectedSha256)
+                .block(Duration.ofSeconds(5));
+    }
+
+    private Flux<DataBuffer> content() {
+        return Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(CONTENT)));
+    }
+
+    private Map<String, AttributeValue> entry(String sha256) {
+        GetItemRequest request = GetItemRequest.builder()
+                .tableName(DynamoDbTables.TRACK_CONTENTS)
+                .key(Map.of("sha256", AttributeValue.fromS(sha256)))
+                .consistentRead(true)
+                .build();
+        return dynamoDb.getItem(request).join().item();
+    }
+
+}
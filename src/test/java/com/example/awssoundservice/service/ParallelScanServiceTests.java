@@ -0,0 +1,61 @@
+package com.example.awssoundservice.service;
+
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter;
+import com.example.awssoundservice.standin.InMemoryDynamoDbAsyncClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelScanServiceTests {
+
+    private static final String TABLE = "tracks";
+
+    private final AtomicInteger describeCalls = new AtomicInteger();
+    private ParallelScanService parallelScanService;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryDynamoDbAsyncClient dynamoDb = new InMemoryDynamoDbAsyncClient(Duration.ZERO) {
+            @Override
+            public CompletableFuture<DescribeTableResponse> describeTable(DescribeTableRequest request) {
+                describeCalls.incrementAndGet();
+                return super.describeTable(request);
+            }
+        };
+        dynamoDb.defineTable(TABLE, "uid", null);
+        dynamoDb.putItems(TABLE, List.of(
+                Map.of("uid", AttributeValue.fromS("a")),
+                Map.of("uid", AttributeValue.fromS("b"))
+        ));
+        OutboundCallLimiter outboundCallLimiter = new OutboundCallLimiter(
+                new SimpleMeterRegistry(),
+                new OutboundCallLimiter.Settings(false, null, 1, Duration.ZERO, Duration.ZERO, 0, 0)
+        );
+        parallelScanService = new ParallelScanService(dynamoDb, outboundCallLimiter);
+        ReflectionTestUtils.setField(parallelScanService, "maxSegments", 16);
+        ReflectionTestUtils.setField(parallelScanService, "bytesPerSegment", DataSize.ofGigabytes(1));
+        ReflectionTestUtils.setField(parallelScanService, "sizeEstimateTtl", Duration.ofMinutes(5));
+    }
+
+    @Test
+    void segmentEstimateIsDescribedOncePerTable() {
+        assertThat(parallelScanService.scan(TABLE).count().block(Duration.ofSeconds(5))).isEqualTo(2);
+        assertThat(parallelScanService.scan(TABLE).count().block(Duration.ofSeconds(5))).isEqualTo(2);
+
+        assertThat(describeCalls).hasValue(1);
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.example.awssoundservice.service;
+
+import com.example.awssoundservice.common.DynamoDbTables;
+import com.example.awssoundservice.common.codec.AttributeCodecs;
+import com.example.awssoundservice.common.codec.ItemCodec;
+import com.example.awssoundservice.common.codec.PlaylistCodec;
+import com.example.awssoundservice.model.Playlist;
+import com.example.awssoundservice.model.PlaylistEntry;
+import com.example.awssoundservice.model.Track;
+import com.example.awssoundservice.request.PlaylistCreateOrUpdateRequest;
+import com.example.awssoundservice.request.PlaylistMoveTrackRequest;
+import com.example.awssoundservice.request.TrackCreateOrUpdateRequest;
+import com.example.awssoundservice.standin.InMemoryDynamoDbAsyncClient;
+import com.example.awssoundservice.standin.StandInAwsConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import reactor.core.publisher.Flux;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "track-file-cache.enabled=false",
+        "standin.dynamodb.latency-median=1ms",
+        "standin.dynamodb.latency-p99=2ms",
+        "standin.dynamodb.index-propagation-delay=1s"
+})
+@Import(StandInAwsConfiguration.class)
+class PlaylistServiceTests {
+
+    @Autowired
+    private PlaylistService playlistService;
+
+    @Autowired
+    private TrackService trackService;
+
+    @Autowired
+    private PlaylistEntryService playlistEntryService;
+
+    @Autowired
+    private InMemoryDynamoDbAsyncClient dynamoDb;
+
+    @Test
+    void moveTrackKeepsEntryFields() {
+        List<Track> tracks = this.createTracks(3);
+        List<String> trackIds = tracks.stream().map(Track::uid).toList();
+        Playlist playlist = playlistService.create(new PlaylistCreateOrUpdateRequest("Mix", trackIds)).block();
+
+        PlaylistMoveTrackRequest request = new PlaylistMoveTrackRequest(trackIds.get(0), trackIds.get(2));
+        playlistService.moveTrack(playlist.uid(), request).block();
+
+        List<Track> result = playlistService.getTracksByPlaylistId(playlist.uid()).block();
+        assertThat(result).containsExactly(tracks.get(1), tracks.get(2), tracks.get(0));
+    }
+
+    @Test
+    void updateReplacesTracksInRequestedOrder() {
+        List<Track> tracks = this.createTracks(4);
+        List<String> trackIds = tracks.stream().map(Track::uid).toList();
+        Playlist playlist = playlistService.create(new PlaylistCreateOrUpdateRequest("Mix", trackIds.subList(0, 3)))
+                .block();
+
+        Playlist updated = playlistService.update(playlist.uid(), new PlaylistCreateOrUpdateRequest(
+                "Renamed", List.of(trackIds.get(2), trackIds.get(3), trackIds.get(0))
+        )).block();
+
+        assertThat(updated).isEqualTo(new Playlist(playlist.uid(), "Renamed", 3));
+        assertThat(playlistService.findById(playlist.uid()).block()).isEqualTo(updated);
+        assertThat(playlistService.getTracksByPlaylistId(playlist.uid()).block())
+                .containsExactly(tracks.get(2), tracks.get(3), tracks.get(0));
+    }
+
+    @Test
+    void updateSpanningSeveralTransactionsKeepsEveryTrack() {
+        List<Track> tracks = this.createTracks(150);
+        List<String> trackIds = tracks.stream().map(Track::uid).toList();
+        Playlist playlist = playlistService.create(new PlaylistCreateOrUpdateRequest("Mix", trackIds.subList(0, 100)))
+                .block();
+
+        List<String> reversed = new ArrayList<>(trackIds);
+        Collections.reverse(reversed);
+        Playlist updated = playlistService.update(playlist.uid(), new PlaylistCreateOrUpdateRequest("Mix", reversed))
+                .block();
+
+        List<String> result = playlistService.getTracksByPlaylistId(playlist.uid()).block().stream()
+                .map(Track::uid)
+                .toList();
+        assertThat(result).containsExactlyElementsOf(reversed);
+        assertThat(updated.trackCount()).isEqualTo(150);
+        assertThat(playlistService.findById(playlist.uid()).block().trackCount()).isEqualTo(150);
+    }
+
+    @Test
+    void rebalanceKeepsOrderAndCount() {
+        List<Track> tracks = this.createTracks(5);
+        List<String> trackIds = tracks.stream().map(Track::uid).toList();
+        Playlist playlist = playlistService.create(new PlaylistCreateOrUpdateRequest("Mix", trackIds)).block();
+
+        playlistEntryService.rebalance(playlist.uid()).block();
+        playlistEntryService.rebalance(playlist.uid()).block();
+
+        assertThat(playlistService.getTracksByPlaylistId(playlist.uid()).block()).containsExactlyElementsOf(tracks);
+        assertThat(playlistService.findById(playlist.uid()).block().trackCount()).isEqualTo(5);
+    }
+
+    @Test
+    void addingPresentTrackDoesNotDuplicateIt() {
+        List<Track> tracks = this.createTracks(3);
+        List<String> trackIds = tracks.stream().map(Track::uid).toList();
+        Playlist playlist = playlistService.create(new PlaylistCreateOrUpdateRequest("Mix", trackIds.subList(0, 2)))
+                .block();
+
+        Playlist updated = playlistService.addTracksToPlaylist(playlist.uid(), trackIds.subList(1, 3)).block();
+
+        assertThat(updated.trackCount()).isEqualTo(3);
+        assertThat(playlistService.getTracksByPlaylistId(playlist.uid()).block()).containsExactlyElementsOf(tracks);
+    }
+
+    @Test
+    void removedTrackCanBeAddedAgainImmediately() {
+        List<Track> tracks = this.createTracks(3);
+        List<String> trackIds = tracks.stream().map(Track::uid).toList();
+        Playlist playlist = playlistService.create(new PlaylistCreateOrUpdateRequest("Mix", trackIds)).block();
+
+        playlistService.removeTracksFromPlaylist(playlist.uid(), List.of(trackIds.get(0))).block();
+        Playlist updated = playlistService.addTracksToPlaylist(playlist.uid(), List.of(trackIds.get(0))).block();
+
+        assertThat(updated.trackCount()).isEqualTo(3);
+        assertThat(playlistService.getTracksByPlaylistId(playlist.uid()).block())
+                .containsExactly(tracks.get(1), tracks.get(2), tracks.get(0));
+    }
+
+    @Test
+    void firstChangeIndexesMembersOfEntriesPlaylist() {
+        List<Track> tracks = this.createTracks(3);
+        String playlistId = UUID.randomUUID().toString();
+        Map<String, AttributeValue> header = new HashMap<>(new Playlist(playlistId, "Legacy", 3).toMap());
+        header.put(ItemCodec.SCHEMA_VERSION, AttributeCodecs.number(PlaylistCodec.ENTRIES_SCHEMA_VERSION));
+        dynamoDb.putItems(DynamoDbTables.PLAYLISTS, List.of(header));
+        dynamoDb.putItems(DynamoDbTables.PLAYLIST_ENTRIES, List.of(
+                PlaylistEntry.of(playlistId, BigDecimal.valueOf(1024), tracks.get(0)).toMap(),
+                PlaylistEntry.of(playlistId, BigDecimal.valueOf(2048), tracks.get(1)).toMap(),
+                PlaylistEntry.of(playlistId, BigDecimal.valueOf(3072), tracks.get(0)).toMap()
+        ));
+
+        Playlist updated = playlistService.removeTracksFromPlaylist(playlistId, List.of(tracks.get(1).uid())).block();
+        playlistService.addTracksToPlaylist(playlistId, List.of(tracks.get(0).uid(), tracks.get(2).uid())).block();
+
+        assertThat(updated.trackCount()).isEqualTo(1);
+        assertThat(playlistService.getTracksByPlaylistId(playlistId).block())
+                .containsExactly(tracks.get(0), tracks.get(2));
+        assertThat(playlistService.findById(playlistId).block().trackCount()).isEqualTo(2);
+    }
+
+    private List<Track> createTracks(int count) {
+        return Flux.range(0, count)
+                .concatMap(i -> trackService.create(new TrackCreateOrUpdateRequest("Track " + i))
+                        .flatMap(track -> trackService.attachFile(track.uid(), track.uid() + "/audio.mp3")))
+                .collectList()
+                .block();
+    }
+
+}
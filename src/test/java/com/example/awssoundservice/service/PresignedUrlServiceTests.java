@@ -0,0 +1,81 @@
+package com.example.awssoundservice.service;
+
+import com.example.awssoundservice.common.concurrency.OutboundCallLimiter;
+import com.example.awssoundservice.standin.InMemoryS3AsyncClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PresignedUrlServiceTests {
+
+    private static final String BUCKET = "tracks";
+
+    private InMemoryS3AsyncClient s3;
+    private S3Presigner s3Presigner;
+
+    @BeforeEach
+    void setUp() {
+        s3 = new InMemoryS3AsyncClient(Duration.ZERO);
+        s3Presigner = S3Presigner.builder()
+                .region(Region.EU_NORTH_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("key", "secret")))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3Presigner.close();
+    }
+
+    @Test
+    void refreshMarginMustBeShorterThanDownloadTtl() {
+        assertThatThrownBy(() -> this.service(Duration.ofMinutes(5), Duration.ofMinutes(5), Duration.ofHours(24)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> this.service(Duration.ofMinutes(5), Duration.ofMinutes(-1), Duration.ofHours(24)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void abortsOnlyUploadsOlderThanConfiguredAge() {
+        s3.createMultipartUpload(CreateMultipartUploadRequest.builder().bucket(BUCKET).key("track/a.mp3").build())
+                .join();
+        s3.createMultipartUpload(CreateMultipartUploadRequest.builder().bucket("other").key("track/b.mp3").build())
+                .join();
+
+        Long kept = this.service(Duration.ofHours(1), Duration.ofMinutes(5), Duration.ofHours(24))
+                .abortAbandonedUploads()
+                .block(Duration.ofSeconds(5));
+        assertThat(kept).isZero();
+        assertThat(s3.uploadCount()).isEqualTo(2);
+
+        Long aborted = this.service(Duration.ofHours(1), Duration.ofMinutes(5), Duration.ZERO)
+                .abortAbandonedUploads()
+                .block(Duration.ofSeconds(5));
+        assertThat(aborted).isEqualTo(1);
+        assertThat(s3.uploadCount()).isEqualTo(1);
+    }
+
+    private PresignedUrlService service(Duration downloadTtl, Duration refreshMargin, Duration abandonedUploadAge) {
+        OutboundCallLimiter outboundCallLimiter = new OutboundCallLimiter(new SimpleMeterRegistry(),
+                new OutboundCallLimiter.Settings(false, null, 1, Duration.ZERO, Duration.ZERO, 0, 0));
+        return new PresignedUrlService(
+                s3Presigner, s3, outboundCallLimiter, null, BUCKET,
+                Duration.ofMinutes(15), downloadTtl, refreshMargin,
+                DataSize.ofMegabytes(64), DataSize.ofMegabytes(16), 100,
+                abandonedUploadAge, Duration.ZERO
+        );
+    }
+
+}
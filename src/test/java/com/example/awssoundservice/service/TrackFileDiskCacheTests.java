@@ -0,0 +1,138 @@
+package com.example.awssoundservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class TrackFileDiskCacheTests {
+
+    private static final String FILE_KEY = "track/audio.mp3";
+    private static final byte[] CONTENT = "ID3 sample audio".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void startupDeletesOnlyCacheFiles() throws Exception {
+        Path foreign = Files.writeString(directory.resolve("notes.txt"), "keep");
+        Path nested = Files.createDirectories(directory.resolve("nested"));
+        Path leftover = Files.write(directory.resolve(UUID.randomUUID() + ".track"), CONTENT);
+        Path partial = Files.write(directory.resolve(UUID.randomUUID() + ".track.part"), CONTENT);
+
+        this.cache(DataSize.ofMegabytes(1));
+
+        assertThat(foreign).exists();
+        assertThat(nested).isDirectory();
+        assertThat(leftover).doesNotExist();
+        assertThat(partial).doesNotExist();
+    }
+
+    @Test
+    void servedFullObjectIsCached() throws Exception {
+        TrackFileDiskCache cache = this.cache(DataSize.ofMegabytes(1));
+
+        this.serve(cache, this.metadata(null));
+
+        TrackFileDiskCache.CachedFile file = this.awaitCached(cache);
+        assertThat(file.size()).isEqualTo(CONTENT.length);
+        assertThat(file.contentType()).isEqualTo("audio/mpeg");
+        assertThat(file.eTag()).isEqualTo("\"etag\"");
+        assertThat(Files.readAllBytes(file.path())).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void servedOpenEndedRangeFromStartIsCached() throws Exception {
+        TrackFileDiskCache cache = this.cache(DataSize.ofMegabytes(1));
+
+        this.serve(cache, this.metadata("bytes 0-" + (CONTENT.length - 1) + "/" + CONTENT.length));
+
+        assertThat(Files.readAllBytes(this.awaitCached(cache).path())).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void partialOversizedAndUnknownSizesAreNotCached() throws Exception {
+        TrackFileDiskCache cache = this.cache(DataSize.ofBytes(CONTENT.length - 1));
+        TrackFileDiskCache unbounded = this.cache(DataSize.ofMegabytes(1));
+
+        this.serve(cache, this.metadata(null));
+        this.serve(unbounded, this.metadata("bytes 4-" + (CONTENT.length - 1) + "/" + CONTENT.length));
+        this.serve(unbounded, GetObjectResponse.builder().contentType("audio/mpeg").build());
+
+        assertThat(cache.get(FILE_KEY)).isEmpty();
+        assertThat(unbounded.get(FILE_KEY)).isEmpty();
+        try (Stream<Path> entries = Files.list(directory)) {
+            assertThat(entries).isEmpty();
+        }
+    }
+
+    @Test
+    void cancelledStreamIsDiscarded() throws Exception {
+        TrackFileDiskCache cache = this.cache(DataSize.ofMegabytes(1));
+
+        cache.fillWhileStreaming(FILE_KEY, this.metadata(null), this.body()).take(1).blockLast(Duration.ofSeconds(5));
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            try (Stream<Path> entries = Files.list(directory)) {
+                assertThat(entries).isEmpty();
+            }
+        });
+        assertThat(cache.get(FILE_KEY)).isEmpty();
+    }
+
+    @Test
+    void openFileStaysReadableAfterEviction() throws Exception {
+        TrackFileDiskCache cache = this.cache(DataSize.ofMegabytes(1));
+        this.serve(cache, this.metadata(null));
+        this.awaitCached(cache);
+
+        TrackFileDiskCache.OpenFile openFile = cache.open(FILE_KEY).orElseThrow();
+        cache.invalidate(FILE_KEY);
+
+        assertThat(openFile.file().path()).doesNotExist();
+        assertThat(cache.open(FILE_KEY)).isEmpty();
+        ByteBuffer content = ByteBuffer.allocate(CONTENT.length);
+        assertThat(openFile.channel().read(content, 0).get()).isEqualTo(CONTENT.length);
+        assertThat(content.array()).isEqualTo(CONTENT);
+        openFile.close();
+    }
+
+    private void serve(TrackFileDiskCache cache, GetObjectResponse metadata) {
+        cache.fillWhileStreaming(FILE_KEY, metadata, this.body()).blockLast(Duration.ofSeconds(5));
+    }
+
+    private TrackFileDiskCache.CachedFile awaitCached(TrackFileDiskCache cache) {
+        await().atMost(Duration.ofSeconds(5)).until(() -> cache.get(FILE_KEY).isPresent());
+        return cache.get(FILE_KEY).orElseThrow();
+    }
+
+    private Flux<ByteBuffer> body() {
+        return Flux.just(ByteBuffer.wrap(CONTENT, 0, 5), ByteBuffer.wrap(CONTENT, 5, CONTENT.length - 5));
+    }
+
+    private GetObjectResponse metadata(String contentRange) {
+        return GetObjectResponse.builder()
+                .contentLength((long) CONTENT.length)
+                .contentRange(contentRange)
+                .contentType("audio/mpeg")
+                .eTag("\"etag\"")
+                .build();
+    }
+
+    private TrackFileDiskCache cache(DataSize maxFileSize) throws Exception {
+        return new TrackFileDiskCache(true, directory, DataSize.ofMegabytes(10), maxFileSize);
+    }
+
+}
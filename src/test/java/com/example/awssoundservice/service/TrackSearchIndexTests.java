@@ -0,0 +1,83 @@
+package com.example.awssoundservice.service;
+
+import com.example.awssoundservice.model.Track;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrackSearchIndexTests {
+
+    private TrackSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrackSearchIndex(null, true, 100);
+    }
+
+    @Test
+    void normalizeFoldsCaseAccentsAndPunctuation() {
+        assertThat(TrackSearchIndex.normalize("  Café del-Mar!  ")).isEqualTo("cafe del mar");
+        assertThat(TrackSearchIndex.normalize("Beyoncé – Halo (Remix) 2")).isEqualTo("beyonce halo remix 2");
+        assertThat(TrackSearchIndex.normalize("...")).isEmpty();
+        assertThat(TrackSearchIndex.normalize(null)).isEmpty();
+    }
+
+    @Test
+    void singleLetterQueryMatchesWordPrefixes() {
+        Track bohemian = this.put("1", "Bohemian Rhapsody");
+        Track beat = this.put("2", "Beat It");
+        this.put("3", "Thriller");
+        Track a = this.put("4", "A");
+
+        assertThat(index.search("b", 10)).containsExactlyInAnyOrder(bohemian, beat);
+        assertThat(index.search("R", 10)).containsExactly(bohemian);
+        assertThat(index.search("a", 10)).containsExactly(a);
+        assertThat(index.search("b i", 10)).containsExactly(beat);
+    }
+
+    @Test
+    void prefixQueryMatchesLongerWords() {
+        Track bohemian = this.put("1", "Bohemian Rhapsody");
+        this.put("2", "Rap God");
+
+        assertThat(index.search("rhap", 10)).containsExactly(bohemian);
+        assertThat(index.search("boh rha", 10)).containsExactly(bohemian);
+        assertThat(index.search("rhapsodies", 10)).isEmpty();
+    }
+
+    @Test
+    void exactAndLeadingMatchesRankFirst() {
+        Track endless = this.put("1", "Endless Love");
+        Track story = this.put("2", "Love Story");
+        Track love = this.put("3", "Love");
+        Track lovely = this.put("4", "Lovely Day");
+
+        assertThat(index.search("love", 10)).containsExactly(love, story, lovely, endless);
+        assertThat(index.search("love", 2)).containsExactly(love, story);
+    }
+
+    @Test
+    void removedAndRenamedTracksStopMatching() {
+        this.put("1", "Yesterday");
+        Track renamed = this.put("2", "Hey Jude");
+
+        index.remove("1");
+        index.put(new Track("2", "Let It Be", "", ""));
+
+        assertThat(index.search("yesterday", 10)).isEmpty();
+        assertThat(index.search("y", 10)).isEmpty();
+        assertThat(index.search("jude", 10)).isEmpty();
+        assertThat(index.search("let", 10)).extracting(Track::uid).containsExactly(renamed.uid());
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private Track put(String uid, String name) {
+        Track track = new Track(uid, name, "", "");
+        index.put(track);
+        return track;
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.example.awssoundservice.standin;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public class FaultInjector {
+
+    private final LatencyDistribution latency;
+    private final double throttleRate;
+    private final double errorRate;
+    private final Random random;
+
+    public FaultInjector(LatencyDistribution latency, double throttleRate, double errorRate, long seed) {
+        this.latency = latency;
+        this.throttleRate = throttleRate;
+        this.errorRate = errorRate;
+        this.random = new Random(seed);
+    }
+
+    public static FaultInjector latencyOnly(Duration latency) {
+        return new FaultInjector(LatencyDistribution.fixed(latency), 0, 0, 0);
+    }
+
+    public boolean shouldThrottle() {
+        return throttleRate > 0 && random.nextDouble() < throttleRate;
+    }
+
+    public <T> CompletableFuture<T> respond(
+            Supplier<T> supplier,
+            Supplier<? extends RuntimeException> throttled,
+            Supplier<? extends RuntimeException> failed
+    ) {
+        double roll = random.nextDouble();
+        Supplier<T> outcome;
+        if (roll < throttleRate) {
+            outcome = () -> {
+                throw throttled.get();
+            };
+        } else if (roll < throttleRate + errorRate) {
+            outcome = () -> {
+                throw failed.get();
+            };
+        } else {
+            outcome = supplier;
+        }
+        return CompletableFuture.supplyAsync(outcome, this.delayedExecutor());
+    }
+
+    private Executor delayedExecutor() {
+        long delay = latency.sampleNanos(random);
+        if (delay <= 0) {
+            return Runnable::run;
+        }
+        return CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS);
+    }
+
+}
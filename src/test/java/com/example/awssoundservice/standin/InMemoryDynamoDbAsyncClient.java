@@ -0,0 +1,873 @@
+package com.example.awssoundservice.standin;
+
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class InMemoryDynamoDbAsyncClient implements DynamoDbAsyncClient {
+
+    private static final String HASH_KEY = "uid";
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int READ_UNIT_BYTES = 4096;
+    private static final Pattern UPDATE_CLAUSE = Pattern.compile("(?i)\\b(SET|REMOVE|ADD|DELETE)\\b");
+    private static final Pattern FUNCTION = Pattern.compile("(\\w+)\\((.*)\\)");
+    private static final Pattern COMPARISON = Pattern.compile("(.+?)\\s*(<>|<=|>=|=|<|>)\\s*(.+)");
+
+    private final Map<String, Table> tables = new ConcurrentHashMap<>();
+    private final Object transactionLock = new Object();
+    private final FaultInjector faults;
+
+    public InMemoryDynamoDbAsyncClient(Duration latency) {
+        this(FaultInjector.latencyOnly(latency));
+    }
+
+    public InMemoryDynamoDbAsyncClient(FaultInjector faults) {
+        this.faults = faults;
+    }
+
+    public void defineTable(String tableName, String hashKey, String rangeKey) {
+        tables.put(tableName, new Table(hashKey, rangeKey));
+    }
+
+    public void defineIndex(
+            String tableName, String indexName, String hashKey, String rangeKey, ProjectionType projection
+    ) {
+        this.defineIndex(tableName, indexName, hashKey, rangeKey, projection, Duration.ZERO);
+    }
+
+    public void defineIndex(
+            String tableName,
+            String indexName,
+            String hashKey,
+            String rangeKey,
+            ProjectionType projection,
+            Duration propagationDelay
+    ) {
+        Table table = this.table(tableName);
+        List<String> projectedAttributes = switch (projection) {
+            case ALL -> null;
+            case KEYS_ONLY -> Stream.of(table.hashKey(), table.rangeKey(), hashKey, rangeKey)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .toList();
+            default -> throw new UnsupportedOperationException("Projection " + projection);
+        };
+        Index index = new Index(hashKey, rangeKey, projectedAttributes, propagationDelay.toNanos());
+        table.items().forEach((key, item) -> index.apply(key, null, item));
+        table.indexes().put(indexName, index);
+    }
+
+    public void putItems(String tableName, Collection<Map<String, AttributeValue>> items) {
+        Table table = this.table(tableName);
+        for (Map<String, AttributeValue> item : items) {
+            table.put(Map.copyOf(item));
+        }
+    }
+
+    public int itemCount(String tableName) {
+        return this.table(tableName).items.size();
+    }
+
+    @Override
+    public CompletableFuture<DescribeTableResponse> describeTable(DescribeTableRequest request) {
+        return this.respond(() -> {
+            Table table = this.table(request.tableName());
+            return DescribeTableResponse.builder()
+                    .table(TableDescription.builder()
+                            .tableName(request.tableName())
+                            .itemCount((long) table.items.size())
+                            .tableSizeBytes((long) table.items.size() * 256)
+                            .build())
+                    .build();
+        });
+    }
+
+    @Override
+    public CompletableFuture<GetItemResponse> getItem(GetItemRequest request) {
+        return this.respond(() -> {
+            Table table = this.table(request.tableName());
+            Map<String, AttributeValue> item = table.items.get(table.keyOf(request.key()));
+            GetItemResponse.Builder builder = GetItemResponse.builder();
+            if (item != null) {
+                builder.item(this.project(item, request.projectionExpression(), request.expressionAttributeNames()));
+            }
+            if (request.returnConsumedCapacity() == ReturnConsumedCapacity.TOTAL) {
+                builder.consumedCapacity(this.consumedCapacity(request.tableName(), this.readUnits(item)));
+            }
+            return builder.build();
+        });
+    }
+
+    @Override
+    public CompletableFuture<PutItemResponse> putItem(PutItemRequest request) {
+        return this.respond(() -> {
+            Table table = this.table(request.tableName());
+            Map<String, AttributeValue> item = Map.copyOf(request.item());
+            AtomicReference<Map<String, AttributeValue>> previous = new AtomicReference<>();
+            table.compute(table.keyOf(item), existing -> {
+                this.checkCondition(existing, request.conditionExpression(),
+                        request.expressionAttributeNames(), request.expressionAttributeValues());
+                previous.set(existing);
+                return item;
+            });
+            PutItemResponse.Builder builder = PutItemResponse.builder();
+            if (request.returnValues() == ReturnValue.ALL_OLD && previous.get() != null) {
+                builder.attributes(previous.get());
+            }
+            return builder.build();
+        });
+    }
+
+    @Override
+    public CompletableFuture<UpdateItemResponse> updateItem(UpdateItemRequest request) {
+        return this.respond(() -> {
+            Table table = this.table(request.tableName());
+            AtomicReference<Map<String, AttributeValue>> previous = new AtomicReference<>();
+            Map<String, AttributeValue> updated = table.compute(table.keyOf(request.key()), existing -> {
+                this.checkCondition(existing, request.conditionExpression(),
+                        request.expressionAttributeNames(), request.expressionAttributeValues());
+                previous.set(existing);
+                Map<String, AttributeValue> item = new HashMap<>(existing != null ? existing : request.key());
+                this.applyUpdate(item, request.updateExpression(),
+                        request.expressionAttributeNames(), request.expressionAttributeValues());
+                return Map.copyOf(item);
+            });
+            UpdateItemResponse.Builder builder = UpdateItemResponse.builder();
+            if (request.returnValues() == ReturnValue.ALL_NEW) {
+                builder.attributes(updated);
+            } else if (request.returnValues() == ReturnValue.ALL_OLD && previous.get() != null) {
+                builder.attributes(previous.get());
+            }
+            return builder.build();
+        });
+    }
+
+    @Override
+    public CompletableFuture<DeleteItemResponse> deleteItem(DeleteItemRequest request) {
+        return this.respond(() -> {
+            Table table = this.table(request.tableName());
+            AtomicReference<Map<String, AttributeValue>> previous = new AtomicReference<>();
+            table.compute(table.keyOf(request.key()), existing -> {
+                this.checkCondition(existing, request.conditionExpression(),
+                        request.expressionAttributeNames(), request.expressionAttributeValues());
+                previous.set(existing);
+                return null;
+            });
+            DeleteItemResponse.Builder builder = DeleteItemResponse.builder();
+            if (request.returnValues() == ReturnValue.ALL_OLD && previous.get() != null) {
+                builder.attributes(previous.get());
+            }
+            return builder.build();
+        });
+    }
+
+    @Override
+    public CompletableFuture<BatchGetItemResponse> batchGetItem(BatchGetItemRequest request) {
+        return this.respond(() -> {
+            Map<String, List<Map<String, AttributeValue>>> responses = new HashMap<>();
+            Map<String, KeysAndAttributes> unprocessed = new HashMap<>();
+            request.requestItems().forEach((tableName, keysAndAttributes) -> {
+                Table table = this.table(tableName);
+                List<Map<String, AttributeValue>> items = new ArrayList<>();
+                List<Map<String, AttributeValue>> unprocessedKeys = new ArrayList<>();
+                for (Map<String, AttributeValue> key : keysAndAttributes.keys()) {
+                    if (faults.shouldThrottle()) {
+                        unprocessedKeys.add(key);
+                        continue;
+                    }
+                    Map<String, AttributeValue> item = table.items.get(table.keyOf(key));
+                    if (item != null) {
+                        items.add(this.project(
+                                item, keysAndAttributes.projectionExpression(), keysAndAttributes.expressionAttributeNames()
+                        ));
+                    }
+                }
+                responses.put(tableName, items);
+                if (!unprocessedKeys.isEmpty()) {
+                    unprocessed.put(tableName, keysAndAttributes.toBuilder().keys(unprocessedKeys).build());
+                }
+            });
+            return BatchGetItemResponse.builder().responses(responses).unprocessedKeys(unprocessed).build();
+        });
+    }
+
+    @Override
+    public CompletableFuture<BatchWriteItemResponse> batchWriteItem(BatchWriteItemRequest request) {
+        return this.respond(() -> {
+            Map<String, List<WriteRequest>> unprocessed = new HashMap<>();
+            request.requestItems().forEach((tableName, writeRequests) -> {
+                Table table = this.table(tableName);
+                for (WriteRequest writeRequest : writeRequests) {
+                    if (faults.shouldThrottle()) {
+                        unprocessed.computeIfAbsent(tableName, name -> new ArrayList<>()).add(writeRequest);
+                    } else if (writeRequest.putRequest() != null) {
+                        table.put(Map.copyOf(writeRequest.putRequest().item()));
+                    } else if (writeRequest.deleteRequest() != null) {
+                        table.compute(table.keyOf(writeRequest.deleteRequest().key()), existing -> null);
+                    }
+                }
+            });
+            return BatchWriteItemResponse.builder().unprocessedItems(unprocessed).build();
+        });
+    }
+
+    @Override
+    public CompletableFuture<ScanResponse> scan(ScanRequest request) {
+        return this.respond(() -> {
+            Table table = this.table(request.tableName());
+            NavigableMap<String, Map<String, AttributeValue>> view = request.hasExclusiveStartKey()
+                    ? table.items.tailMap(table.keyOf(request.exclusiveStartKey()), false)
+                    : table.items;
+            int limit = request.limit() != null ? request.limit() : DEFAULT_PAGE_SIZE;
+            List<Map<String, AttributeValue>> items = new ArrayList<>(limit);
+            String lastKey = null;
+            Map<String, AttributeValue> lastItem = null;
+            double readUnits = 0;
+            for (Map.Entry<String, Map<String, AttributeValue>> entry : view.entrySet()) {
+                if (!this.inSegment(entry.getKey(), request.segment(), request.totalSegments())) {
+                    continue;
+                }
+                if (items.size() == limit) {
+                    break;
+                }
+                items.add(this.project(entry.getValue(), request.projectionExpression(), request.expressionAttributeNames()));
+                readUnits += this.readUnits(entry.getValue());
+                lastKey = entry.getKey();
+                lastItem = entry.getValue();
+            }
+            ScanResponse.Builder builder = ScanResponse.builder().items(items).count(items.size());
+            boolean hasMore = lastKey != null && table.items.tailMap(lastKey, false).keySet().stream()
+                    .anyMatch(key -> this.inSegment(key, request.segment(), request.totalSegments()));
+            if (hasMore) {
+                builder.lastEvaluatedKey(table.keyAttributes(lastItem));
+            }
+            if (request.returnConsumedCapacity() == ReturnConsumedCapacity.TOTAL) {
+                builder.consumedCapacity(this.consumedCapacity(request.tableName(), readUnits));
+            }
+            return builder.build();
+        });
+    }
+
+    @Override
+    public CompletableFuture<QueryResponse> query(QueryRequest request) {
+        return this.respond(() -> {
+            Table table = this.table(request.tableName());
+            Index index = request.indexName() != null ? table.indexes().get(request.indexName()) : null;
+            if (request.indexName() != null && index == null) {
+                throw new UnsupportedOperationException("Index " + request.indexName() + " is not defined");
+            }
+            if (index != null && Boolean.TRUE.equals(request.consistentRead())) {
+                throw DynamoDbException.builder()
+                        .message("Consistent reads are not supported on global secondary indexes")
+                        .statusCode(400)
+                        .awsErrorDetails(AwsErrorDetails.builder()
+                                .errorCode("ValidationException")
+                                .serviceName(SERVICE_NAME)
+                                .build())
+                        .build();
+            }
+            String hashKey = index != null ? index.hashKey() : table.hashKey();
+            String rangeKey = index != null ? index.rangeKey() : table.rangeKey();
+            Map<String, String> names = request.expressionAttributeNames();
+            Map<String, AttributeValue> values = request.expressionAttributeValues();
+            AttributeValue hashValue = null;
+            List<String> rangeConditions = new ArrayList<>();
+            for (String condition : request.keyConditionExpression().split("(?i)\\s+AND\\s+")) {
+                Matcher comparison = COMPARISON.matcher(condition.strip());
+                if (comparison.matches() && "=".equals(comparison.group(2))
+                        && hashKey.equals(this.resolveName(comparison.group(1), names))) {
+                    hashValue = values.get(comparison.group(3).strip());
+                } else {
+                    rangeConditions.add(condition.strip());
+                }
+            }
+            if (hashValue == null) {
+                throw new UnsupportedOperationException("Key condition " + request.keyConditionExpression());
+            }
+            Collection<Map<String, AttributeValue>> partition = index != null
+                    ? index.items(hashValue)
+                    : table.partition(hashValue);
+            Comparator<Map<String, AttributeValue>> order = Comparator.comparing(
+                    item -> rangeKey != null ? item.get(rangeKey) : null,
+                    Comparator.nullsFirst(this::compare)
+            );
+            order = order.thenComparing(table::keyOf);
+            if (Boolean.FALSE.equals(request.scanIndexForward())) {
+                order = order.reversed();
+            }
+            List<Map<String, AttributeValue>> matching = partition.stream()
+                    .filter(item -> rangeConditions.stream().allMatch(condition -> this.evaluate(item, condition, names, values)))
+                    .sorted(order)
+                    .toList();
+            int start = 0;
+            if (request.hasExclusiveStartKey()) {
+                String startKey = table.keyOf(request.exclusiveStartKey());
+                for (int i = 0; i < matching.size(); i++) {
+                    if (table.keyOf(matching.get(i)).equals(startKey)) {
+                        start = i + 1;
+                        break;
+                    }
+                }
+            }
+            int end = request.limit() != null ? Math.min(matching.size(), start + request.limit()) : matching.size();
+            List<Map<String, AttributeValue>> items = new ArrayList<>(end - start);
+            double readUnits = 0;
+            for (Map<String, AttributeValue> item : matching.subList(start, end)) {
+                items.add(this.project(item, request.projectionExpression(), names));
+                readUnits += this.readUnits(item);
+            }
+            QueryResponse.Builder builder = QueryResponse.builder().items(items).count(items.size());
+            if (end < matching.size()) {
+                Map<String, AttributeValue> lastItem = matching.get(end - 1);
+                Map<String, AttributeValue> lastKey = new HashMap<>(table.keyAttributes(lastItem));
+                if (index != null) {
+                    lastKey.put(index.hashKey(), lastItem.get(index.hashKey()));
+                    if (index.rangeKey() != null) {
+                        lastKey.put(index.rangeKey(), lastItem.get(index.rangeKey()));
+                    }
+                }
+                builder.lastEvaluatedKey(lastKey);
+            }
+            if (request.returnConsumedCapacity() == ReturnConsumedCapacity.TOTAL) {
+                builder.consumedCapacity(this.consumedCapacity(request.tableName(), readUnits));
+            }
+            return builder.build();
+        });
+    }
+
+    @Override
+    public CompletableFuture<TransactWriteItemsResponse> transactWriteItems(TransactWriteItemsRequest request) {
+        return this.respond(() -> {
+            synchronized (transactionLock) {
+                List<CancellationReason> reasons = new ArrayList<>(request.transactItems().size());
+                boolean cancelled = false;
+                for (TransactWriteItem item : request.transactItems()) {
+                    TransactTarget target = this.transactTarget(item);
+                    Table table = this.table(target.tableName());
+                    try {
+                        this.checkCondition(table.items().get(table.keyOf(target.key())), target.condition(),
+                                target.names(), target.values());
+                        reasons.add(CancellationReason.builder().code("None").build());
+                    } catch (ConditionalCheckFailedException e) {
+                        reasons.add(CancellationReason.builder()
+                                .code("ConditionalCheckFailed")
+                                .message(e.getMessage())
+                                .build());
+                        cancelled = true;
+                    }
+                }
+                if (cancelled) {
+                    throw TransactionCanceledException.builder()
+                            .message("Transaction cancelled, please refer cancellation reasons for specific reasons")
+                            .cancellationReasons(reasons)
+                            .statusCode(400)
+                            .awsErrorDetails(AwsErrorDetails.builder()
+                                    .errorCode("TransactionCanceledException")
+                                    .serviceName(SERVICE_NAME)
+                                    .build())
+                            .build();
+                }
+                for (TransactWriteItem item : request.transactItems()) {
+                    if (item.put() != null) {
+                        this.table(item.put().tableName()).put(Map.copyOf(item.put().item()));
+                    } else if (item.update() != null) {
+                        Update update = item.update();
+                        Table table = this.table(update.tableName());
+                        table.compute(table.keyOf(update.key()), existing -> {
+                            Map<String, AttributeValue> updated = new HashMap<>(existing != null ? existing : update.key());
+                            this.applyUpdate(updated, update.updateExpression(),
+                                    update.expressionAttributeNames(), update.expressionAttributeValues());
+                            return Map.copyOf(updated);
+                        });
+                    } else if (item.delete() != null) {
+                        Table table = this.table(item.delete().tableName());
+                        table.compute(table.keyOf(item.delete().key()), existing -> null);
+                    }
+                }
+            }
+            return TransactWriteItemsResponse.builder().build();
+        });
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private void checkCondition(
+            Map<String, AttributeValue> item,
+            String expression,
+            Map<String, String> names,
+            Map<String, AttributeValue> values
+    ) {
+        if (expression == null || expression.isBlank()) {
+            return;
+        }
+        boolean satisfied = Arrays.stream(expression.split("(?i)\\s+OR\\s+"))
+                .anyMatch(disjunct -> Arrays.stream(disjunct.split("(?i)\\s+AND\\s+"))
+                        .allMatch(condition -> this.evaluate(item, condition.strip(), names, values)));
+        if (!satisfied) {
+            throw ConditionalCheckFailedException.builder()
+                    .message("The conditional request failed")
+                    .statusCode(400)
+                    .awsErrorDetails(AwsErrorDetails.builder()
+                            .errorCode("ConditionalCheckFailedException")
+                            .serviceName(SERVICE_NAME)
+                            .build())
+                    .build();
+        }
+    }
+
+    private boolean evaluate(
+            Map<String, AttributeValue> item, String condition, Map<String, String> names, Map<String, AttributeValue> values
+    ) {
+        Map<String, AttributeValue> current = item != null ? item : Map.of();
+        Matcher function = FUNCTION.matcher(condition);
+        if (function.matches()) {
+            List<String> arguments = this.splitTopLevel(function.group(2));
+            String path = this.resolveName(arguments.get(0), names);
+            return switch (function.group(1)) {
+                case "attribute_exists" -> current.containsKey(path);
+                case "attribute_not_exists" -> !current.containsKey(path);
+                case "begins_with" -> current.containsKey(path)
+                        && current.get(path).s() != null
+                        && current.get(path).s().startsWith(values.get(arguments.get(1)).s());
+                default -> throw new UnsupportedOperationException("Condition function " + function.group(1));
+            };
+        }
+        Matcher comparison = COMPARISON.matcher(condition);
+        if (!comparison.matches()) {
+            throw new UnsupportedOperationException("Condition " + condition);
+        }
+        AttributeValue left = this.operand(current, comparison.group(1).strip(), names, values);
+        AttributeValue right = this.operand(current, comparison.group(3).strip(), names, values);
+        if (left == null || right == null) {
+            return "<>".equals(comparison.group(2)) && left != right;
+        }
+        int order = this.compare(left, right);
+        return switch (comparison.group(2)) {
+            case "=" -> order == 0;
+            case "<>" -> order != 0;
+            case "<" -> order < 0;
+            case "<=" -> order <= 0;
+            case ">" -> order > 0;
+            default -> order >= 0;
+        };
+    }
+
+    private void applyUpdate(
+            Map<String, AttributeValue> item, String expression, Map<String, String> names, Map<String, AttributeValue> values
+    ) {
+        Matcher clauses = UPDATE_CLAUSE.matcher(expression);
+        List<int[]> bounds = new ArrayList<>();
+        while (clauses.find()) {
+            bounds.add(new int[]{clauses.start(), clauses.end()});
+        }
+        for (int i = 0; i < bounds.size(); i++) {
+            String action = expression.substring(bounds.get(i)[0], bounds.get(i)[1]).toUpperCase(Locale.ROOT);
+            int end = i + 1 < bounds.size() ? bounds.get(i + 1)[0] : expression.length();
+            for (String part : this.splitTopLevel(expression.substring(bounds.get(i)[1], end))) {
+                switch (action) {
+                    case "SET" -> {
+                        int assignment = part.indexOf('=');
+                        String path = this.resolveName(part.substring(0, assignment).strip(), names);
+                        item.put(path, this.setValue(item, part.substring(assignment + 1).strip(), names, values));
+                    }
+                    case "REMOVE" -> item.remove(this.resolveName(part, names));
+                    case "ADD" -> {
+                        String[] tokens = part.split("\\s+");
+                        String path = this.resolveName(tokens[0], names);
+                        item.put(path, this.add(item.get(path), values.get(tokens[1])));
+                    }
+                    default -> {
+                        String[] tokens = part.split("\\s+");
+                        String path = this.resolveName(tokens[0], names);
+                        AttributeValue remaining = this.delete(item.get(path), values.get(tokens[1]));
+                        if (remaining == null) {
+                            item.remove(path);
+                        } else {
+                            item.put(path, remaining);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private AttributeValue setValue(
+            Map<String, AttributeValue> item, String expression, Map<String, String> names, Map<String, AttributeValue> values
+    ) {
+        List<String> terms = this.splitArithmetic(expression);
+        AttributeValue result = this.operand(item, terms.get(0), names, values);
+        for (int i = 1; i < terms.size(); i += 2) {
+            BigDecimal right = new BigDecimal(this.operand(item, terms.get(i + 1), names, values).n());
+            BigDecimal left = new BigDecimal(result.n());
+            BigDecimal value = "+".equals(terms.get(i)) ? left.add(right) : left.subtract(right);
+            result = AttributeValue.builder().n(value.toPlainString()).build();
+        }
+        return result;
+    }
+
+    private AttributeValue operand(
+            Map<String, AttributeValue> item, String token, Map<String, String> names, Map<String, AttributeValue> values
+    ) {
+        if (token.startsWith(":")) {
+            return values.get(token);
+        }
+        Matcher function = FUNCTION.matcher(token);
+        if (function.matches() && "if_not_exists".equals(function.group(1))) {
+            List<String> arguments = this.splitTopLevel(function.group(2));
+            AttributeValue existing = item.get(this.resolveName(arguments.get(0), names));
+            return existing != null ? existing : this.operand(item, arguments.get(1), names, values);
+        }
+        return item.get(this.resolveName(token, names));
+    }
+
+    private AttributeValue add(AttributeValue current, AttributeValue value) {
+        if (value.n() != null) {
+            BigDecimal base = current != null ? new BigDecimal(current.n()) : BigDecimal.ZERO;
+            return AttributeValue.builder().n(base.add(new BigDecimal(value.n())).toPlainString()).build();
+        }
+        Set<String> merged = new LinkedHashSet<>(current != null ? current.ss() : List.of());
+        merged.addAll(value.ss());
+        return AttributeValue.builder().ss(merged).build();
+    }
+
+    private AttributeValue delete(AttributeValue current, AttributeValue value) {
+        if (current == null) {
+            return null;
+        }
+        Set<String> remaining = new LinkedHashSet<>(current.ss());
+        value.ss().forEach(remaining::remove);
+        return remaining.isEmpty() ? null : AttributeValue.builder().ss(remaining).build();
+    }
+
+    private int compare(AttributeValue left, AttributeValue right) {
+        if (left.n() != null && right.n() != null) {
+            return new BigDecimal(left.n()).compareTo(new BigDecimal(right.n()));
+        }
+        if (left.s() != null && right.s() != null) {
+            return left.s().compareTo(right.s());
+        }
+        return left.equals(right) ? 0 : 1;
+    }
+
+    private Map<String, AttributeValue> project(
+            Map<String, AttributeValue> item, String projectionExpression, Map<String, String> names
+    ) {
+        if (projectionExpression == null || projectionExpression.isBlank()) {
+            return item;
+        }
+        Map<String, AttributeValue> projected = new HashMap<>();
+        for (String token : projectionExpression.split(",")) {
+            String name = this.resolveName(token.strip(), names);
+            AttributeValue value = item.get(name);
+            if (value != null) {
+                projected.put(name, value);
+            }
+        }
+        return projected;
+    }
+
+    private List<String> splitTopLevel(String expression) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                parts.add(expression.substring(start, i).strip());
+                start = i + 1;
+            }
+        }
+        String last = expression.substring(start).strip();
+        if (!last.isEmpty()) {
+            parts.add(last);
+        }
+        return parts;
+    }
+
+    private List<String> splitArithmetic(String expression) {
+        List<String> terms = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if ((c == '+' || c == '-') && depth == 0) {
+                terms.add(expression.substring(start, i).strip());
+                terms.add(String.valueOf(c));
+                start = i + 1;
+            }
+        }
+        terms.add(expression.substring(start).strip());
+        return terms;
+    }
+
+    private String resolveName(String token, Map<String, String> names) {
+        String name = token.strip();
+        return name.startsWith("#") && names != null ? names.get(name) : name;
+    }
+
+    private double readUnits(Map<String, AttributeValue> item) {
+        if (item == null) {
+            return 0.5;
+        }
+        long bytes = 0;
+        for (Map.Entry<String, AttributeValue> entry : item.entrySet()) {
+            bytes += entry.getKey().length() + this.sizeOf(entry.getValue());
+        }
+        return Math.ceil((double) bytes / READ_UNIT_BYTES) * 0.5;
+    }
+
+    private long sizeOf(AttributeValue value) {
+        if (value.s() != null) {
+            return value.s().length();
+        }
+        if (value.n() != null) {
+            return value.n().length();
+        }
+        if (value.hasSs()) {
+            return value.ss().stream().mapToLong(String::length).sum();
+        }
+        SdkBytes bytes = value.b();
+        return bytes != null ? bytes.asByteBuffer().remaining() : 1;
+    }
+
+    private ConsumedCapacity consumedCapacity(String tableName, double units) {
+        return ConsumedCapacity.builder().tableName(tableName).capacityUnits(units).build();
+    }
+
+    private boolean inSegment(String key, Integer segment, Integer totalSegments) {
+        if (segment == null || totalSegments == null) {
+            return true;
+        }
+        return Math.floorMod(key.hashCode(), totalSegments) == segment;
+    }
+
+    private TransactTarget transactTarget(TransactWriteItem item) {
+        if (item.put() != null) {
+            Put put = item.put();
+            Table table = this.table(put.tableName());
+            return new TransactTarget(put.tableName(), table.keyAttributes(put.item()), put.conditionExpression(),
+                    put.expressionAttributeNames(), put.expressionAttributeValues());
+        }
+        if (item.update() != null) {
+            Update update = item.update();
+            return new TransactTarget(update.tableName(), update.key(), update.conditionExpression(),
+                    update.expressionAttributeNames(), update.expressionAttributeValues());
+        }
+        if (item.delete() != null) {
+            Delete delete = item.delete();
+            return new TransactTarget(delete.tableName(), delete.key(), delete.conditionExpression(),
+                    delete.expressionAttributeNames(), delete.expressionAttributeValues());
+        }
+        ConditionCheck check = item.conditionCheck();
+        return new TransactTarget(check.tableName(), check.key(), check.conditionExpression(),
+                check.expressionAttributeNames(), check.expressionAttributeValues());
+    }
+
+    private Table table(String tableName) {
+        return tables.computeIfAbsent(tableName, name -> new Table(HASH_KEY, null));
+    }
+
+    private <T extends DynamoDbResponse> CompletableFuture<T> respond(Supplier<T> supplier) {
+        return faults.respond(
+                supplier,
+                () -> ProvisionedThroughputExceededException.builder()
+                        .message("Rate of requests exceeds the allowed throughput")
+                        .statusCode(400)
+                        .awsErrorDetails(AwsErrorDetails.builder()
+                                .errorCode("ProvisionedThroughputExceededException")
+                                .serviceName(SERVICE_NAME)
+                                .build())
+                        .build(),
+                () -> DynamoDbException.builder()
+                        .message("Internal server error")
+                        .statusCode(500)
+                        .awsErrorDetails(AwsErrorDetails.builder()
+                                .errorCode("InternalServerError")
+                                .serviceName(SERVICE_NAME)
+                                .build())
+                        .build()
+        ).thenApply(this::withHttpResponse);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends DynamoDbResponse> T withHttpResponse(T response) {
+        return (T) response.toBuilder()
+                .sdkHttpResponse(SdkHttpResponse.builder().statusCode(200).build())
+                .build();
+    }
+
+    private record Table(
+            String hashKey,
+            String rangeKey,
+            ConcurrentSkipListMap<String, Map<String, AttributeValue>> items,
+            Map<String, Index> indexes
+    ) {
+
+        private Table(String hashKey, String rangeKey) {
+            this(hashKey, rangeKey, new ConcurrentSkipListMap<>(), new ConcurrentHashMap<>());
+        }
+
+        private void put(Map<String, AttributeValue> item) {
+            this.compute(this.keyOf(item), existing -> item);
+        }
+
+        private Map<String, AttributeValue> compute(
+                String key, UnaryOperator<Map<String, AttributeValue>> update
+        ) {
+            return items.compute(key, (k, existing) -> {
+                Map<String, AttributeValue> updated = update.apply(existing);
+                for (Index index : indexes.values()) {
+                    index.apply(key, existing, updated);
+                }
+                return updated;
+            });
+        }
+
+        private Collection<Map<String, AttributeValue>> partition(AttributeValue hashValue) {
+            String hash = keyString(hashValue);
+            if (rangeKey == null) {
+                Map<String, AttributeValue> item = items.get(hash);
+                return item != null ? List.of(item) : List.of();
+            }
+            return items.subMap(
+                    hash + KEY_SEPARATOR, true, hash + (char) (KEY_SEPARATOR + 1), false
+            ).values();
+        }
+
+        private String keyOf(Map<String, AttributeValue> item) {
+            String hash = keyString(item.get(hashKey));
+            return rangeKey == null ? hash : hash + KEY_SEPARATOR + keyString(item.get(rangeKey));
+        }
+
+        private Map<String, AttributeValue> keyAttributes(Map<String, AttributeValue> item) {
+            return rangeKey == null
+                    ? Map.of(hashKey, item.get(hashKey))
+                    : Map.of(hashKey, item.get(hashKey), rangeKey, item.get(rangeKey));
+        }
+
+    }
+
+    private static final class Index {
+
+        private final String hashKey;
+        private final String rangeKey;
+        private final List<String> projectedAttributes;
+        private final long propagationDelayNanos;
+        private final Map<String, Map<String, Map<String, AttributeValue>>> itemsByHash = new HashMap<>();
+        private final Deque<Change> pending = new ArrayDeque<>();
+
+        private Index(String hashKey, String rangeKey, List<String> projectedAttributes, long propagationDelayNanos) {
+            this.hashKey = hashKey;
+            this.rangeKey = rangeKey;
+            this.projectedAttributes = projectedAttributes;
+            this.propagationDelayNanos = propagationDelayNanos;
+        }
+
+        private String hashKey() {
+            return hashKey;
+        }
+
+        private String rangeKey() {
+            return rangeKey;
+        }
+
+        private synchronized void apply(
+                String key, Map<String, AttributeValue> previous, Map<String, AttributeValue> updated
+        ) {
+            Change change = new Change(System.nanoTime() + propagationDelayNanos, key, previous, updated);
+            if (propagationDelayNanos <= 0) {
+                this.propagate(change);
+            } else {
+                pending.addLast(change);
+            }
+        }
+
+        private synchronized List<Map<String, AttributeValue>> items(AttributeValue hashValue) {
+            long now = System.nanoTime();
+            while (!pending.isEmpty() && pending.peekFirst().visibleAt() <= now) {
+                this.propagate(pending.pollFirst());
+            }
+            return List.copyOf(itemsByHash.getOrDefault(keyString(hashValue), Map.of()).values());
+        }
+
+        private void propagate(Change change) {
+            AttributeValue previousHash = change.previous() != null ? change.previous().get(hashKey) : null;
+            if (previousHash != null) {
+                itemsByHash.computeIfPresent(keyString(previousHash), (hash, items) -> {
+                    items.remove(change.key());
+                    return items.isEmpty() ? null : items;
+                });
+            }
+            AttributeValue updatedHash = change.updated() != null ? change.updated().get(hashKey) : null;
+            if (updatedHash != null) {
+                itemsByHash.computeIfAbsent(keyString(updatedHash), hash -> new HashMap<>())
+                        .put(change.key(), this.project(change.updated()));
+            }
+        }
+
+        private Map<String, AttributeValue> project(Map<String, AttributeValue> item) {
+            if (projectedAttributes == null) {
+                return item;
+            }
+            Map<String, AttributeValue> projected = new HashMap<>();
+            for (String attribute : projectedAttributes) {
+                AttributeValue value = item.get(attribute);
+                if (value != null) {
+                    projected.put(attribute, value);
+                }
+            }
+            return Map.copyOf(projected);
+        }
+
+    }
+
+    private record Change(
+            long visibleAt, String key, Map<String, AttributeValue> previous, Map<String, AttributeValue> updated
+    ) {
+    }
+
+    private record TransactTarget(
+            String tableName,
+            Map<String, AttributeValue> key,
+            String condition,
+            Map<String, String> names,
+            Map<String, AttributeValue> values
+    ) {
+    }
+
+    private static String keyString(AttributeValue value) {
+        return value.s() != null ? value.s() : value.n();
+    }
+
+}
@@ -0,0 +1,354 @@
+package com.example.awssoundservice.standin;
+
+import reactor.core.publisher.Flux;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Utilities;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class InMemoryS3AsyncClient implements S3AsyncClient {
+
+    private static final int STREAM_CHUNK_SIZE = 64 * 1024;
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+
+    private final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+    private final Map<String, MultipartUpload> uploads = new ConcurrentHashMap<>();
+    private final FaultInjector faults;
+    private final S3Utilities utilities;
+
+    public InMemoryS3AsyncClient(Duration latency) {
+        this(FaultInjector.latencyOnly(latency));
+    }
+
+    public InMemoryS3AsyncClient(FaultInjector faults) {
+        this.faults = faults;
+        this.utilities = S3Utilities.builder().region(Region.EU_NORTH_1).build();
+    }
+
+    public void putObject(String bucket, String key, String contentType, byte[] content) {
+        objects.put(this.path(bucket, key), new StoredObject(content, contentType, this.eTag(content), this.now()));
+    }
+
+    public int objectCount() {
+        return objects.size();
+    }
+
+    public int uploadCount() {
+        return uploads.size();
+    }
+
+    public boolean hasObject(String bucket, String key) {
+        return objects.containsKey(this.path(bucket, key));
+    }
+
+    @Override
+    public CompletableFuture<PutObjectResponse> putObject(PutObjectRequest request, AsyncRequestBody requestBody) {
+        return this.readBody(requestBody).thenCompose(content -> this.respond(() -> {
+            StoredObject object = new StoredObject(content, request.contentType(), this.eTag(content), this.now());
+            objects.put(this.path(request.bucket(), request.key()), object);
+            return PutObjectResponse.builder().eTag(object.eTag()).build();
+        }));
+    }
+
+    @Override
+    public CompletableFuture<HeadObjectResponse> headObject(HeadObjectRequest request) {
+        return this.respond(() -> {
+            StoredObject object = this.object(request.bucket(), request.key());
+            return HeadObjectResponse.builder()
+                    .contentLength((long) object.content().length)
+                    .contentType(object.contentType())
+                    .eTag(object.eTag())
+                    .lastModified(object.lastModified())
+                    .build();
+        });
+    }
+
+    @Override
+    public <ReturnT> CompletableFuture<ReturnT> getObject(
+            GetObjectRequest request, AsyncResponseTransformer<GetObjectResponse, ReturnT> transformer
+    ) {
+        return this.inject(() -> this.slice(request)).thenCompose(slice -> {
+            CompletableFuture<ReturnT> result = transformer.prepare();
+            transformer.onResponse(slice.response());
+            transformer.onStream(SdkPublisher.adapt(this.chunks(slice.content(), slice.offset(), slice.length())));
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<DeleteObjectResponse> deleteObject(DeleteObjectRequest request) {
+        return this.respond(() -> {
+            objects.remove(this.path(request.bucket(), request.key()));
+            return DeleteObjectResponse.builder().build();
+        });
+    }
+
+    @Override
+    public CompletableFuture<CreateMultipartUploadResponse> createMultipartUpload(CreateMultipartUploadRequest request) {
+        return this.respond(() -> {
+            String uploadId = UUID.randomUUID().toString();
+            uploads.put(uploadId, new MultipartUpload(
+                    request.bucket(), request.key(), request.contentType(), Instant.now(), new ConcurrentSkipListMap<>()
+            ));
+            return CreateMultipartUploadResponse.builder()
+                    .bucket(request.bucket())
+                    .key(request.key())
+                    .uploadId(uploadId)
+                    .build();
+        });
+    }
+
+    @Override
+    public CompletableFuture<UploadPartResponse> uploadPart(UploadPartRequest request, AsyncRequestBody requestBody) {
+        return this.readBody(requestBody).thenCompose(content -> this.respond(() -> {
+            MultipartUpload upload = this.upload(request.uploadId());
+            String eTag = this.eTag(content);
+            upload.parts().put(request.partNumber(), new UploadedPart(content, eTag));
+            return UploadPartResponse.builder().eTag(eTag).build();
+        }));
+    }
+
+    @Override
+    public CompletableFuture<CompleteMultipartUploadResponse> completeMultipartUpload(
+            CompleteMultipartUploadRequest request
+    ) {
+        return this.respond(() -> {
+            MultipartUpload upload = this.upload(request.uploadId());
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            MessageDigest partDigests = this.md5();
+            List<CompletedPart> parts = request.multipartUpload().parts();
+            for (CompletedPart part : parts) {
+                UploadedPart uploaded = upload.parts().get(part.partNumber());
+                if (uploaded == null || !uploaded.eTag().equals(part.eTag())) {
+                    throw this.s3Exception(400, "InvalidPart", "Part " + part.partNumber() + " could not be found");
+                }
+                content.writeBytes(uploaded.content());
+                partDigests.update(HexFormat.of().parseHex(uploaded.eTag().replace("\"", "")));
+            }
+            uploads.remove(request.uploadId());
+            String eTag = "\"" + HexFormat.of().formatHex(partDigests.digest()) + "-" + parts.size() + "\"";
+            objects.put(this.path(upload.bucket(), upload.key()), new StoredObject(
+                    content.toByteArray(), upload.contentType(), eTag, this.now()
+            ));
+            return CompleteMultipartUploadResponse.builder()
+                    .bucket(request.bucket())
+                    .key(request.key())
+                    .eTag(eTag)
+                    .build();
+        });
+    }
+
+    @Override
+    public CompletableFuture<AbortMultipartUploadResponse> abortMultipartUpload(AbortMultipartUploadRequest request) {
+        return this.respond(() -> {
+            uploads.remove(request.uploadId());
+            return AbortMultipartUploadResponse.builder().build();
+        });
+    }
+
+    @Override
+    public CompletableFuture<ListMultipartUploadsResponse> listMultipartUploads(ListMultipartUploadsRequest request) {
+        return this.respond(() -> ListMultipartUploadsResponse.builder()
+                .bucket(request.bucket())
+                .isTruncated(false)
+                .uploads(uploads.entrySet().stream()
+                        .filter(entry -> entry.getValue().bucket().equals(request.bucket()))
+                        .map(entry -> software.amazon.awssdk.services.s3.model.MultipartUpload.builder()
+                                .key(entry.getValue().key())
+                                .uploadId(entry.getKey())
+                                .initiated(entry.getValue().initiated())
+                                .build())
+                        .toList())
+                .build());
+    }
+
+    @Override
+    public S3Utilities utilities() {
+        return utilities;
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private ObjectSlice slice(GetObjectRequest request) {
+        StoredObject object = this.object(request.bucket(), request.key());
+        if (request.ifMatch() != null && !request.ifMatch().equals(object.eTag())) {
+            throw this.s3Exception(412, "PreconditionFailed", "At least one of the pre-conditions you specified did not hold");
+        }
+        if (request.ifUnmodifiedSince() != null && object.lastModified().isAfter(request.ifUnmodifiedSince())) {
+            throw this.s3Exception(412, "PreconditionFailed", "At least one of the pre-conditions you specified did not hold");
+        }
+        int size = object.content().length;
+        GetObjectResponse.Builder response = GetObjectResponse.builder()
+                .acceptRanges("bytes")
+                .contentType(object.contentType())
+                .eTag(object.eTag())
+                .lastModified(object.lastModified());
+        Matcher range = request.range() != null ? RANGE.matcher(request.range()) : null;
+        if (range == null || !range.matches() || (range.group(1).isEmpty() && range.group(2).isEmpty())) {
+            return new ObjectSlice(
+                    this.withHttpResponse(response.contentLength((long) size).build()), object.content(), 0, size
+            );
+        }
+        int start;
+        int end;
+        if (range.group(1).isEmpty()) {
+            start = Math.max(0, size - Integer.parseInt(range.group(2)));
+            end = size - 1;
+        } else {
+            start = Integer.parseInt(range.group(1));
+            end = range.group(2).isEmpty() ? size - 1 : (int) Math.min(size - 1, Long.parseLong(range.group(2)));
+        }
+        if (start >= size || start > end) {
+            throw this.s3Exception(416, "InvalidRange", "The requested range is not satisfiable");
+        }
+        return new ObjectSlice(
+                this.withHttpResponse(response.contentLength((long) end - start + 1)
+                        .contentRange("bytes " + start + "-" + end + "/" + size)
+                        .build()),
+                object.content(),
+                start,
+                end - start + 1
+        );
+    }
+
+    private Flux<ByteBuffer> chunks(byte[] content, int offset, int length) {
+        int chunkCount = (length + STREAM_CHUNK_SIZE - 1) / STREAM_CHUNK_SIZE;
+        return Flux.range(0, chunkCount).map(chunk -> {
+            int chunkOffset = offset + chunk * STREAM_CHUNK_SIZE;
+            int chunkLength = Math.min(STREAM_CHUNK_SIZE, offset + length - chunkOffset);
+            return ByteBuffer.wrap(content, chunkOffset, chunkLength).slice().asReadOnlyBuffer();
+        });
+    }
+
+    private CompletableFuture<byte[]> readBody(AsyncRequestBody requestBody) {
+        return Flux.from(requestBody)
+                .reduce(new ByteArrayOutputStream(), (output, buffer) -> {
+                    byte[] bytes = new byte[buffer.remaining()];
+                    buffer.get(bytes);
+                    output.writeBytes(bytes);
+                    return output;
+                })
+                .map(ByteArrayOutputStream::toByteArray)
+                .toFuture();
+    }
+
+    private StoredObject object(String bucket, String key) {
+        StoredObject object = objects.get(this.path(bucket, key));
+        if (object == null) {
+            throw NoSuchKeyException.builder()
+                    .statusCode(404)
+                    .message("The specified key does not exist")
+                    .awsErrorDetails(AwsErrorDetails.builder().errorCode("NoSuchKey").serviceName("S3").build())
+                    .build();
+        }
+        return object;
+    }
+
+    private MultipartUpload upload(String uploadId) {
+        MultipartUpload upload = uploads.get(uploadId);
+        if (upload == null) {
+            throw NoSuchUploadException.builder()
+                    .statusCode(404)
+                    .message("The specified upload does not exist")
+                    .awsErrorDetails(AwsErrorDetails.builder().errorCode("NoSuchUpload").serviceName("S3").build())
+                    .build();
+        }
+        return upload;
+    }
+
+    private S3Exception s3Exception(int statusCode, String errorCode, String message) {
+        return (S3Exception) S3Exception.builder()
+                .statusCode(statusCode)
+                .message(message)
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode(errorCode).serviceName("S3").build())
+                .build();
+    }
+
+    private String eTag(byte[] content) {
+        return "\"" + HexFormat.of().formatHex(this.md5().digest(content)) + "\"";
+    }
+
+    private MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private String path(String bucket, String key) {
+        return bucket + "/" + key;
+    }
+
+    private <T extends S3Response> CompletableFuture<T> respond(Supplier<T> supplier) {
+        return this.inject(supplier).thenApply(this::withHttpResponse);
+    }
+
+    private <T> CompletableFuture<T> inject(Supplier<T> supplier) {
+        return faults.respond(
+                supplier,
+                () -> this.s3Exception(503, "SlowDown", "Please reduce your request rate"),
+                () -> this.s3Exception(500, "InternalError", "We encountered an internal error. Please try again")
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends S3Response> T withHttpResponse(T response) {
+        return (T) response.toBuilder()
+                .sdkHttpResponse(SdkHttpResponse.builder().statusCode(200).build())
+                .build();
+    }
+
+    private record StoredObject(byte[] content, String contentType, String eTag, Instant lastModified) {
+    }
+
+    private record UploadedPart(byte[] content, String eTag) {
+    }
+
+    private record MultipartUpload(
+            String bucket,
+            String key,
+            String contentType,
+            Instant initiated,
+            ConcurrentSkipListMap<Integer, UploadedPart> parts
+    ) {
+    }
+
+    private record ObjectSlice(GetObjectResponse response, byte[] content, int offset, int length) {
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.example.awssoundservice.standin;
+
+import java.time.Duration;
+import java.util.Random;
+
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    double Z_99 = 2.3263;
+
+    long sampleNanos(Random random);
+
+    static LatencyDistribution none() {
+        return random -> 0;
+    }
+
+    static LatencyDistribution fixed(Duration latency) {
+        long nanos = latency.toNanos();
+        return random -> nanos;
+    }
+
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long spread = Math.max(1, max.toNanos() - minNanos);
+        return random -> minNanos + (long) (random.nextDouble() * spread);
+    }
+
+    static LatencyDistribution logNormal(Duration median, Duration p99) {
+        double mu = Math.log(median.toNanos());
+        double sigma = Math.max(0, Math.log((double) p99.toNanos() / median.toNanos()) / Z_99);
+        return random -> (long) Math.exp(mu + sigma * random.nextGaussian());
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.example.awssoundservice.standin;
+
+import com.example.awssoundservice.common.DynamoDbTables;
+import com.example.awssoundservice.common.codec.PlaylistEntryCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import software.amazon.awssdk.services.dynamodb.model.ProjectionType;
+
+import java.time.Duration;
+
+@TestConfiguration(proxyBeanMethods = false)
+public class StandInAwsConfiguration {
+
+    @Value("${standin.seed:42}")
+    private long seed;
+
+    @Bean
+    @Primary
+    public InMemoryDynamoDbAsyncClient standInDynamoDbAsyncClient(
+            @Value("${standin.dynamodb.latency-median:4ms}") Duration median,
+            @Value("${standin.dynamodb.latency-p99:25ms}") Duration p99,
+            @Value("${standin.dynamodb.throttle-rate:0}") double throttleRate,
+            @Value("${standin.dynamodb.error-rate:0}") double errorRate,
+            @Value("${standin.dynamodb.index-propagation-delay:0ms}") Duration indexPropagationDelay
+    ) {
+        InMemoryDynamoDbAsyncClient client = new InMemoryDynamoDbAsyncClient(new FaultInjector(
+                LatencyDistribution.logNormal(median, p99), throttleRate, errorRate, seed
+        ));
+        client.defineTable(DynamoDbTables.PLAYLIST_ENTRIES, PlaylistEntryCodec.PARTITION_KEY, PlaylistEntryCodec.SORT_KEY);
+        client.defineTable(DynamoDbTables.TRACK_CONTENTS, "sha256", null);
+        client.defineIndex(
+                DynamoDbTables.PLAYLIST_ENTRIES, DynamoDbTables.PLAYLIST_ENTRIES_BY_TRACK,
+                "trackId", PlaylistEntryCodec.PARTITION_KEY, ProjectionType.KEYS_ONLY, indexPropagationDelay
+        );
+        return client;
+    }
+
+    @Bean
+    @Primary
+    public InMemoryS3AsyncClient standInS3AsyncClient(
+            @Value("${standin.s3.latency-median:15ms}") Duration median,
+            @Value("${standin.s3.latency-p99:80ms}") Duration p99,
+            @Value("${standin.s3.throttle-rate:0}") double throttleRate,
+            @Value("${standin.s3.error-rate:0}") double errorRate
+    ) {
+        return new InMemoryS3AsyncClient(new FaultInjector(
+                LatencyDistribution.logNormal(median, p99), throttleRate, errorRate, seed + 1
+        ));
+    }
+
+}